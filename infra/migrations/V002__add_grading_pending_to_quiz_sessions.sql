@@ -0,0 +1,11 @@
+-- ============================================================
+-- Migration: Add grading_pending status to quiz_sessions table
+-- ============================================================
+-- Sessions submitted asynchronously stay in grading_pending until
+-- the background grading worker writes the quiz result
+-- ============================================================
+
+USE tiz;
+
+ALTER TABLE quiz_sessions
+MODIFY COLUMN status ENUM('in_progress', 'grading_pending', 'completed', 'expired') NOT NULL DEFAULT 'in_progress';
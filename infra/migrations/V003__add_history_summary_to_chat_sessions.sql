@@ -0,0 +1,17 @@
+-- ============================================================
+-- Migration: Add rolling history summary to chat_sessions table
+-- ============================================================
+-- Chat turns only send the most recent messages to the LLM; older
+-- messages are folded into history_summary, and summarized_until
+-- records the created_at of the last message folded in; the
+-- composite index serves the per-turn "latest N messages" query
+-- ============================================================
+
+USE tiz;
+
+ALTER TABLE chat_sessions
+ADD COLUMN history_summary TEXT AFTER confirmed_knowledge_set_id,
+ADD COLUMN summarized_until TIMESTAMP(6) AFTER history_summary;
+
+ALTER TABLE chat_messages
+ADD KEY idx_chat_messages_session_created_at (session_id, created_at);
@@ -0,0 +1,12 @@
+-- ============================================================
+-- Migration: Add version to knowledge_sets table
+-- ============================================================
+-- version is incremented whenever a knowledge set or its questions
+-- change; quiz-service and practice-service cache question set
+-- snapshots keyed by (knowledge_set_id, version)
+-- ============================================================
+
+USE tiz;
+
+ALTER TABLE knowledge_sets
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0 AFTER question_count;
@@ -0,0 +1,13 @@
+-- ============================================================
+-- Migration: Keyset pagination index on knowledge_sets
+-- ============================================================
+-- Library listings seek on (created_at, id) per user; the composite
+-- index serves the seek and ORDER BY and replaces the user_id index
+-- (leftmost prefix)
+-- ============================================================
+
+USE tiz;
+
+ALTER TABLE knowledge_sets
+ADD KEY idx_knowledge_sets_user_created (user_id, created_at, id),
+DROP KEY idx_knowledge_sets_user_id;
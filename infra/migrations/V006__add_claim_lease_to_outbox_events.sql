@@ -0,0 +1,15 @@
+-- ============================================================
+-- Migration: Claim lease on outbox_events
+-- ============================================================
+-- Relay workers claim events with SELECT ... FOR UPDATE SKIP LOCKED
+-- and record a lease (locked_by, locked_until) so that replicas never
+-- publish the same event; (status, created_at) serves the claim scan
+-- ============================================================
+
+USE tiz;
+
+ALTER TABLE outbox_events
+ADD COLUMN locked_by VARCHAR(64) NULL AFTER sent_at,
+ADD COLUMN locked_until TIMESTAMP(6) NULL AFTER locked_by,
+ADD KEY idx_outbox_events_status_created (status, created_at),
+DROP KEY idx_outbox_events_status;
@@ -0,0 +1,29 @@
+-- ============================================================
+-- Migration: Outbox retention
+-- ============================================================
+-- The retention job deletes SENT events older than the retention
+-- window in chunks along (status, sent_at), optionally copying them
+-- to outbox_events_archive first; (status, retry_count, created_at)
+-- serves the FAILED-and-retryable branch of the claim scan
+-- ============================================================
+
+USE tiz;
+
+ALTER TABLE outbox_events
+ADD KEY idx_outbox_events_status_retry_created (status, retry_count, created_at),
+ADD KEY idx_outbox_events_status_sent (status, sent_at);
+
+CREATE TABLE IF NOT EXISTS outbox_events_archive (
+    id BINARY(16) NOT NULL,
+    aggregate_type VARCHAR(100) NOT NULL,
+    aggregate_id BINARY(16) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload JSON NOT NULL,
+    retry_count INT NOT NULL DEFAULT 0,
+    sent_at TIMESTAMP(6) NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (id),
+    KEY idx_outbox_events_archive_aggregate (aggregate_type, aggregate_id),
+    KEY idx_outbox_events_archive_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
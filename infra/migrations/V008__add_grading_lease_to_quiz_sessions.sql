@@ -0,0 +1,16 @@
+-- ============================================================
+-- Migration: Grading lease on quiz_sessions
+-- ============================================================
+-- The instance grading a session holds a lease (grading_owner,
+-- grading_heartbeat_at) that it refreshes while the job is queued
+-- or running; grading_attempts caps retries, after which the
+-- session moves to grading_failed
+-- ============================================================
+
+USE tiz;
+
+ALTER TABLE quiz_sessions
+MODIFY COLUMN status ENUM('in_progress', 'grading_pending', 'completed', 'expired', 'grading_failed') NOT NULL DEFAULT 'in_progress',
+ADD COLUMN grading_owner VARCHAR(64) NULL AFTER completed_at,
+ADD COLUMN grading_heartbeat_at TIMESTAMP(6) NULL AFTER grading_owner,
+ADD COLUMN grading_attempts INT NOT NULL DEFAULT 0 AFTER grading_heartbeat_at;
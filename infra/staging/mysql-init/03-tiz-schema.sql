@@ -114,13 +114,14 @@ CREATE TABLE IF NOT EXISTS knowledge_sets (
     category_id BINARY(16),
     difficulty ENUM('easy', 'medium', 'hard') NOT NULL DEFAULT 'medium',
     question_count INT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
     deleted_at TIMESTAMP(6) NULL,
     created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
     created_by BINARY(16),
     updated_by BINARY(16),
     PRIMARY KEY (id),
-    KEY idx_knowledge_sets_user_id (user_id),
+    KEY idx_knowledge_sets_user_created (user_id, created_at, id),
     KEY idx_knowledge_sets_category_id (category_id),
     KEY idx_knowledge_sets_difficulty (difficulty),
     KEY idx_knowledge_sets_deleted_at (deleted_at),
@@ -168,6 +169,8 @@ CREATE TABLE IF NOT EXISTS chat_sessions (
     status ENUM('active', 'confirmed', 'expired') NOT NULL DEFAULT 'active',
     generated_summary JSON,
     confirmed_knowledge_set_id BINARY(16),
+    history_summary TEXT,
+    summarized_until TIMESTAMP(6),
     created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
     created_by BINARY(16),
@@ -187,7 +190,8 @@ CREATE TABLE IF NOT EXISTS chat_messages (
     created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     PRIMARY KEY (id),
     KEY idx_chat_messages_session_id (session_id),
-    KEY idx_chat_messages_created_at (created_at)
+    KEY idx_chat_messages_created_at (created_at),
+    KEY idx_chat_messages_session_created_at (session_id, created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- ============================================================
@@ -240,11 +244,14 @@ CREATE TABLE IF NOT EXISTS quiz_sessions (
     id BINARY(16) NOT NULL,
     user_id BINARY(16) NOT NULL,
     knowledge_set_id BINARY(16) NOT NULL,
-    status ENUM('in_progress', 'completed', 'expired') NOT NULL DEFAULT 'in_progress',
+    status ENUM('in_progress', 'grading_pending', 'completed', 'expired', 'grading_failed') NOT NULL DEFAULT 'in_progress',
     time_limit INT,
     total_questions INT NOT NULL DEFAULT 0,
     started_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     completed_at TIMESTAMP(6) NULL,
+    grading_owner VARCHAR(64) NULL,
+    grading_heartbeat_at TIMESTAMP(6) NULL,
+    grading_attempts INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
     created_by BINARY(16),
@@ -321,13 +328,33 @@ CREATE TABLE IF NOT EXISTS outbox_events (
     retry_count INT NOT NULL DEFAULT 0,
     error_message TEXT,
     sent_at TIMESTAMP(6) NULL,
+    locked_by VARCHAR(64) NULL,
+    locked_until TIMESTAMP(6) NULL,
     created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     PRIMARY KEY (id),
-    KEY idx_outbox_events_status (status),
+    KEY idx_outbox_events_status_created (status, created_at),
+    KEY idx_outbox_events_status_retry_created (status, retry_count, created_at),
+    KEY idx_outbox_events_status_sent (status, sent_at),
     KEY idx_outbox_events_aggregate (aggregate_type, aggregate_id),
     KEY idx_outbox_events_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Outbox 归档表 (保留期外的已发送事件)
+CREATE TABLE IF NOT EXISTS outbox_events_archive (
+    id BINARY(16) NOT NULL,
+    aggregate_type VARCHAR(100) NOT NULL,
+    aggregate_id BINARY(16) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload JSON NOT NULL,
+    retry_count INT NOT NULL DEFAULT 0,
+    sent_at TIMESTAMP(6) NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (id),
+    KEY idx_outbox_events_archive_aggregate (aggregate_type, aggregate_id),
+    KEY idx_outbox_events_archive_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- ============================================================
 -- 初始化数据
 -- ============================================================
@@ -1,12 +1,16 @@
 package io.github.suj1e.chat.config;
 
-import io.github.suj1e.chat.client.UserClient;
+import io.github.suj1e.content.api.client.ConditionalGetFilter;
 import io.github.suj1e.content.api.client.ContentClient;
 import io.github.suj1e.llm.api.client.LlmClient;
+import io.github.suj1e.user.api.cache.AiConfigCacheConfiguration;
+import io.github.suj1e.user.api.client.UserClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.support.WebClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
@@ -15,6 +19,7 @@ import org.springframework.web.service.invoker.HttpServiceProxyFactory;
  * HTTP Client 配置.
  */
 @Configuration
+@Import(AiConfigCacheConfiguration.class)
 public class HttpClientConfig {
 
     @Value("${llm.service.url:http://llm-service:8106}")
@@ -23,6 +28,9 @@ public class HttpClientConfig {
     @Value("${content.service.url:http://content-service:8103}")
     private String contentServiceUrl;
 
+    @Value("${content.http-cache.max-size:16MB}")
+    private DataSize httpCacheMaxSize;
+
     @Value("${user.service.url:http://user-service:8107}")
     private String userServiceUrl;
 
@@ -52,12 +60,13 @@ public class HttpClientConfig {
     }
 
     /**
-     * Content 服务客户端 (使用服务发现).
+     * Content 服务客户端 (使用服务发现，GET 请求携带 If-None-Match 复用上次响应).
      */
     @Bean
     public ContentClient contentClient(WebClient.Builder loadBalancedWebClientBuilder) {
-        WebClient webClient = loadBalancedWebClientBuilder
+        WebClient webClient = loadBalancedWebClientBuilder.clone()
             .baseUrl(contentServiceUrl)
+            .filter(new ConditionalGetFilter(httpCacheMaxSize.toBytes()))
             .build();
 
         HttpServiceProxyFactory factory = HttpServiceProxyFactory
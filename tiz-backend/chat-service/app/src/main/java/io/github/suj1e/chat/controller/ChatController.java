@@ -45,15 +45,26 @@ public class ChatController {
     ) {
         log.info("Stream chat request from user: {}, session: {}", userId, request.sessionId());
 
-        // 创建 SSE emitter
-        SseEmitter emitter = sseEmitterService.createEmitter();
-
-        // 异步处理对话流
-        sseEmitterService.sendFlux(
-            chatService.chat(userId, request.sessionId(), request.message())
+        // 占用流名额后处理对话流，名额已满时立即拒绝
+        return sseEmitterService.stream(
+            () -> chatService.chat(userId, request.sessionId(), request.message())
         );
+    }
+
+    /**
+     * 续传助手回复.
+     * GET /api/chat/v1/stream/{id}/resume?offset=N
+     * 从已生成内容的第 offset 个字符开始补发，生成未结束时继续推送后续事件.
+     */
+    @GetMapping(value = "/stream/{id}/resume", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter resumeChat(
+        @AuthenticationPrincipal UUID userId,
+        @PathVariable UUID id,
+        @RequestParam(defaultValue = "0") int offset
+    ) {
+        log.info("Resume chat request from user: {}, session: {}, offset: {}", userId, id, offset);
 
-        return emitter;
+        return sseEmitterService.stream(() -> chatService.resume(userId, id, offset));
     }
 
     /**
@@ -2,14 +2,15 @@ package io.github.suj1e.chat.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.util.UUID;
 
 /**
  * 对话消息实体.
+ * ID 和创建时间在写入消息日志时由应用分配，写入前即可被读取和排序；
+ * 实现 {@link Persistable} 使预分配 ID 的新消息直接 INSERT，可按 JDBC 批量写入.
  */
 @Getter
 @Setter
@@ -18,11 +19,9 @@ import java.util.UUID;
 @Builder
 @Entity
 @Table(name = "chat_messages")
-@EntityListeners(AuditingEntityListener.class)
-public class ChatMessage {
+public class ChatMessage implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -48,10 +47,38 @@ public class ChatMessage {
     /**
      * 创建时间.
      */
-    @CreatedDate
     @Column(name = "created_at", updatable = false, nullable = false)
     private Instant createdAt;
 
+    /**
+     * 是否已持久化 (加载或写入后为 true).
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PrePersist
+    void assignDefaults() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+
     /**
      * 消息角色枚举.
      */
@@ -6,6 +6,7 @@ import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -47,6 +48,18 @@ public class ChatSession extends BaseEntity {
     @Column(name = "confirmed_knowledge_set_id")
     private UUID confirmedKnowledgeSetId;
 
+    /**
+     * 窗口之外早期对话的滚动摘要.
+     */
+    @Column(name = "history_summary", columnDefinition = "text")
+    private String historySummary;
+
+    /**
+     * 已并入滚动摘要的最后一条消息的创建时间.
+     */
+    @Column(name = "summarized_until")
+    private Instant summarizedUntil;
+
     /**
      * 会话状态枚举.
      */
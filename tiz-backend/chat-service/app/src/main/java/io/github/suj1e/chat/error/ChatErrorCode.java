@@ -30,7 +30,11 @@ public enum ChatErrorCode implements ErrorCode {
     CHAT_4030("api_error", "CHAT_4030", "AI 服务暂时不可用", HttpStatus.SERVICE_UNAVAILABLE),
     CHAT_4031("api_error", "CHAT_4031", "AI 服务响应超时", HttpStatus.GATEWAY_TIMEOUT),
     CHAT_4032("api_error", "CHAT_4032", "AI 服务返回错误", HttpStatus.BAD_GATEWAY),
-    CHAT_4033("validation_error", "CHAT_4033", "请先配置 AI 设置", HttpStatus.BAD_REQUEST);
+    CHAT_4033("validation_error", "CHAT_4033", "请先配置 AI 设置", HttpStatus.BAD_REQUEST),
+    CHAT_4034("rate_limit_error", "CHAT_4034", "当前对话连接过多，请稍后重试", HttpStatus.TOO_MANY_REQUESTS),
+    CHAT_4035("api_error", "CHAT_4035", "客户端接收过慢，对话流已终止", HttpStatus.SERVICE_UNAVAILABLE),
+    CHAT_4036("api_error", "CHAT_4036", "回复生成已中断，请重新发送消息", HttpStatus.BAD_GATEWAY),
+    CHAT_4037("not_found_error", "CHAT_4037", "没有可续传的回复", HttpStatus.NOT_FOUND);
 
     private final String type;
     private final String code;
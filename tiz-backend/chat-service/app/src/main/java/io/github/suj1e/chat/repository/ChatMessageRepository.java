@@ -1,9 +1,11 @@
 package io.github.suj1e.chat.repository;
 
 import io.github.suj1e.chat.entity.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +25,17 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, UUID>
      */
     List<ChatMessage> findTop20BySessionIdOrderByCreatedAtDesc(UUID sessionId);
 
+    /**
+     * 根据会话 ID 分页查找最近的消息，按创建时间倒序.
+     */
+    List<ChatMessage> findBySessionIdOrderByCreatedAtDesc(UUID sessionId, Pageable pageable);
+
+    /**
+     * 查找会话在 (after, before) 区间内的消息，按创建时间排序 (用于滚动摘要).
+     */
+    List<ChatMessage> findBySessionIdAndCreatedAtGreaterThanAndCreatedAtLessThanOrderByCreatedAtAsc(
+        UUID sessionId, Instant after, Instant before, Pageable pageable);
+
     /**
      * 统计会话的消息数量.
      */
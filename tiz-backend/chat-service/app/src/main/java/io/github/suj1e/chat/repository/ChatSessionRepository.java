@@ -2,8 +2,12 @@ package io.github.suj1e.chat.repository;
 
 import io.github.suj1e.chat.entity.ChatSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,4 +37,16 @@ public interface ChatSessionRepository extends JpaRepository<ChatSession, UUID>
      * 检查会话是否属于指定用户.
      */
     boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * 更新滚动摘要.
+     * 仅当 summarizedUntil 仍为 expectedUntil 时更新，避免并发摘要互相覆盖.
+     *
+     * @return 更新行数
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ChatSession s SET s.historySummary = :summary, s.summarizedUntil = :summarizedUntil "
+        + "WHERE s.id = :id AND (s.summarizedUntil = :expectedUntil OR (:expectedUntil IS NULL AND s.summarizedUntil IS NULL))")
+    int updateHistorySummary(UUID id, String summary, Instant summarizedUntil, Instant expectedUntil);
 }
@@ -0,0 +1,207 @@
+package io.github.suj1e.chat.service;
+
+import io.github.suj1e.chat.entity.ChatMessage;
+import io.github.suj1e.chat.entity.ChatSession;
+import io.github.suj1e.chat.repository.ChatMessageRepository;
+import io.github.suj1e.chat.repository.ChatSessionRepository;
+import io.github.suj1e.llm.api.client.LlmClient;
+import io.github.suj1e.llm.api.dto.AiConfig;
+import io.github.suj1e.llm.api.dto.SummarizeRequest;
+import io.github.suj1e.llm.api.dto.SummarizeResponse;
+import io.github.suj1e.common.response.ApiResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 对话上下文服务.
+ * 每轮只读取最近的 {@code max-messages} 条消息，并在 {@code token-budget} 内由新到旧保留原文；
+ * 窗口之外的早期对话由 LLM 异步合并进会话的滚动摘要，作为 system 消息放在历史最前面.
+ * 超出预算但尚未摘要的消息继续保留原文，累计达到 {@code summary-min-messages} 条时才合并进摘要，
+ * 保证每条消息总是以原文或摘要的形式出现在上下文中.
+ * 每轮的读取量和发送给 LLM 的上下文大小与会话长度无关.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatContextService {
+
+    static final String SUMMARY_ROLE = "system";
+    private static final String SUMMARY_PREFIX = "以下是此前对话的摘要：\n";
+
+    private final ChatMessageRepository messageRepository;
+    private final ChatSessionRepository sessionRepository;
+    private final LlmClient llmClient;
+    private final ChatMessageLog messageLog;
+
+    @Value("${chat.context.max-messages:40}")
+    private int maxMessages;
+
+    @Value("${chat.context.token-budget:4000}")
+    private int tokenBudget;
+
+    @Value("${chat.context.summary-min-messages:6}")
+    private int summaryMinMessages;
+
+    @Value("${chat.context.summary-batch-size:50}")
+    private int summaryBatchSize;
+
+    private final ExecutorService summaryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<UUID> summarizing = ConcurrentHashMap.newKeySet();
+
+    @PreDestroy
+    void shutdown() {
+        summaryExecutor.shutdown();
+    }
+
+    /**
+     * 构建发送给 LLM 的对话历史.
+     * 窗口之外未摘要的消息足够多，或读取上限之外可能还有未摘要的消息时，异步更新滚动摘要，不阻塞本轮对话.
+     *
+     * @param session  会话
+     * @param aiConfig 用户 AI 配置 (用于生成摘要)
+     * @return 对话历史，按时间顺序
+     */
+    public List<io.github.suj1e.llm.api.dto.ChatMessage> buildHistory(ChatSession session, AiConfig aiConfig) {
+        List<ChatMessage> recent = messageLog.merge(session.getId(),
+            messageRepository.findBySessionIdOrderByCreatedAtDesc(session.getId(), PageRequest.of(0, maxMessages)),
+            false);
+        if (recent.size() > maxMessages) {
+            recent = recent.subList(0, maxMessages);
+        }
+
+        String summary = session.getHistorySummary();
+        Instant summarizedUntil = session.getSummarizedUntil();
+        int remaining = tokenBudget - (summary != null ? estimateTokens(summary) : 0);
+
+        // 由新到旧在预算内保留原文，至少保留最近一条
+        int kept = 0;
+        for (ChatMessage message : recent) {
+            int tokens = estimateTokens(message.getContent());
+            if (kept > 0 && tokens > remaining) {
+                break;
+            }
+            kept++;
+            remaining -= tokens;
+        }
+
+        // 超出预算但尚未摘要的消息保留原文，直到被合并进摘要
+        int unsummarized = 0;
+        while (kept + unsummarized < recent.size()
+            && isUnsummarized(recent.get(kept + unsummarized), summarizedUntil)) {
+            unsummarized++;
+        }
+
+        if (kept > 0) {
+            // 读取上限之外可能还有未摘要的消息，它们无法保留原文，不等累计条数直接摘要
+            boolean olderUnread = recent.size() == maxMessages && isUnsummarized(recent.getLast(), summarizedUntil);
+            if (unsummarized >= summaryMinMessages || olderUnread) {
+                Instant cutoff = recent.get(kept - 1).getCreatedAt();
+                summarizeAsync(session.getId(), summary, summarizedUntil, cutoff, aiConfig);
+            }
+        }
+
+        List<ChatMessage> window = new ArrayList<>(recent.subList(0, kept + unsummarized));
+        Collections.reverse(window);
+
+        List<io.github.suj1e.llm.api.dto.ChatMessage> history = new ArrayList<>(window.size() + 1);
+        if (summary != null && !summary.isBlank()) {
+            history.add(new io.github.suj1e.llm.api.dto.ChatMessage(SUMMARY_ROLE, SUMMARY_PREFIX + summary));
+        }
+        window.forEach(m -> history.add(toDto(m)));
+        return history;
+    }
+
+    /**
+     * 异步将 (summarizedUntil, cutoff) 区间内的消息合并进滚动摘要.
+     * 同一会话同时只有一个摘要任务；是否需要摘要由调用方判断.
+     */
+    void summarizeAsync(UUID sessionId, String previousSummary, Instant summarizedUntil,
+                        Instant cutoff, AiConfig aiConfig) {
+        if (!summarizing.add(sessionId)) {
+            return;
+        }
+        summaryExecutor.execute(() -> {
+            try {
+                summarize(sessionId, previousSummary, summarizedUntil, cutoff, aiConfig);
+            } catch (Exception e) {
+                log.warn("Failed to update history summary for session {}: {}", sessionId, e.getMessage());
+            } finally {
+                summarizing.remove(sessionId);
+            }
+        });
+    }
+
+    private void summarize(UUID sessionId, String previousSummary, Instant summarizedUntil,
+                           Instant cutoff, AiConfig aiConfig) {
+        List<ChatMessage> pending = messageRepository
+            .findBySessionIdAndCreatedAtGreaterThanAndCreatedAtLessThanOrderByCreatedAtAsc(
+                sessionId, summarizedUntil != null ? summarizedUntil : Instant.EPOCH, cutoff,
+                PageRequest.of(0, summaryBatchSize));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        ApiResponse<SummarizeResponse> response = llmClient.summarizeChat(new SummarizeRequest(
+            sessionId,
+            previousSummary,
+            pending.stream().map(this::toDto).toList(),
+            aiConfig
+        ));
+        String summary = response.data() != null ? response.data().summary() : null;
+        if (summary == null || summary.isBlank()) {
+            return;
+        }
+
+        Instant newUntil = pending.getLast().getCreatedAt();
+        int updated = sessionRepository.updateHistorySummary(sessionId, summary, newUntil, summarizedUntil);
+        if (updated == 0) {
+            log.debug("History summary of session {} was updated concurrently, skipping", sessionId);
+        } else {
+            log.debug("Folded {} messages into history summary of session {}", pending.size(), sessionId);
+        }
+    }
+
+    private static boolean isUnsummarized(ChatMessage message, Instant summarizedUntil) {
+        return summarizedUntil == null || message.getCreatedAt().isAfter(summarizedUntil);
+    }
+
+    private io.github.suj1e.llm.api.dto.ChatMessage toDto(ChatMessage message) {
+        return new io.github.suj1e.llm.api.dto.ChatMessage(
+            message.getRole().name().toLowerCase(),
+            message.getContent()
+        );
+    }
+
+    /**
+     * 估算 token 数: CJK 等非 ASCII 字符按 1 个 token 计，ASCII 字符按 4 个字符 1 个 token 计.
+     */
+    static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 0x80) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return other + (ascii + 3) / 4;
+    }
+}
@@ -26,6 +26,7 @@ public class ChatHistoryService {
 
     private final ChatSessionRepository sessionRepository;
     private final ChatMessageRepository messageRepository;
+    private final ChatMessageLog messageLog;
 
     /**
      * 获取对话历史.
@@ -46,7 +47,8 @@ public class ChatHistoryService {
         }
 
         // 获取消息列表
-        List<ChatMessage> messages = messageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
+        List<ChatMessage> messages = messageLog.merge(sessionId,
+            messageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId), true);
 
         // 转换为响应
         List<HistoryResponse.MessageItem> messageItems = messages.stream()
@@ -84,6 +86,6 @@ public class ChatHistoryService {
      */
     @Transactional(readOnly = true)
     public List<ChatMessage> getSessionMessages(UUID sessionId) {
-        return messageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
+        return messageLog.merge(sessionId, messageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId), true);
     }
 }
@@ -0,0 +1,290 @@
+package io.github.suj1e.chat.service;
+
+import io.github.suj1e.chat.entity.ChatMessage;
+import io.github.suj1e.chat.repository.ChatMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 对话消息日志 (write-behind).
+ * {@code async} 模式下消息先进入内存队列，按 {@code flush-interval} 或攒够 {@code batch-size} 条后
+ * 以 JDBC 批量 INSERT 写入；写入前的消息通过 {@link #merge} 对读取方可见.
+ * 批量写入失败时逐条重写以隔离问题行，因数据本身无法写入 (非瞬时错误) 累计 {@code max-attempts} 次的消息
+ * 记录日志后丢弃，其余失败的消息放回队列等待下次刷新.
+ * {@code sync} 模式下每条消息立即写入，适合不能接受进程崩溃丢失最近消息的部署.
+ * 在事务内追加的消息在事务提交后才进入队列，事务回滚时丢弃.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageLog {
+
+    private final ChatMessageRepository messageRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chat.message-log.durability:async}")
+    private String durability;
+
+    @Value("${chat.message-log.flush-interval:200ms}")
+    private Duration flushInterval;
+
+    @Value("${chat.message-log.batch-size:50}")
+    private int batchSize;
+
+    @Value("${chat.message-log.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${chat.message-log.max-attempts:3}")
+    private int maxAttempts;
+
+    private final ConcurrentLinkedQueue<ChatMessage> queue = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, List<ChatMessage>> pendingBySession = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Map<UUID, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService flusher;
+    private TransactionTemplate transactionTemplate;
+    private boolean writeBehind;
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        // 写入可能发生在外层事务提交后 (afterCommit)，必须开启独立事务，否则写入不会提交
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        writeBehind = !"sync".equalsIgnoreCase(durability.trim());
+        Gauge.builder("chat.message_log.pending", pendingCount, AtomicInteger::get)
+            .description("Chat messages appended but not yet written to the database")
+            .register(meterRegistry);
+        dropped = Counter.builder("chat.message_log.dropped")
+            .description("Chat messages dropped after repeatedly failing to be written")
+            .register(meterRegistry);
+        if (writeBehind) {
+            flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("chat-message-log-flusher").daemon(true).factory());
+            long intervalMs = Math.max(1, flushInterval.toMillis());
+            flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 关闭前写出剩余消息
+        flushQuietly();
+    }
+
+    /**
+     * 追加消息.
+     * 立即分配 ID 和创建时间；在事务内调用时于提交后入队.
+     *
+     * @param message 消息
+     * @return 已分配 ID 的消息
+     */
+    public ChatMessage append(ChatMessage message) {
+        if (message.getId() == null) {
+            message.setId(UUID.randomUUID());
+        }
+        if (message.getCreatedAt() == null) {
+            message.setCreatedAt(Instant.now());
+        }
+
+        if (!writeBehind) {
+            return messageRepository.save(message);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(message);
+                }
+            });
+        } else {
+            enqueue(message);
+        }
+        return message;
+    }
+
+    /**
+     * 将会话中尚未写入的消息合并进数据库查询结果 (按 ID 去重，按创建时间排序).
+     *
+     * @param sessionId 会话 ID
+     * @param persisted 数据库查询结果
+     * @param ascending 是否按创建时间正序
+     * @return 合并后的消息
+     */
+    public List<ChatMessage> merge(UUID sessionId, List<ChatMessage> persisted, boolean ascending) {
+        List<ChatMessage> pending = pendingBySession.get(sessionId);
+        if (pending == null) {
+            return persisted;
+        }
+        Map<UUID, ChatMessage> byId = new LinkedHashMap<>();
+        persisted.forEach(m -> byId.put(m.getId(), m));
+        synchronized (pending) {
+            pending.forEach(m -> byId.putIfAbsent(m.getId(), m));
+        }
+        Comparator<ChatMessage> order = Comparator.comparing(ChatMessage::getCreatedAt);
+        List<ChatMessage> merged = new ArrayList<>(byId.values());
+        merged.sort(ascending ? order : order.reversed());
+        return merged;
+    }
+
+    /**
+     * 立即写出队列中的消息.
+     * 有消息写入失败并放回队列时停止本次刷新，等待下次重试.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<ChatMessage> batch = new ArrayList<>(batchSize);
+            ChatMessage message;
+            while ((message = queue.peek()) != null) {
+                batch.add(message);
+                queue.poll();
+                if (batch.size() >= batchSize) {
+                    if (!write(batch)) {
+                        return;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void enqueue(ChatMessage message) {
+        if (pendingCount.get() >= maxPending) {
+            // 积压过多 (数据库不可用或过慢) 时退化为同步写入
+            log.warn("Chat message log has {} pending messages, writing synchronously", pendingCount.get());
+            transactionTemplate.executeWithoutResult(status -> messageRepository.save(message));
+            return;
+        }
+        pendingBySession.compute(message.getSessionId(), (id, list) -> {
+            List<ChatMessage> pending = list != null ? list : new ArrayList<>();
+            synchronized (pending) {
+                pending.add(message);
+            }
+            return pending;
+        });
+        queue.add(message);
+        if (pendingCount.incrementAndGet() >= batchSize) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * 批量写入一批消息，失败时退化为逐条写入.
+     *
+     * @return 是否没有消息被放回队列
+     */
+    private boolean write(List<ChatMessage> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> messageRepository.saveAll(batch));
+            batch.forEach(this::release);
+            log.debug("Flushed {} chat messages", batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} chat messages in batch, writing one by one: {}", batch.size(), e.getMessage());
+        }
+
+        boolean allWritten = true;
+        for (ChatMessage message : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> messageRepository.save(message));
+                release(message);
+            } catch (RuntimeException e) {
+                if (!retry(message, e)) {
+                    release(message);
+                    continue;
+                }
+                // 放回队列，下次重试，期间仍对读取方可见
+                queue.add(message);
+                allWritten = false;
+            }
+        }
+        return allWritten;
+    }
+
+    /**
+     * 判断写入失败的消息是否需要重试.
+     * 数据库不可用等瞬时错误一直重试；数据本身无法写入的错误达到 {@code max-attempts} 次后丢弃.
+     */
+    private boolean retry(ChatMessage message, RuntimeException e) {
+        if (!(e instanceof NonTransientDataAccessException)) {
+            return true;
+        }
+        int attempts = failedAttempts.merge(message.getId(), 1, Integer::sum);
+        if (attempts < maxAttempts) {
+            return true;
+        }
+        dropped.increment();
+        log.error("Dropping chat message after {} failed attempts: id={}, sessionId={}, role={}",
+            attempts, message.getId(), message.getSessionId(), message.getRole(), e);
+        return false;
+    }
+
+    /**
+     * 消息已写入或已丢弃，不再对读取方合并.
+     */
+    private void release(ChatMessage message) {
+        failedAttempts.remove(message.getId());
+        pendingBySession.computeIfPresent(message.getSessionId(), (id, pending) -> {
+            synchronized (pending) {
+                pending.remove(message);
+                return pending.isEmpty() ? null : pending;
+            }
+        });
+        pendingCount.decrementAndGet();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush chat message log, will retry", e);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package io.github.suj1e.chat.service;
 
-import io.github.suj1e.chat.client.UserClient;
 import io.github.suj1e.chat.dto.ConfirmResponse;
 import io.github.suj1e.chat.entity.ChatMessage;
 import io.github.suj1e.chat.entity.ChatSession;
@@ -17,12 +16,12 @@ import io.github.suj1e.llm.api.dto.AiConfig;
 import io.github.suj1e.common.exception.BusinessException;
 import io.github.suj1e.common.exception.NotFoundException;
 import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.user.api.cache.AiConfigCache;
 import io.github.suj1e.user.api.dto.AiConfigResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.HttpClientErrorException;
 import reactor.core.publisher.Flux;
 
 import java.util.List;
@@ -41,7 +40,10 @@ public class ChatService {
     private final ChatMessageRepository messageRepository;
     private final LlmClient llmClient;
     private final ContentClient contentClient;
-    private final UserClient userClient;
+    private final AiConfigCache aiConfigCache;
+    private final ChatTranscriptService transcriptService;
+    private final ChatContextService contextService;
+    private final ChatMessageLog messageLog;
 
     /**
      * 处理对话请求.
@@ -62,18 +64,12 @@ public class ChatService {
         // 获取用户 AI 配置
         AiConfig aiConfig = getAiConfig(userId);
 
+        // 获取历史消息 (滚动摘要 + 最近窗口)，本轮消息单独发送
+        List<io.github.suj1e.llm.api.dto.ChatMessage> chatHistory = contextService.buildHistory(session, aiConfig);
+
         // 保存用户消息
         saveMessage(session.getId(), ChatMessage.MessageRole.USER, message);
 
-        // 获取历史消息
-        List<ChatMessage> history = messageRepository.findBySessionIdOrderByCreatedAtAsc(session.getId());
-        List<io.github.suj1e.llm.api.dto.ChatMessage> chatHistory = history.stream()
-            .map(m -> new io.github.suj1e.llm.api.dto.ChatMessage(
-                m.getRole().name().toLowerCase(),
-                m.getContent()
-            ))
-            .toList();
-
         // 构建请求
         ChatRequest request = new ChatRequest(
             session.getId(),
@@ -82,18 +78,30 @@ public class ChatService {
             aiConfig
         );
 
-        // 调用 LLM 服务并处理响应
-        return llmClient.chatStream(request)
-            .map(event -> {
-                // 如果是确认事件，保存摘要
-                if ("confirm".equals(event.type()) && event.data() != null) {
-                    saveSummary(session.getId(), event.data().toString());
-                }
-                return event;
-            })
-            .doOnSubscribe(s -> log.debug("Starting chat stream for session: {}", session.getId()))
-            .doOnComplete(() -> log.debug("Chat stream completed for session: {}", session.getId()))
-            .doOnError(e -> log.error("Chat stream error for session: {}", session.getId(), e));
+        // 调用 LLM 服务，助手回复和摘要在流结束时统一保存
+        log.debug("Starting chat stream for session: {}", session.getId());
+        return transcriptService.record(session.getId(), llmClient.chatStream(request));
+    }
+
+    /**
+     * 续传助手回复.
+     *
+     * @param userId    用户 ID
+     * @param sessionId 会话 ID
+     * @param offset    客户端已收到的字符数
+     * @return SSE 事件流
+     */
+    @Transactional(readOnly = true)
+    public Flux<ChatEvent> resume(UUID userId, UUID sessionId, int offset) {
+        ChatSession session = sessionRepository.findById(sessionId)
+            .orElseThrow(() -> new NotFoundException("ChatSession", sessionId));
+
+        if (!session.getUserId().equals(userId)) {
+            throw new BusinessException(ChatErrorCode.CHAT_4004);
+        }
+
+        return transcriptService.resume(sessionId, offset)
+            .orElseThrow(() -> new BusinessException(ChatErrorCode.CHAT_4037));
     }
 
     /**
@@ -197,7 +205,7 @@ public class ChatService {
     }
 
     /**
-     * 保存消息.
+     * 保存消息 (写入消息日志，批量落库).
      */
     private void saveMessage(UUID sessionId, ChatMessage.MessageRole role, String content) {
         ChatMessage message = ChatMessage.builder()
@@ -205,7 +213,7 @@ public class ChatService {
             .role(role)
             .content(content)
             .build();
-        messageRepository.save(message);
+        messageLog.append(message);
     }
 
     /**
@@ -227,21 +235,18 @@ public class ChatService {
      * @return AI 配置
      */
     private AiConfig getAiConfig(UUID userId) {
-        try {
-            ApiResponse<AiConfigResponse> response = userClient.getAiConfig(userId);
-            AiConfigResponse config = response.data();
-            return new AiConfig(
-                config.preferredModel(),
-                config.temperature(),
-                config.maxTokens(),
-                config.systemPrompt(),
-                config.responseLanguage(),
-                config.customApiUrl(),
-                config.customApiKey()
-            );
-        } catch (HttpClientErrorException.NotFound e) {
+        AiConfigResponse config = aiConfigCache.get(userId).orElseThrow(() -> {
             log.warn("AI config not found for user: {}", userId);
-            throw new BusinessException(ChatErrorCode.CHAT_4033);
-        }
+            return new BusinessException(ChatErrorCode.CHAT_4033);
+        });
+        return new AiConfig(
+            config.preferredModel(),
+            config.temperature(),
+            config.maxTokens(),
+            config.systemPrompt(),
+            config.responseLanguage(),
+            config.customApiUrl(),
+            config.customApiKey()
+        );
     }
 }
@@ -0,0 +1,450 @@
+package io.github.suj1e.chat.service;
+
+import io.github.suj1e.chat.entity.ChatMessage;
+import io.github.suj1e.chat.error.ChatErrorCode;
+import io.github.suj1e.chat.repository.ChatMessageRepository;
+import io.github.suj1e.chat.repository.ChatSessionRepository;
+import io.github.suj1e.common.exception.BusinessException;
+import io.github.suj1e.llm.api.dto.ChatEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 助手回复记录服务.
+ * 独立订阅 LLM 事件流并累积 message 内容，客户端断开不会中断生成；
+ * 回复较长时定期写入 Redis 检查点，流结束时在一个事务中保存 ASSISTANT 消息和摘要.
+ * 断线重连的客户端可从本实例的实时流或 Redis 检查点续传，无需重新生成.
+ * 同一会话开始新一轮对话时取消上一轮生成且不保存；检查点按轮次写入，旧轮次不会覆盖新轮次.
+ * 本实例同时进行的生成数受 {@code chat.transcript.max-active} 限制.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatTranscriptService {
+
+    static final String KEY_PREFIX = "chat:transcript:";
+    static final String FIELD_CONTENT = "content";
+    static final String FIELD_STATUS = "status";
+    static final String FIELD_TURN = "turn";
+
+    /**
+     * 仅当检查点仍属于当前轮次时写入.
+     */
+    private static final RedisScript<Long> WRITE_CHECKPOINT_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('HGET', KEYS[1], 'turn') ~= ARGV[1] then
+            return 0
+        end
+        redis.call('HSET', KEYS[1], 'content', ARGV[2], 'status', ARGV[3])
+        redis.call('PEXPIRE', KEYS[1], ARGV[4])
+        return 1
+        """, Long.class);
+
+    /**
+     * 重置检查点并记录新的轮次.
+     */
+    static final RedisScript<Long> RESET_CHECKPOINT_SCRIPT = new DefaultRedisScript<>("""
+        redis.call('DEL', KEYS[1])
+        redis.call('HSET', KEYS[1], 'turn', ARGV[1], 'content', '', 'status', ARGV[2])
+        redis.call('PEXPIRE', KEYS[1], ARGV[3])
+        return 1
+        """, Long.class);
+
+    private static final String MESSAGE_TYPE = "message";
+    private static final String CONFIRM_TYPE = "confirm";
+    private static final String CONTENT_FIELD = "content";
+
+    private final ChatMessageRepository messageRepository;
+    private final ChatSessionRepository sessionRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ChatMessageLog messageLog;
+
+    @Value("${chat.transcript.checkpoint-chars:1000}")
+    private int checkpointChars;
+
+    @Value("${chat.transcript.checkpoint-interval:2s}")
+    private Duration checkpointInterval;
+
+    @Value("${chat.transcript.ttl:1h}")
+    private Duration transcriptTtl;
+
+    @Value("${chat.transcript.max-active:200}")
+    private int maxActive;
+
+    private final ExecutorService persistExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<UUID, Transcript> active = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+    private Semaphore generations;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        generations = new Semaphore(maxActive);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        persistExecutor.shutdown();
+    }
+
+    /**
+     * 开始记录会话的助手回复.
+     * 上游事件流由本服务订阅，返回的事件流取消订阅时上游继续运行直至结束；
+     * 同一会话上一轮仍在生成时取消上一轮.
+     *
+     * @param sessionId 会话 ID
+     * @param source    LLM 事件流
+     * @return 转发给客户端的事件流
+     * @throws BusinessException 本实例进行中的生成数已达上限
+     */
+    public Flux<ChatEvent> record(UUID sessionId, Flux<ChatEvent> source) {
+        Transcript previous = active.remove(sessionId);
+        if (previous != null) {
+            previous.cancel();
+        }
+        if (!generations.tryAcquire()) {
+            log.warn("Too many active chat generations, rejecting session {}", sessionId);
+            throw new BusinessException(ChatErrorCode.CHAT_4034);
+        }
+
+        Transcript transcript = new Transcript(sessionId);
+        active.put(sessionId, transcript);
+
+        Flux<ChatEvent> client = transcript.subscribe(0);
+        transcript.attach(source.subscribe(
+            transcript::onEvent,
+            transcript::onError,
+            transcript::onComplete
+        ));
+        return client;
+    }
+
+    /**
+     * 从指定位置续传助手回复.
+     * 本实例正在生成时先补发已生成内容，再转发后续事件；
+     * 否则从 Redis 检查点或已保存的 ASSISTANT 消息补发.
+     *
+     * @param sessionId 会话 ID
+     * @param offset    客户端已收到的字符数
+     * @return 续传事件流，没有可续传内容时为空
+     */
+    public Optional<Flux<ChatEvent>> resume(UUID sessionId, int offset) {
+        Transcript transcript = active.get(sessionId);
+        if (transcript != null) {
+            return Optional.of(transcript.subscribe(offset));
+        }
+
+        Map<Object, Object> checkpoint = readCheckpoint(sessionId);
+        if (!checkpoint.isEmpty()) {
+            String content = String.valueOf(checkpoint.getOrDefault(FIELD_CONTENT, ""));
+            Status status = parseStatus(checkpoint.get(FIELD_STATUS));
+            Flux<ChatEvent> replay = replay(content, offset);
+            // 生成中断 (实例重启或 LLM 出错) 时补发已生成部分后以错误结束
+            return Optional.of(status == Status.COMPLETED
+                ? replay
+                : replay.concatWith(Flux.error(new BusinessException(ChatErrorCode.CHAT_4036))));
+        }
+
+        List<ChatMessage> recent = messageLog.merge(sessionId,
+            messageRepository.findTop20BySessionIdOrderByCreatedAtDesc(sessionId), false);
+        return recent.stream()
+            .findFirst()
+            .filter(m -> m.getRole() == ChatMessage.MessageRole.ASSISTANT)
+            .map(m -> replay(m.getContent(), offset));
+    }
+
+    private Flux<ChatEvent> replay(String content, int offset) {
+        int from = Math.min(Math.max(offset, 0), content.length());
+        return from < content.length()
+            ? Flux.just(message(content.substring(from)))
+            : Flux.empty();
+    }
+
+    /**
+     * 解析检查点状态，字段缺失或无法识别时视为生成中断.
+     */
+    private static Status parseStatus(Object value) {
+        if (value != null) {
+            for (Status status : Status.values()) {
+                if (status.name().equals(value.toString())) {
+                    return status;
+                }
+            }
+        }
+        return Status.FAILED;
+    }
+
+    private Map<Object, Object> readCheckpoint(UUID sessionId) {
+        try {
+            return redisTemplate.opsForHash().entries(KEY_PREFIX + sessionId);
+        } catch (Exception e) {
+            log.warn("Failed to read transcript checkpoint for session {}: {}", sessionId, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * 新一轮开始时以单个脚本原子地重置检查点并记录轮次，之后只有该轮次能写入检查点.
+     */
+    private void resetCheckpoint(UUID sessionId, UUID turnId) {
+        try {
+            redisTemplate.execute(RESET_CHECKPOINT_SCRIPT, List.of(KEY_PREFIX + sessionId),
+                turnId.toString(), Status.STREAMING.name(), String.valueOf(transcriptTtl.toMillis()));
+        } catch (Exception e) {
+            log.warn("Failed to reset transcript checkpoint for session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private void writeCheckpoint(UUID sessionId, UUID turnId, String content, Status status) {
+        try {
+            redisTemplate.execute(WRITE_CHECKPOINT_SCRIPT, List.of(KEY_PREFIX + sessionId),
+                turnId.toString(), content, status.name(), String.valueOf(transcriptTtl.toMillis()));
+        } catch (Exception e) {
+            log.warn("Failed to write transcript checkpoint for session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    /**
+     * 在一个事务中保存助手回复和摘要，助手回复在事务提交后进入消息日志.
+     */
+    private void persist(UUID sessionId, String content, String summary) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!content.isEmpty()) {
+                messageLog.append(ChatMessage.builder()
+                    .sessionId(sessionId)
+                    .role(ChatMessage.MessageRole.ASSISTANT)
+                    .content(content)
+                    .build());
+            }
+            if (summary != null) {
+                sessionRepository.findById(sessionId).ifPresent(session -> {
+                    session.setGeneratedSummary(summary);
+                    sessionRepository.save(session);
+                });
+            }
+        });
+    }
+
+    private static ChatEvent message(String content) {
+        return new ChatEvent(MESSAGE_TYPE, Map.of(CONTENT_FIELD, content));
+    }
+
+    private static String messageContent(ChatEvent event) {
+        if (MESSAGE_TYPE.equals(event.type())
+            && event.data() instanceof Map<?, ?> data
+            && data.get(CONTENT_FIELD) instanceof String content) {
+            return content;
+        }
+        return null;
+    }
+
+    /**
+     * 回复状态.
+     */
+    enum Status {
+        STREAMING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * 单次回复的记录.
+     * 事件追加与订阅者注册在同一把锁内完成，续传时补发内容与后续事件之间不会遗漏或重复.
+     * 检查点重置在后台执行，不阻塞请求；本轮的检查点写入等待重置完成后进行.
+     */
+    private final class Transcript {
+
+        private final UUID sessionId;
+        private final UUID turnId = UUID.randomUUID();
+        private final StringBuilder content = new StringBuilder();
+        private final List<Sinks.Many<ChatEvent>> listeners = new CopyOnWriteArrayList<>();
+        private final ReentrantLock checkpointLock = new ReentrantLock();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final CompletableFuture<Void> reset;
+
+        private String summary;
+        private int checkpointedLength;
+        private long lastCheckpointNanos = System.nanoTime();
+        private boolean checkpointPending;
+        private boolean terminated;
+        private Disposable upstream;
+
+        Transcript(UUID sessionId) {
+            this.sessionId = sessionId;
+            this.reset = CompletableFuture.runAsync(() -> resetCheckpoint(sessionId, turnId), persistExecutor);
+        }
+
+        synchronized void attach(Disposable upstream) {
+            if (terminated) {
+                upstream.dispose();
+            } else {
+                this.upstream = upstream;
+            }
+        }
+
+        synchronized Flux<ChatEvent> subscribe(int offset) {
+            Sinks.Many<ChatEvent> sink = Sinks.many().unicast().onBackpressureBuffer();
+            int from = Math.min(Math.max(offset, 0), content.length());
+            if (from < content.length()) {
+                sink.tryEmitNext(message(content.substring(from)));
+            }
+            if (terminated) {
+                sink.tryEmitComplete();
+            } else {
+                listeners.add(sink);
+            }
+            return sink.asFlux().doFinally(signal -> listeners.remove(sink));
+        }
+
+        synchronized void onEvent(ChatEvent event) {
+            String delta = messageContent(event);
+            if (delta != null) {
+                content.append(delta);
+                maybeCheckpoint();
+            } else if (CONFIRM_TYPE.equals(event.type()) && event.data() != null) {
+                summary = event.data().toString();
+            }
+            listeners.forEach(sink -> sink.tryEmitNext(event));
+        }
+
+        synchronized void onError(Throwable error) {
+            log.error("Chat stream error for session: {}", sessionId, error);
+            terminated = true;
+            String snapshot = content.toString();
+            persistExecutor.execute(() -> {
+                try {
+                    finalCheckpoint(snapshot, Status.FAILED);
+                } finally {
+                    active.remove(sessionId, this);
+                    release();
+                }
+            });
+            listeners.forEach(sink -> sink.tryEmitError(error));
+            listeners.clear();
+        }
+
+        synchronized void onComplete() {
+            log.debug("Chat stream completed for session: {}", sessionId);
+            terminated = true;
+            String snapshot = content.toString();
+            String finalSummary = summary;
+            persistExecutor.execute(() -> {
+                try {
+                    persist(sessionId, snapshot, finalSummary);
+                    finalCheckpoint(snapshot, Status.COMPLETED);
+                } catch (Exception e) {
+                    log.error("Failed to persist assistant reply for session: {}", sessionId, e);
+                    finalCheckpoint(snapshot, Status.FAILED);
+                } finally {
+                    active.remove(sessionId, this);
+                    release();
+                }
+            });
+            listeners.forEach(Sinks.Many::tryEmitComplete);
+            listeners.clear();
+        }
+
+        /**
+         * 同一会话开始新一轮对话，取消上游生成并停止转发，未完成的回复不保存.
+         */
+        void cancel() {
+            Disposable subscription;
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+                subscription = upstream;
+                listeners.forEach(Sinks.Many::tryEmitComplete);
+                listeners.clear();
+            }
+            if (subscription != null) {
+                subscription.dispose();
+            }
+            log.debug("Cancelled previous chat stream for session: {}", sessionId);
+            release();
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                generations.release();
+            }
+        }
+
+        /**
+         * 新增内容达到字符阈值或距上次检查点超过间隔时异步写入检查点.
+         */
+        private void maybeCheckpoint() {
+            if (checkpointPending) {
+                return;
+            }
+            boolean enoughChars = content.length() - checkpointedLength >= checkpointChars;
+            boolean intervalElapsed = System.nanoTime() - lastCheckpointNanos >= checkpointInterval.toNanos();
+            if (!enoughChars && !intervalElapsed) {
+                return;
+            }
+            checkpointPending = true;
+            checkpointedLength = content.length();
+            lastCheckpointNanos = System.nanoTime();
+            persistExecutor.execute(this::checkpoint);
+        }
+
+        /**
+         * 写入中间检查点. 与最终检查点串行，流已结束时跳过，避免覆盖最终状态.
+         */
+        private void checkpoint() {
+            checkpointLock.lock();
+            try {
+                String snapshot;
+                synchronized (this) {
+                    checkpointPending = false;
+                    if (terminated) {
+                        return;
+                    }
+                    snapshot = content.toString();
+                }
+                reset.join();
+                writeCheckpoint(sessionId, turnId, snapshot, Status.STREAMING);
+            } finally {
+                checkpointLock.unlock();
+            }
+        }
+
+        private void finalCheckpoint(String snapshot, Status status) {
+            checkpointLock.lock();
+            try {
+                reset.join();
+                writeCheckpoint(sessionId, turnId, snapshot, status);
+            } finally {
+                checkpointLock.unlock();
+            }
+        }
+    }
+}
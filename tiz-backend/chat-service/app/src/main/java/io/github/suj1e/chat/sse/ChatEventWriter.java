@@ -0,0 +1,208 @@
+package io.github.suj1e.chat.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.suj1e.llm.api.dto.ChatEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 单个 SSE 流的事件写出器.
+ * 连续的 message 事件在 {@code window} 时间内或累计达到 {@code maxBytes} 字节时合并为一帧写出，
+ * 其他事件写出前先刷新已合并的内容，保证事件顺序不变.
+ * 写出时会阻塞在 {@code emitter.send} 上，使用 {@link ReentrantLock} 而非 {@code synchronized}，
+ * 避免虚拟线程在锁内阻塞时钉住载体线程.
+ */
+@Slf4j
+class ChatEventWriter {
+
+    static final String MESSAGE_TYPE = "message";
+    private static final String CONTENT_FIELD = "content";
+
+    private final SseEmitter emitter;
+    private final ObjectMapper objectMapper;
+    private final Duration window;
+    private final int maxBytes;
+    private final Scheduler timer;
+    private final Executor flushExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final StringBuilder pending = new StringBuilder();
+    private int pendingBytes;
+    private Disposable scheduledFlush;
+    private boolean closed;
+
+    ChatEventWriter(SseEmitter emitter, ObjectMapper objectMapper, Duration window, int maxBytes,
+                    Scheduler timer, Executor flushExecutor) {
+        this.emitter = emitter;
+        this.objectMapper = objectMapper;
+        this.window = window;
+        this.maxBytes = maxBytes;
+        this.timer = timer;
+        this.flushExecutor = flushExecutor;
+    }
+
+    /**
+     * 写出事件，message 事件可能延迟至窗口结束再合并写出.
+     */
+    void write(ChatEvent event) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+
+            String content = messageContent(event);
+            if (content == null) {
+                flush();
+                send(event.type(), event.data());
+                return;
+            }
+
+            pending.append(content);
+            pendingBytes += utf8Length(content);
+            if (pendingBytes >= maxBytes || window.isZero()) {
+                flush();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = timer.schedule(() -> flushExecutor.execute(this::flush),
+                    window.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 立即写出已合并的 message 内容.
+     */
+    void flush() {
+        lock.lock();
+        try {
+            if (scheduledFlush != null) {
+                scheduledFlush.dispose();
+                scheduledFlush = null;
+            }
+            if (pending.isEmpty() || closed) {
+                return;
+            }
+            String content = pending.toString();
+            pending.setLength(0);
+            pendingBytes = 0;
+            sendMessage(content);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 刷新后写出最后一个事件，之后不再写出.
+     */
+    void close(String name, Object data) {
+        lock.lock();
+        try {
+            flush();
+            send(name, data);
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 丢弃未写出的内容并停止写出 (客户端已断开).
+     */
+    void abort() {
+        lock.lock();
+        try {
+            if (scheduledFlush != null) {
+                scheduledFlush.dispose();
+                scheduledFlush = null;
+            }
+            pending.setLength(0);
+            pendingBytes = 0;
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 写出单个事件，数据统一序列化为 JSON，调用方须持有 {@code lock}.
+     */
+    private void send(String name, Object data) {
+        if (closed) {
+            return;
+        }
+        try {
+            sendJson(name, objectMapper.writeValueAsString(data));
+        } catch (IOException e) {
+            fail(name, e);
+        }
+    }
+
+    /**
+     * 写出合并后的 message 事件 ({@code {"content": "..."}})，调用方须持有 {@code lock}.
+     */
+    private void sendMessage(String content) {
+        if (closed) {
+            return;
+        }
+        try {
+            sendJson(MESSAGE_TYPE, objectMapper.writeValueAsString(Map.of(CONTENT_FIELD, content)));
+        } catch (IOException e) {
+            fail(MESSAGE_TYPE, e);
+        }
+    }
+
+    private void sendJson(String name, String json) throws IOException {
+        emitter.send(SseEmitter.event()
+            .name(name)
+            .data(json, MediaType.APPLICATION_JSON));
+    }
+
+    private void fail(String name, IOException e) {
+        log.debug("Failed to send SSE event {}: {}", name, e.getMessage());
+        closed = true;
+        emitter.completeWithError(e);
+    }
+
+    /**
+     * 提取可合并的 message 内容 ({@code {"content": "..."}}).
+     */
+    private static String messageContent(ChatEvent event) {
+        if (MESSAGE_TYPE.equals(event.type())
+            && event.data() instanceof Map<?, ?> data
+            && data.size() == 1
+            && data.get(CONTENT_FIELD) instanceof String content) {
+            return content;
+        }
+        return null;
+    }
+
+    private static int utf8Length(String s) {
+        int bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
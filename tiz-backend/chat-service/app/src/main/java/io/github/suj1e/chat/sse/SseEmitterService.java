@@ -1,35 +1,102 @@
 package io.github.suj1e.chat.sse;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.suj1e.llm.api.client.LlmClient;
+import io.github.suj1e.chat.error.ChatErrorCode;
+import io.github.suj1e.common.exception.BusinessException;
 import io.github.suj1e.llm.api.dto.ChatEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * SSE 发射器服务.
  * 负责将事件推送给客户端.
+ * 直接订阅 LLM 事件流，写出切换到虚拟线程执行，不占用平台线程，连续的 message 事件合并为一帧写出；
+ * 并发流数量由 {@code sse.max-concurrent-streams} 限制，超出时立即拒绝.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SseEmitterService {
 
+    private static final int WRITER_PREFETCH = 32;
+
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
     @Value("${sse.timeout:300000}")
     private long sseTimeout;
 
-    private final ExecutorService executor = Executors.newCachedThreadPool();
+    @Value("${sse.max-concurrent-streams:1000}")
+    private int maxConcurrentStreams;
+
+    @Value("${sse.coalesce.window:20ms}")
+    private Duration coalesceWindow;
+
+    @Value("${sse.coalesce.max-bytes:1024}")
+    private int coalesceMaxBytes;
+
+    @Value("${sse.buffer.max-events:1024}")
+    private int maxBufferedEvents;
+
+    @Value("${sse.buffer.slow-consumer-policy:terminate}")
+    private String slowConsumerPolicyName;
+
+    private final ExecutorService writerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final AtomicInteger queuedEvents = new AtomicInteger();
+
+    private Scheduler writerScheduler;
+    private Semaphore streamPermits;
+    private SlowConsumerPolicy slowConsumerPolicy;
+    private Counter droppedEvents;
+
+    @PostConstruct
+    void init() {
+        writerScheduler = Schedulers.fromExecutorService(writerExecutor, "chat-sse-writer");
+        streamPermits = new Semaphore(Math.max(1, maxConcurrentStreams));
+        slowConsumerPolicy = SlowConsumerPolicy.from(slowConsumerPolicyName);
+        Gauge.builder("chat.sse.active", activeStreams, AtomicInteger::get)
+            .description("Active chat SSE streams")
+            .register(meterRegistry);
+        Gauge.builder("chat.sse.queued", queuedEvents, AtomicInteger::get)
+            .description("Chat events received but not yet written to clients")
+            .register(meterRegistry);
+        droppedEvents = Counter.builder("chat.sse.dropped")
+            .description("Chat events dropped or streams terminated because of slow clients")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writerScheduler.dispose();
+        writerExecutor.shutdownNow();
+    }
 
     /**
      * 创建 SSE 发射器.
@@ -39,65 +106,116 @@ public class SseEmitterService {
 
         emitter.onCompletion(() -> log.debug("SSE connection completed"));
         emitter.onTimeout(() -> log.warn("SSE connection timed out"));
-        emitter.onError(e -> log.error("SSE connection error", e));
+        emitter.onError(e -> log.debug("SSE connection error: {}", e.getMessage()));
 
         return emitter;
     }
 
     /**
-     * 发送 LLM 事件.
+     * 占用一个流名额并推送事件流.
+     * 名额已满时立即拒绝，不会调用 {@code source}.
+     *
+     * @param source 事件流 (在取得名额后创建)
+     * @return SSE 发射器
+     * @throws BusinessException 并发流数量已达上限
      */
-    public void sendLlmEvent(SseEmitter emitter, ChatEvent event) {
+    public SseEmitter stream(Supplier<Flux<ChatEvent>> source) {
+        if (!streamPermits.tryAcquire()) {
+            log.warn("Rejecting chat stream: {} concurrent streams in use", maxConcurrentStreams);
+            throw new BusinessException(ChatErrorCode.CHAT_4034);
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                activeStreams.decrementAndGet();
+                streamPermits.release();
+            }
+        };
+        activeStreams.incrementAndGet();
+
         try {
-            emitter.send(SseEmitter.event()
-                .name(event.type())
-                .data(objectMapper.writeValueAsString(event.data()), MediaType.APPLICATION_JSON));
-        } catch (IOException e) {
-            log.error("Failed to send SSE event: {}", event.type(), e);
-            emitter.completeWithError(e);
+            return sendFlux(source.get(), release);
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
         }
     }
 
     /**
      * 发送事件流.
+     * 事件先进入有界缓冲，再在虚拟线程上经 {@link ChatEventWriter} 合并写出；
+     * 客户端接收过慢导致缓冲溢出时按 {@code sse.buffer.slow-consumer-policy} 终止流或丢弃最旧事件.
+     * 客户端断开、超时或事件流结束时取消上游订阅并执行 {@code onTerminate}.
      */
-    public SseEmitter sendFlux(Flux<ChatEvent> eventFlux) {
+    private SseEmitter sendFlux(Flux<ChatEvent> eventFlux, Runnable onTerminate) {
         SseEmitter emitter = createEmitter();
+        ChatEventWriter writer = new ChatEventWriter(emitter, objectMapper, coalesceWindow,
+            coalesceMaxBytes, Schedulers.parallel(), writerExecutor);
+        AtomicInteger pending = new AtomicInteger();
+        AtomicReference<Disposable> subscription = new AtomicReference<>();
 
-        executor.submit(() -> {
-            try {
-                eventFlux.doOnNext(event -> sendLlmEvent(emitter, event))
-                    .doOnComplete(() -> {
-                        // 发送 done 事件
-                        sendDoneEvent(emitter);
-                        emitter.complete();
-                    })
-                    .doOnError(error -> {
-                        log.error("Error in event flux", error);
-                        sendErrorEvent(emitter, "CHAT_4030", error.getMessage());
-                        emitter.completeWithError(error);
-                    })
-                    .subscribe();
-            } catch (Exception e) {
-                log.error("Error processing event flux", e);
-                emitter.completeWithError(e);
+        Runnable dequeue = () -> {
+            if (pending.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                queuedEvents.decrementAndGet();
+            }
+        };
+        Runnable cleanup = () -> {
+            Disposable disposable = subscription.get();
+            if (disposable != null) {
+                disposable.dispose();
             }
+            queuedEvents.addAndGet(-pending.getAndSet(0));
+            onTerminate.run();
+        };
+        emitter.onCompletion(() -> {
+            writer.abort();
+            cleanup.run();
+        });
+        emitter.onTimeout(() -> {
+            writer.abort();
+            cleanup.run();
+        });
+        emitter.onError(e -> {
+            writer.abort();
+            cleanup.run();
         });
 
-        return emitter;
-    }
+        subscription.set(eventFlux
+            .doOnNext(event -> {
+                pending.incrementAndGet();
+                queuedEvents.incrementAndGet();
+            })
+            .onBackpressureBuffer(maxBufferedEvents, dropped -> {
+                dequeue.run();
+                droppedEvents.increment();
+            }, slowConsumerPolicy.overflowStrategy())
+            .publishOn(writerScheduler, WRITER_PREFETCH)
+            .doFinally(signal -> cleanup.run())
+            .subscribe(
+                event -> {
+                    dequeue.run();
+                    writer.write(event);
+                },
+                error -> {
+                    if (Exceptions.isOverflow(error)) {
+                        log.warn("Terminating slow chat SSE consumer after {} buffered events", maxBufferedEvents);
+                        droppedEvents.increment();
+                        writer.close("error", new ErrorData("CHAT_4035", ChatErrorCode.CHAT_4035.getMessage()));
+                    } else {
+                        log.error("Error in event flux", error);
+                        writer.close("error", new ErrorData("CHAT_4030", error.getMessage()));
+                    }
+                    emitter.complete();
+                },
+                () -> {
+                    // 刷新合并内容后发送 done 事件
+                    writer.close("done", Map.of());
+                    emitter.complete();
+                }
+            ));
 
-    /**
-     * 发送 done 事件.
-     */
-    private void sendDoneEvent(SseEmitter emitter) {
-        try {
-            emitter.send(SseEmitter.event()
-                .name("done")
-                .data("{}", MediaType.APPLICATION_JSON));
-        } catch (IOException e) {
-            log.error("Failed to send done event", e);
-        }
+        return emitter;
     }
 
     /**
@@ -126,4 +244,28 @@ public class SseEmitterService {
      * 错误数据.
      */
     record ErrorData(String code, String message) {}
+
+    /**
+     * 慢客户端处理策略.
+     */
+    enum SlowConsumerPolicy {
+        /** 缓冲溢出时发送错误事件并结束流. */
+        TERMINATE(BufferOverflowStrategy.ERROR),
+        /** 缓冲溢出时丢弃最旧的事件. */
+        DROP_OLDEST(BufferOverflowStrategy.DROP_OLDEST);
+
+        private final BufferOverflowStrategy overflowStrategy;
+
+        SlowConsumerPolicy(BufferOverflowStrategy overflowStrategy) {
+            this.overflowStrategy = overflowStrategy;
+        }
+
+        BufferOverflowStrategy overflowStrategy() {
+            return overflowStrategy;
+        }
+
+        static SlowConsumerPolicy from(String name) {
+            return valueOf(name.trim().replace('-', '_').toUpperCase());
+        }
+    }
 }
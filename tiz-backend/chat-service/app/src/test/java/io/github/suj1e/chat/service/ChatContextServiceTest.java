@@ -0,0 +1,189 @@
+package io.github.suj1e.chat.service;
+
+import io.github.suj1e.chat.entity.ChatMessage;
+import io.github.suj1e.chat.entity.ChatSession;
+import io.github.suj1e.chat.repository.ChatMessageRepository;
+import io.github.suj1e.chat.repository.ChatSessionRepository;
+import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.llm.api.client.LlmClient;
+import io.github.suj1e.llm.api.dto.SummarizeResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 对话上下文服务测试.
+ */
+class ChatContextServiceTest {
+
+    private ChatMessageRepository messageRepository;
+    private ChatSessionRepository sessionRepository;
+    private LlmClient llmClient;
+    private ChatContextService contextService;
+    private ChatSession session;
+
+    @BeforeEach
+    void setUp() {
+        messageRepository = mock(ChatMessageRepository.class);
+        sessionRepository = mock(ChatSessionRepository.class);
+        llmClient = mock(LlmClient.class);
+        ChatMessageLog messageLog = mock(ChatMessageLog.class);
+        when(messageLog.merge(any(), any(), anyBoolean())).thenAnswer(invocation -> invocation.getArgument(1));
+        contextService = new ChatContextService(messageRepository, sessionRepository, llmClient, messageLog);
+        ReflectionTestUtils.setField(contextService, "maxMessages", 4);
+        ReflectionTestUtils.setField(contextService, "tokenBudget", 100);
+        ReflectionTestUtils.setField(contextService, "summaryMinMessages", 2);
+        ReflectionTestUtils.setField(contextService, "summaryBatchSize", 50);
+
+        session = ChatSession.builder()
+            .userId(UUID.randomUUID())
+            .status(ChatSession.SessionStatus.ACTIVE)
+            .build();
+        session.setId(UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() {
+        contextService.shutdown();
+    }
+
+    @Test
+    @DisplayName("会话较短时应按时间顺序返回全部消息且不生成摘要")
+    void shouldReturnAllMessagesForShortSession() {
+        // Given
+        List<ChatMessage> newestFirst = messages(2, "hello");
+        when(messageRepository.findBySessionIdOrderByCreatedAtDesc(eq(session.getId()), any()))
+            .thenReturn(newestFirst);
+
+        // When
+        List<io.github.suj1e.llm.api.dto.ChatMessage> history = contextService.buildHistory(session, null);
+
+        // Then
+        assertEquals(2, history.size());
+        assertEquals("message-0 hello", history.get(0).content());
+        assertEquals("message-1 hello", history.get(1).content());
+        verifyNoInteractions(llmClient);
+    }
+
+    @Test
+    @DisplayName("超出 token 预算时应只保留最近消息并在最前面附加滚动摘要")
+    void shouldTrimToBudgetAndPrependSummary() {
+        // Given: 每条消息约 60 token，摘要约 10 token，前两条已摘要
+        session.setHistorySummary("用户想学习 Java 并发");
+        session.setSummarizedUntil(Instant.parse("2026-01-01T00:00:01Z"));
+        when(messageRepository.findBySessionIdOrderByCreatedAtDesc(eq(session.getId()), any()))
+            .thenReturn(messages(3, "x".repeat(240)));
+
+        // When
+        List<io.github.suj1e.llm.api.dto.ChatMessage> history = contextService.buildHistory(session, null);
+
+        // Then
+        assertEquals(2, history.size());
+        assertEquals(ChatContextService.SUMMARY_ROLE, history.get(0).role());
+        assertTrue(history.get(0).content().endsWith("用户想学习 Java 并发"));
+        assertTrue(history.get(1).content().startsWith("message-2"));
+    }
+
+    @Test
+    @DisplayName("窗口之外的消息应异步合并进滚动摘要")
+    void shouldFoldOlderMessagesIntoSummary() {
+        // Given
+        List<ChatMessage> newestFirst = messages(4, "x".repeat(240));
+        when(messageRepository.findBySessionIdOrderByCreatedAtDesc(eq(session.getId()), any()))
+            .thenReturn(newestFirst);
+        List<ChatMessage> older = messages(3, "old").reversed();
+        when(messageRepository.findBySessionIdAndCreatedAtGreaterThanAndCreatedAtLessThanOrderByCreatedAtAsc(
+            eq(session.getId()), eq(Instant.EPOCH), any(), any())).thenReturn(older);
+        when(llmClient.summarizeChat(any())).thenReturn(ApiResponse.of(new SummarizeResponse("新的摘要")));
+
+        // When
+        contextService.buildHistory(session, null);
+
+        // Then
+        verify(sessionRepository, timeout(5000)).updateHistorySummary(
+            session.getId(), "新的摘要", older.getLast().getCreatedAt(), null);
+    }
+
+    @Test
+    @DisplayName("超出预算的未摘要消息不足摘要条数时应保留原文且不生成摘要")
+    void shouldKeepUnsummarizedMessagesBelowSummaryThreshold() {
+        // Given: 第一条已摘要，第二条超出预算但未摘要
+        session.setHistorySummary("用户想学习 Java 并发");
+        session.setSummarizedUntil(Instant.parse("2026-01-01T00:00:00Z"));
+        when(messageRepository.findBySessionIdOrderByCreatedAtDesc(eq(session.getId()), any()))
+            .thenReturn(messages(3, "x".repeat(240)));
+
+        // When
+        List<io.github.suj1e.llm.api.dto.ChatMessage> history = contextService.buildHistory(session, null);
+
+        // Then
+        assertEquals(3, history.size());
+        assertEquals(ChatContextService.SUMMARY_ROLE, history.get(0).role());
+        assertTrue(history.get(1).content().startsWith("message-1"));
+        assertTrue(history.get(2).content().startsWith("message-2"));
+        verifyNoInteractions(llmClient);
+    }
+
+    @Test
+    @DisplayName("读取上限之外还有未摘要消息时应不等累计条数直接合并进摘要")
+    void shouldSummarizeWhenOlderMessagesAreUnread() {
+        // Given: 读满 4 条且都在预算内，更早的一条消息未读取也未摘要
+        when(messageRepository.findBySessionIdOrderByCreatedAtDesc(eq(session.getId()), any()))
+            .thenReturn(messages(4, "hi"));
+        ChatMessage unread = ChatMessage.builder()
+            .sessionId(session.getId())
+            .role(ChatMessage.MessageRole.USER)
+            .content("unread")
+            .createdAt(Instant.parse("2025-12-31T23:59:59Z"))
+            .build();
+        when(messageRepository.findBySessionIdAndCreatedAtGreaterThanAndCreatedAtLessThanOrderByCreatedAtAsc(
+            eq(session.getId()), eq(Instant.EPOCH), any(), any())).thenReturn(List.of(unread));
+        when(llmClient.summarizeChat(any())).thenReturn(ApiResponse.of(new SummarizeResponse("新的摘要")));
+
+        // When
+        List<io.github.suj1e.llm.api.dto.ChatMessage> history = contextService.buildHistory(session, null);
+
+        // Then
+        assertEquals(4, history.size());
+        verify(sessionRepository, timeout(5000)).updateHistorySummary(
+            session.getId(), "新的摘要", unread.getCreatedAt(), null);
+    }
+
+    @Test
+    @DisplayName("token 估算应区分 ASCII 与 CJK 字符")
+    void shouldEstimateTokens() {
+        assertEquals(0, ChatContextService.estimateTokens(null));
+        assertEquals(2, ChatContextService.estimateTokens("abcdefgh"));
+        assertEquals(3, ChatContextService.estimateTokens("你好a"));
+    }
+
+    /**
+     * 生成按创建时间倒序的消息.
+     */
+    private List<ChatMessage> messages(int count, String body) {
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        List<ChatMessage> result = new ArrayList<>();
+        for (int i = count - 1; i >= 0; i--) {
+            result.add(ChatMessage.builder()
+                .sessionId(session.getId())
+                .role(i % 2 == 0 ? ChatMessage.MessageRole.USER : ChatMessage.MessageRole.ASSISTANT)
+                .content("message-" + i + " " + body)
+                .createdAt(base.plusSeconds(i))
+                .build());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,246 @@
+package io.github.suj1e.chat.service;
+
+import io.github.suj1e.chat.entity.ChatMessage;
+import io.github.suj1e.chat.repository.ChatMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * 对话消息日志测试.
+ */
+class ChatMessageLogTest {
+
+    private ChatMessageRepository messageRepository;
+    private ChatMessageLog messageLog;
+    private UUID sessionId;
+
+    @BeforeEach
+    void setUp() {
+        messageRepository = mock(ChatMessageRepository.class);
+        sessionId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        messageLog.shutdown();
+    }
+
+    @Test
+    @DisplayName("异步模式下追加的消息应在写入前可读，并批量写入")
+    void shouldExposePendingMessagesAndFlushInBatch() {
+        // Given
+        messageLog = createLog("async");
+        ChatMessage first = messageLog.append(message("你好"));
+        ChatMessage second = messageLog.append(message("在吗"));
+
+        // When
+        List<ChatMessage> beforeFlush = messageLog.merge(sessionId, List.of(), true);
+        messageLog.flush();
+        List<ChatMessage> afterFlush = messageLog.merge(sessionId, List.of(), true);
+
+        // Then
+        assertNotNull(first.getId());
+        assertEquals(List.of(first, second), beforeFlush);
+        verify(messageRepository, never()).save(any());
+        verify(messageRepository).saveAll(List.of(first, second));
+        assertTrue(afterFlush.isEmpty());
+    }
+
+    @Test
+    @DisplayName("合并时应按 ID 去重并按创建时间排序")
+    void shouldDeduplicateWhenMerging() {
+        // Given
+        messageLog = createLog("async");
+        ChatMessage pending = messageLog.append(message("新消息"));
+        ChatMessage older = message("旧消息");
+        older.setId(UUID.randomUUID());
+        older.setCreatedAt(pending.getCreatedAt().minusSeconds(1));
+
+        // When
+        List<ChatMessage> merged = messageLog.merge(sessionId, List.of(pending, older), false);
+
+        // Then
+        assertEquals(List.of(pending, older), merged);
+    }
+
+    @Test
+    @DisplayName("数据库不可用时消息应保留并在下次刷新时重试")
+    void shouldRetryFailedFlush() {
+        // Given
+        messageLog = createLog("async");
+        ChatMessage pending = messageLog.append(message("你好"));
+        when(messageRepository.saveAll(anyList()))
+            .thenThrow(new IllegalStateException("db down"))
+            .thenThrow(new IllegalStateException("db down"))
+            .thenThrow(new IllegalStateException("db down"))
+            .thenReturn(List.of(pending));
+        when(messageRepository.save(pending)).thenThrow(new IllegalStateException("db down"));
+
+        // When: 瞬时错误不计入重试次数
+        messageLog.flush();
+        messageLog.flush();
+        messageLog.flush();
+        List<ChatMessage> afterFailure = messageLog.merge(sessionId, List.of(), true);
+        messageLog.flush();
+
+        // Then
+        assertEquals(List.of(pending), afterFailure);
+        verify(messageRepository, times(4)).saveAll(List.of(pending));
+        assertTrue(messageLog.merge(sessionId, List.of(), true).isEmpty());
+    }
+
+    @Test
+    @DisplayName("批量写入失败时应逐条写入，问题消息达到重试上限后丢弃")
+    void shouldIsolateAndDropPoisonMessage() {
+        // Given
+        messageLog = createLog("async");
+        ChatMessage good = messageLog.append(message("你好"));
+        ChatMessage poison = messageLog.append(message("坏数据"));
+        when(messageRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("too long"));
+        when(messageRepository.save(poison)).thenThrow(new DataIntegrityViolationException("too long"));
+
+        // When
+        messageLog.flush();
+        List<ChatMessage> afterFirstFlush = messageLog.merge(sessionId, List.of(), true);
+        messageLog.flush();
+
+        // Then
+        verify(messageRepository).save(good);
+        assertEquals(List.of(poison), afterFirstFlush);
+        verify(messageRepository, times(2)).save(poison);
+        assertTrue(messageLog.merge(sessionId, List.of(), true).isEmpty());
+    }
+
+    @Test
+    @DisplayName("积压已满时在事务内追加，应在提交后以独立事务同步写入")
+    void shouldWriteOverflowInOwnTransactionAfterCommit() {
+        // Given
+        RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+        messageLog = createLog("async", transactionManager);
+        ReflectionTestUtils.setField(messageLog, "maxPending", 0);
+        ChatMessage message = message("你好");
+        List<Integer> depthAtSave = new ArrayList<>();
+        when(messageRepository.save(message)).thenAnswer(invocation -> {
+            depthAtSave.add(transactionManager.active.get());
+            return message;
+        });
+
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> messageLog.append(message));
+
+        // Then: 外层事务和写入消息的独立事务各提交一次
+        verify(messageRepository).save(message);
+        assertEquals(List.of(1), depthAtSave);
+        assertEquals(2, transactionManager.commits);
+        assertTrue(messageLog.merge(sessionId, List.of(), true).isEmpty());
+    }
+
+    @Test
+    @DisplayName("同步模式下应立即写入")
+    void shouldWriteImmediatelyInSyncMode() {
+        // Given
+        messageLog = createLog("sync");
+        ChatMessage message = message("你好");
+        when(messageRepository.save(message)).thenReturn(message);
+
+        // When
+        messageLog.append(message);
+
+        // Then
+        verify(messageRepository).save(message);
+        assertTrue(messageLog.merge(sessionId, List.of(), true).isEmpty());
+    }
+
+    private ChatMessageLog createLog(String durability) {
+        return createLog(durability, mock(PlatformTransactionManager.class));
+    }
+
+    private ChatMessageLog createLog(String durability, PlatformTransactionManager transactionManager) {
+        ChatMessageLog log = new ChatMessageLog(messageRepository, transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(log, "durability", durability);
+        ReflectionTestUtils.setField(log, "flushInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(log, "batchSize", 50);
+        ReflectionTestUtils.setField(log, "maxPending", 1000);
+        ReflectionTestUtils.setField(log, "maxAttempts", 2);
+        log.init();
+        return log;
+    }
+
+    private ChatMessage message(String content) {
+        return ChatMessage.builder()
+            .sessionId(sessionId)
+            .role(ChatMessage.MessageRole.USER)
+            .content(content)
+            .build();
+    }
+
+    /**
+     * 记录提交次数的事务管理器，支持事务同步和挂起 (用于验证 afterCommit 中的写入).
+     */
+    private static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final ThreadLocal<Integer> active = ThreadLocal.withInitial(() -> 0);
+        private int commits;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return active.get() > 0;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            active.set(active.get() + 1);
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            int suspended = active.get();
+            active.set(0);
+            return suspended;
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+            active.set((Integer) suspendedResources);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            active.set(Math.max(0, active.get() - 1));
+        }
+    }
+}
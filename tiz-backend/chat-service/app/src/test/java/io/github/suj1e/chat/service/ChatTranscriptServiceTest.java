@@ -0,0 +1,230 @@
+package io.github.suj1e.chat.service;
+
+import io.github.suj1e.chat.entity.ChatMessage;
+import io.github.suj1e.chat.repository.ChatMessageRepository;
+import io.github.suj1e.chat.repository.ChatSessionRepository;
+import io.github.suj1e.common.exception.BusinessException;
+import io.github.suj1e.llm.api.dto.ChatEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+/**
+ * 助手回复记录服务测试.
+ */
+class ChatTranscriptServiceTest {
+
+    private ChatMessageRepository messageRepository;
+    private ChatMessageLog messageLog;
+    private StringRedisTemplate redisTemplate;
+    private HashOperations<String, Object, Object> hashOperations;
+    private ChatTranscriptService transcriptService;
+    private UUID sessionId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        messageRepository = mock(ChatMessageRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+
+        messageLog = mock(ChatMessageLog.class);
+        when(messageLog.merge(any(), any(), anyBoolean())).thenAnswer(invocation -> invocation.getArgument(1));
+        transcriptService = new ChatTranscriptService(messageRepository, mock(ChatSessionRepository.class),
+            redisTemplate, mock(PlatformTransactionManager.class), messageLog);
+        ReflectionTestUtils.setField(transcriptService, "checkpointChars", 1000);
+        ReflectionTestUtils.setField(transcriptService, "checkpointInterval", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(transcriptService, "transcriptTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(transcriptService, "maxActive", 1);
+        transcriptService.init();
+        sessionId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transcriptService.shutdown();
+    }
+
+    @Test
+    @DisplayName("客户端断开后应继续生成并在结束时保存助手回复")
+    void shouldPersistReplyAfterClientDisconnects() {
+        // Given
+        Sinks.Many<ChatEvent> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        Flux<ChatEvent> client = transcriptService.record(sessionId, upstream.asFlux());
+        client.subscribe().dispose();
+
+        // When
+        upstream.tryEmitNext(message("你好，"));
+        upstream.tryEmitNext(message("我是助手"));
+        upstream.tryEmitComplete();
+
+        // Then
+        ArgumentCaptor<ChatMessage> captor = ArgumentCaptor.forClass(ChatMessage.class);
+        verify(messageLog, timeout(5000)).append(captor.capture());
+        assertEquals(ChatMessage.MessageRole.ASSISTANT, captor.getValue().getRole());
+        assertEquals("你好，我是助手", captor.getValue().getContent());
+    }
+
+    @Test
+    @DisplayName("生成中续传应补发 offset 之后的内容并转发后续事件")
+    void shouldResumeActiveReplyFromOffset() {
+        // Given
+        Sinks.Many<ChatEvent> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        transcriptService.record(sessionId, upstream.asFlux());
+        upstream.tryEmitNext(message("abc"));
+        upstream.tryEmitNext(message("def"));
+
+        // When
+        Flux<ChatEvent> resumed = transcriptService.resume(sessionId, 2).orElseThrow();
+        upstream.tryEmitNext(message("g"));
+        upstream.tryEmitComplete();
+
+        // Then
+        List<ChatEvent> events = resumed.collectList().block(Duration.ofSeconds(5));
+        assertEquals(List.of(message("cdef"), message("g")), events);
+    }
+
+    @Test
+    @DisplayName("检查点显示生成中断时应补发已生成内容后以错误结束")
+    void shouldReplayInterruptedCheckpoint() {
+        // Given
+        when(hashOperations.entries(ChatTranscriptService.KEY_PREFIX + sessionId)).thenReturn(Map.of(
+            ChatTranscriptService.FIELD_CONTENT, "partial reply",
+            ChatTranscriptService.FIELD_STATUS, "STREAMING"
+        ));
+
+        // When
+        Flux<ChatEvent> resumed = transcriptService.resume(sessionId, 8).orElseThrow();
+
+        // Then
+        assertEquals(message("reply"), resumed.blockFirst(Duration.ofSeconds(5)));
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> resumed.collectList().block(Duration.ofSeconds(5)));
+        assertEquals("CHAT_4036", exception.getErrorCode().getCode());
+    }
+
+    @Test
+    @DisplayName("没有检查点时应从已保存的助手回复续传")
+    void shouldResumeFromPersistedReply() {
+        // Given
+        when(hashOperations.entries(any())).thenReturn(Map.of());
+        ChatMessage reply = ChatMessage.builder()
+            .sessionId(sessionId)
+            .role(ChatMessage.MessageRole.ASSISTANT)
+            .content("完整回复")
+            .build();
+        when(messageRepository.findTop20BySessionIdOrderByCreatedAtDesc(sessionId)).thenReturn(List.of(reply));
+
+        // When
+        List<ChatEvent> events = transcriptService.resume(sessionId, 0).orElseThrow()
+            .collectList().block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(List.of(message("完整回复")), events);
+    }
+
+    @Test
+    @DisplayName("新一轮开始时应在后台以单个脚本重置检查点，之后才写入最终检查点")
+    void shouldResetCheckpointAtomicallyBeforeWriting() {
+        // Given
+        Sinks.Many<ChatEvent> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        transcriptService.record(sessionId, upstream.asFlux()).subscribe();
+
+        // When
+        upstream.tryEmitNext(message("reply"));
+        upstream.tryEmitComplete();
+
+        // Then
+        List<String> keys = List.of(ChatTranscriptService.KEY_PREFIX + sessionId);
+        verify(messageLog, timeout(5000)).append(any());
+        var inOrder = inOrder(redisTemplate);
+        inOrder.verify(redisTemplate, timeout(5000)).execute(same(ChatTranscriptService.RESET_CHECKPOINT_SCRIPT),
+            eq(keys), any(), eq("STREAMING"), eq("3600000"));
+        inOrder.verify(redisTemplate, timeout(5000)).execute(ArgumentMatchers.<RedisScript<Long>>any(),
+            eq(keys), any(), eq("reply"), eq("COMPLETED"), eq("3600000"));
+        verify(redisTemplate, never()).delete(anyString());
+        verify(hashOperations, never()).putAll(any(), any());
+    }
+
+    @Test
+    @DisplayName("同一会话开始新一轮对话时应取消上一轮生成且不保存")
+    void shouldCancelPreviousTurnOnNewTurn() {
+        // Given
+        Sinks.Many<ChatEvent> first = Sinks.many().unicast().onBackpressureBuffer();
+        List<ChatEvent> firstEvents = new CopyOnWriteArrayList<>();
+        transcriptService.record(sessionId, first.asFlux()).subscribe(firstEvents::add);
+        first.tryEmitNext(message("旧回复"));
+
+        // When
+        Sinks.Many<ChatEvent> second = Sinks.many().unicast().onBackpressureBuffer();
+        transcriptService.record(sessionId, second.asFlux()).subscribe();
+        first.tryEmitNext(message("继续"));
+        second.tryEmitNext(message("新回复"));
+        second.tryEmitComplete();
+
+        // Then
+        ArgumentCaptor<ChatMessage> captor = ArgumentCaptor.forClass(ChatMessage.class);
+        verify(messageLog, timeout(5000)).append(captor.capture());
+        assertEquals("新回复", captor.getValue().getContent());
+        assertEquals(0, first.currentSubscriberCount());
+        assertEquals(List.of(message("旧回复")), firstEvents);
+    }
+
+    @Test
+    @DisplayName("进行中的生成数达到上限时应拒绝新对话")
+    void shouldRejectWhenTooManyActiveGenerations() {
+        // Given
+        transcriptService.record(sessionId, Flux.never());
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> transcriptService.record(UUID.randomUUID(), Flux.never()));
+        assertEquals("CHAT_4034", exception.getErrorCode().getCode());
+    }
+
+    @Test
+    @DisplayName("检查点缺少状态字段时应按生成中断处理")
+    void shouldTreatMissingCheckpointStatusAsInterrupted() {
+        // Given
+        when(hashOperations.entries(ChatTranscriptService.KEY_PREFIX + sessionId)).thenReturn(Map.of(
+            ChatTranscriptService.FIELD_CONTENT, "partial"
+        ));
+
+        // When
+        Flux<ChatEvent> resumed = transcriptService.resume(sessionId, 0).orElseThrow();
+
+        // Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> resumed.collectList().block(Duration.ofSeconds(5)));
+        assertEquals("CHAT_4036", exception.getErrorCode().getCode());
+    }
+
+    private static ChatEvent message(String content) {
+        return new ChatEvent("message", Map.of("content", content));
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.suj1e.chat.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.suj1e.llm.api.dto.ChatEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SSE 事件写出器测试.
+ */
+class ChatEventWriterTest {
+
+    private SseEmitter emitter;
+
+    @BeforeEach
+    void setUp() {
+        emitter = mock(SseEmitter.class);
+    }
+
+    @Test
+    @DisplayName("窗口内连续的 message 事件应合并为一帧")
+    void shouldCoalesceMessagesWithinWindow() throws Exception {
+        // Given
+        ChatEventWriter writer = writer(Duration.ofMinutes(1), 1024);
+
+        // When
+        writer.write(message("你"));
+        writer.write(message("好"));
+        writer.write(message("!"));
+        verify(emitter, never()).send(any(SseEventBuilder.class));
+        writer.close("done", Map.of());
+
+        // Then
+        List<String> frames = sentFrames(2);
+        assertTrue(frames.get(0).contains("event:message"));
+        assertTrue(frames.get(0).contains("{\"content\":\"你好!\"}"));
+        assertTrue(frames.get(1).contains("event:done"));
+    }
+
+    @Test
+    @DisplayName("非 message 事件应先刷新已合并内容以保持顺序")
+    void shouldFlushBeforeOtherEvents() throws Exception {
+        // Given
+        ChatEventWriter writer = writer(Duration.ofMinutes(1), 1024);
+
+        // When
+        writer.write(message("a"));
+        writer.write(new ChatEvent("confirm", Map.of("type", "generate")));
+        writer.write(message("b"));
+        writer.flush();
+
+        // Then
+        List<String> frames = sentFrames(3);
+        assertTrue(frames.get(0).contains("{\"content\":\"a\"}"));
+        assertTrue(frames.get(1).contains("event:confirm"));
+        assertTrue(frames.get(2).contains("{\"content\":\"b\"}"));
+    }
+
+    @Test
+    @DisplayName("合并内容达到字节上限时应立即写出")
+    void shouldFlushWhenMaxBytesReached() throws Exception {
+        // Given
+        ChatEventWriter writer = writer(Duration.ofMinutes(1), 6);
+
+        // When: 两个汉字为 6 字节
+        writer.write(message("你"));
+        writer.write(message("好"));
+
+        // Then
+        List<String> frames = sentFrames(1);
+        assertTrue(frames.get(0).contains("{\"content\":\"你好\"}"));
+    }
+
+    @Test
+    @DisplayName("字符串数据应序列化为 JSON 字符串而非原样写出")
+    void shouldSerializeStringData() throws Exception {
+        // Given
+        ChatEventWriter writer = writer(Duration.ofMinutes(1), 1024);
+
+        // When
+        writer.write(new ChatEvent("confirm", "生成题目"));
+
+        // Then
+        List<String> frames = sentFrames(1);
+        assertTrue(frames.get(0).contains("\"生成题目\""));
+    }
+
+    @Test
+    @DisplayName("中止后不应再写出事件")
+    void shouldNotSendAfterAbort() throws Exception {
+        // Given
+        ChatEventWriter writer = writer(Duration.ofMinutes(1), 1024);
+        writer.write(message("a"));
+
+        // When
+        writer.abort();
+        writer.flush();
+        writer.close("done", Map.of());
+
+        // Then
+        verify(emitter, never()).send(any(SseEventBuilder.class));
+    }
+
+    private ChatEventWriter writer(Duration window, int maxBytes) {
+        return new ChatEventWriter(emitter, new ObjectMapper(), window, maxBytes,
+            Schedulers.parallel(), Runnable::run);
+    }
+
+    private static ChatEvent message(String content) {
+        return new ChatEvent("message", Map.of("content", content));
+    }
+
+    private List<String> sentFrames(int expected) throws Exception {
+        ArgumentCaptor<SseEventBuilder> captor = ArgumentCaptor.forClass(SseEventBuilder.class);
+        verify(emitter, times(expected)).send(captor.capture());
+        return captor.getAllValues().stream()
+            .map(builder -> builder.build().stream()
+                .map(part -> String.valueOf(part.getData()))
+                .collect(Collectors.joining()))
+            .toList();
+    }
+}
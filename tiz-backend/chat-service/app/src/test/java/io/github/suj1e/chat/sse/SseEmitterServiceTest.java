@@ -0,0 +1,101 @@
+package io.github.suj1e.chat.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.suj1e.common.exception.BusinessException;
+import io.github.suj1e.llm.api.dto.ChatEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SSE 发射器服务测试.
+ */
+class SseEmitterServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SseEmitterService sseEmitterService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sseEmitterService = new SseEmitterService(new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(sseEmitterService, "sseTimeout", 300000L);
+        ReflectionTestUtils.setField(sseEmitterService, "maxConcurrentStreams", 1);
+        ReflectionTestUtils.setField(sseEmitterService, "coalesceWindow", Duration.ofMillis(20));
+        ReflectionTestUtils.setField(sseEmitterService, "coalesceMaxBytes", 1024);
+        ReflectionTestUtils.setField(sseEmitterService, "maxBufferedEvents", 16);
+        ReflectionTestUtils.setField(sseEmitterService, "slowConsumerPolicyName", "terminate");
+        sseEmitterService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sseEmitterService.shutdown();
+    }
+
+    @Test
+    @DisplayName("并发流达到上限时应立即拒绝且不创建事件流")
+    void shouldRejectWhenLimitReached() {
+        // Given
+        sseEmitterService.stream(Flux::never);
+        AtomicBoolean sourceCalled = new AtomicBoolean();
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> sseEmitterService.stream(() -> {
+                sourceCalled.set(true);
+                return Flux.never();
+            }));
+        assertEquals("CHAT_4034", exception.getErrorCode().getCode());
+        assertFalse(sourceCalled.get());
+        assertEquals(1.0, meterRegistry.get("chat.sse.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("事件流结束后应释放名额")
+    void shouldReleasePermitWhenFluxCompletes() {
+        // Given
+        Sinks.Many<ChatEvent> sink = Sinks.many().unicast().onBackpressureBuffer();
+        sseEmitterService.stream(sink::asFlux);
+
+        // When
+        sink.tryEmitNext(new ChatEvent("message", "hello"));
+        sink.tryEmitComplete();
+
+        // Then
+        awaitGauge("chat.sse.active", 0.0);
+        assertEquals(0.0, meterRegistry.get("chat.sse.queued").gauge().value());
+        assertDoesNotThrow(() -> sseEmitterService.stream(Flux::never));
+    }
+
+    @Test
+    @DisplayName("创建事件流失败时应释放名额")
+    void shouldReleasePermitWhenSourceFails() {
+        // Given
+        assertThrows(IllegalStateException.class, () -> sseEmitterService.stream(() -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        // When & Then
+        assertEquals(0.0, meterRegistry.get("chat.sse.active").gauge().value());
+        assertDoesNotThrow(() -> sseEmitterService.stream(Flux::never));
+    }
+
+    private void awaitGauge(String name, double expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get(name).gauge().value() != expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, meterRegistry.get(name).gauge().value());
+    }
+}
@@ -9,6 +9,10 @@ java {
 
 dependencies {
     api(libs.common)
+    api(libs.caffeine)
+    // ConditionalGetFilter、QuestionSetCacheConfiguration (WebClient、Redis)，使用方自带 WebFlux 和 Redis
+    compileOnly(libs.spring.boot.starter.webflux)
+    compileOnly(libs.spring.boot.starter.data.redis)
 }
 
 publishing {
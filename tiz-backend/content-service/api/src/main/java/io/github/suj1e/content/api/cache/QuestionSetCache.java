@@ -0,0 +1,147 @@
+package io.github.suj1e.content.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.suj1e.content.api.dto.QuestionSetSnapshot;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 题库快照客户端缓存.
+ * 快照按 (knowledgeSetId, version) 缓存，同一版本内容不变，本地 LRU 未命中时依次查询
+ * 二级存储 (Redis) 和 content-service. 题库当前版本号按 {@code versionTtl} 缓存，
+ * content-service 变更题库后通过 {@link #INVALIDATION_CHANNEL} 广播题库 ID，
+ * 订阅方调用 {@link #handleInvalidation(String)} 重新校验版本.
+ */
+public class QuestionSetCache {
+
+    /**
+     * 题库变更广播频道 (Redis pub/sub)，消息体为题库 ID，{@code *} 表示全部失效.
+     */
+    public static final String INVALIDATION_CHANNEL = "content:knowledge-set:changed";
+
+    /**
+     * 全部失效消息.
+     */
+    public static final String INVALIDATE_ALL = "*";
+
+    /**
+     * 快照二级存储.
+     * 实现应自行处理存储异常 (读取失败视为未命中，写入失败忽略).
+     */
+    public interface SnapshotStore {
+
+        /**
+         * 不使用二级存储.
+         */
+        SnapshotStore NONE = new SnapshotStore() {
+            @Override
+            public Optional<QuestionSetSnapshot> get(UUID knowledgeSetId, long version) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void put(QuestionSetSnapshot snapshot) {
+            }
+        };
+
+        Optional<QuestionSetSnapshot> get(UUID knowledgeSetId, long version);
+
+        void put(QuestionSetSnapshot snapshot);
+    }
+
+    private record Key(UUID knowledgeSetId, long version) {}
+
+    private final Function<UUID, Long> versionLoader;
+    private final Function<UUID, QuestionSetSnapshot> snapshotLoader;
+    private final SnapshotStore store;
+    private final Cache<UUID, Long> versions;
+    private final Cache<Key, QuestionSetSnapshot> snapshots;
+
+    /**
+     * @param versionLoader  版本加载器，题库不存在时返回 null，临时错误时抛出异常
+     * @param snapshotLoader 快照加载器
+     * @param store          二级存储
+     * @param versionTtl     版本号的缓存时间
+     * @param maxSize        最大缓存快照数
+     */
+    public QuestionSetCache(Function<UUID, Long> versionLoader,
+                            Function<UUID, QuestionSetSnapshot> snapshotLoader,
+                            SnapshotStore store, Duration versionTtl, long maxSize) {
+        this.versionLoader = versionLoader;
+        this.snapshotLoader = snapshotLoader;
+        this.store = store;
+        this.versions = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(versionTtl)
+            .build();
+        this.snapshots = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    /**
+     * 获取题库当前版本的快照.
+     *
+     * @param knowledgeSetId 题库 ID
+     * @return 快照，题库不存在时为空
+     */
+    public Optional<QuestionSetSnapshot> get(UUID knowledgeSetId) {
+        Long version = versions.get(knowledgeSetId, versionLoader);
+        if (version == null) {
+            return Optional.empty();
+        }
+
+        QuestionSetSnapshot snapshot = snapshots.get(new Key(knowledgeSetId, version), this::load);
+        if (snapshot.version() > version) {
+            // 校验版本后题库又有变更，记录更新的版本
+            snapshots.put(new Key(knowledgeSetId, snapshot.version()), snapshot);
+            versions.asMap().merge(knowledgeSetId, snapshot.version(), Math::max);
+        }
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * 使单个题库的版本缓存失效，下次访问时重新校验版本.
+     */
+    public void invalidate(UUID knowledgeSetId) {
+        versions.invalidate(knowledgeSetId);
+    }
+
+    /**
+     * 使全部版本缓存失效.
+     */
+    public void invalidateAll() {
+        versions.invalidateAll();
+    }
+
+    /**
+     * 处理失效广播消息.
+     *
+     * @param payload 题库 ID 或 {@link #INVALIDATE_ALL}
+     */
+    public void handleInvalidation(String payload) {
+        if (payload == null || INVALIDATE_ALL.equals(payload.trim())) {
+            invalidateAll();
+            return;
+        }
+        try {
+            invalidate(UUID.fromString(payload.trim()));
+        } catch (IllegalArgumentException e) {
+            invalidateAll();
+        }
+    }
+
+    private QuestionSetSnapshot load(Key key) {
+        Optional<QuestionSetSnapshot> stored = store.get(key.knowledgeSetId(), key.version());
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        QuestionSetSnapshot snapshot = snapshotLoader.apply(key.knowledgeSetId());
+        store.put(snapshot);
+        return snapshot;
+    }
+}
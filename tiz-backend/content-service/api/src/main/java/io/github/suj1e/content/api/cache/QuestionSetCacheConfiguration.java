@@ -0,0 +1,117 @@
+package io.github.suj1e.content.api.cache;
+
+import io.github.suj1e.content.api.client.ContentClient;
+import io.github.suj1e.content.api.dto.KnowledgeSetVersionResponse;
+import io.github.suj1e.content.api.dto.QuestionSetSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 题库快照缓存配置.
+ * 提供基于 {@link ContentClient} 的 {@link QuestionSetCache} 并订阅题库变更广播，
+ * 本地 LRU 之下以 Redis 作为二级存储，各使用方共享同一键空间.
+ * 不参与组件扫描，使用方在提供 {@link ContentClient} 的配置类上通过 {@code @Import} 启用.
+ */
+public class QuestionSetCacheConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionSetCacheConfiguration.class);
+
+    private static final String KEY_PREFIX = "content:question-set:";
+
+    @Value("${content.question-set-cache.version-ttl:30s}")
+    private Duration versionTtl;
+
+    @Value("${content.question-set-cache.l2-ttl:1h}")
+    private Duration l2Ttl;
+
+    @Value("${content.question-set-cache.max-size:1000}")
+    private long maxSize;
+
+    /**
+     * 题库快照缓存 (content-service 返回 404 视为题库不存在).
+     */
+    @Bean
+    public QuestionSetCache questionSetCache(ContentClient contentClient,
+                                             StringRedisTemplate redisTemplate,
+                                             ObjectMapper objectMapper) {
+        return new QuestionSetCache(
+            knowledgeSetId -> {
+                try {
+                    KnowledgeSetVersionResponse response = contentClient.getKnowledgeSetVersion(knowledgeSetId).data();
+                    return response != null ? response.version() : null;
+                } catch (WebClientResponseException.NotFound e) {
+                    return null;
+                }
+            },
+            knowledgeSetId -> contentClient.getQuestionSetSnapshot(knowledgeSetId).data(),
+            new RedisSnapshotStore(redisTemplate, objectMapper, l2Ttl),
+            versionTtl,
+            maxSize
+        );
+    }
+
+    /**
+     * 订阅题库变更广播.
+     */
+    @Bean
+    public RedisMessageListenerContainer questionSetInvalidationListenerContainer(
+        RedisConnectionFactory connectionFactory, QuestionSetCache questionSetCache
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            (message, pattern) -> questionSetCache.handleInvalidation(
+                new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(QuestionSetCache.INVALIDATION_CHANNEL)
+        );
+        return container;
+    }
+
+    /**
+     * Redis 快照存储，读写失败时降级为未命中.
+     */
+    private record RedisSnapshotStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, Duration ttl)
+        implements QuestionSetCache.SnapshotStore {
+
+        @Override
+        public Optional<QuestionSetSnapshot> get(UUID knowledgeSetId, long version) {
+            try {
+                String json = redisTemplate.opsForValue().get(key(knowledgeSetId, version));
+                return json != null
+                    ? Optional.of(objectMapper.readValue(json, QuestionSetSnapshot.class))
+                    : Optional.empty();
+            } catch (Exception e) {
+                log.warn("Failed to read question set snapshot {}@{}: {}", knowledgeSetId, version, e.getMessage());
+                return Optional.empty();
+            }
+        }
+
+        @Override
+        public void put(QuestionSetSnapshot snapshot) {
+            try {
+                redisTemplate.opsForValue().set(key(snapshot.knowledgeSetId(), snapshot.version()),
+                    objectMapper.writeValueAsString(snapshot), ttl);
+            } catch (Exception e) {
+                log.warn("Failed to store question set snapshot {}@{}: {}",
+                    snapshot.knowledgeSetId(), snapshot.version(), e.getMessage());
+            }
+        }
+
+        private static String key(UUID knowledgeSetId, long version) {
+            return KEY_PREFIX + knowledgeSetId + ":" + version;
+        }
+    }
+}
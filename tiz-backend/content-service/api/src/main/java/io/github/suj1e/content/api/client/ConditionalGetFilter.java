@@ -0,0 +1,95 @@
+package io.github.suj1e.content.api.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Consumer;
+
+/**
+ * 条件请求过滤器 (If-None-Match).
+ * 缓存带 ETag 的 GET 响应体，再次请求同一 URL 时携带 If-None-Match，
+ * 服务端返回 304 时以缓存的响应体还原为 200 响应，调用方无感知.
+ * 缓存按响应体字节数限制总大小.
+ */
+public class ConditionalGetFilter implements ExchangeFilterFunction {
+
+    private record CachedBody(String etag, MediaType contentType, byte[] body) {}
+
+    private final Cache<String, CachedBody> cache;
+
+    /**
+     * @param maxBytes 缓存响应体的最大总字节数
+     */
+    public ConditionalGetFilter(long maxBytes) {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .<String, CachedBody>weigher((url, cached) -> cached.body().length)
+            .build();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+
+        String url = request.url().toString();
+        CachedBody cached = cache.getIfPresent(url);
+        ClientRequest conditional = cached == null ? request : ClientRequest.from(request)
+            .headers(headers -> headers.setIfNoneMatch(cached.etag()))
+            .build();
+
+        return next.exchange(conditional).flatMap(response -> {
+            if (cached != null && response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                return response.releaseBody().thenReturn(rebuild(response, HttpStatus.OK, cached.body(),
+                    headers -> headers.setContentType(cached.contentType())));
+            }
+
+            String etag = response.headers().asHttpHeaders().getETag();
+            if (!response.statusCode().is2xxSuccessful() || etag == null || etag.startsWith("W/")) {
+                return Mono.just(response);
+            }
+
+            MediaType contentType = response.headers().contentType().orElse(MediaType.APPLICATION_JSON);
+            return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class))
+                .map(buffer -> {
+                    byte[] body = new byte[buffer.readableByteCount()];
+                    buffer.read(body);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .defaultIfEmpty(new byte[0])
+                .map(body -> {
+                    cache.put(url, new CachedBody(etag, contentType, body));
+                    return rebuild(response, response.statusCode(), body, headers -> {});
+                });
+        });
+    }
+
+    private static ClientResponse rebuild(ClientResponse response, HttpStatusCode status, byte[] body,
+                                          Consumer<HttpHeaders> headersCustomizer) {
+        return ClientResponse.create(status, response.strategies())
+            .request(response.request())
+            .headers(headers -> {
+                headers.addAll(response.headers().asHttpHeaders());
+                headersCustomizer.accept(headers);
+                headers.setContentLength(body.length);
+            })
+            .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)))
+            .build();
+    }
+}
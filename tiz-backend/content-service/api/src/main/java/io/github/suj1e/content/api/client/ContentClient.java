@@ -1,12 +1,17 @@
 package io.github.suj1e.content.api.client;
 
 import io.github.suj1e.content.api.dto.KnowledgeSetResponse;
+import io.github.suj1e.content.api.dto.KnowledgeSetVersionResponse;
+import io.github.suj1e.content.api.dto.QuestionBatchGetRequest;
 import io.github.suj1e.content.api.dto.QuestionResponse;
+import io.github.suj1e.content.api.dto.QuestionSetSnapshot;
 import io.github.suj1e.common.response.ApiResponse;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
 
 import java.util.List;
 import java.util.UUID;
@@ -20,6 +25,18 @@ public interface ContentClient {
     @GetExchange("/internal/content/v1/knowledge-sets/{id}")
     ApiResponse<KnowledgeSetResponse> getKnowledgeSet(@PathVariable UUID id);
 
+    /**
+     * 获取题库当前版本号 (题目变更时递增).
+     */
+    @GetExchange("/internal/content/v1/knowledge-sets/{id}/version")
+    ApiResponse<KnowledgeSetVersionResponse> getKnowledgeSetVersion(@PathVariable UUID id);
+
+    /**
+     * 获取题库及其全部题目的快照.
+     */
+    @GetExchange("/internal/content/v1/knowledge-sets/{id}/snapshot")
+    ApiResponse<QuestionSetSnapshot> getQuestionSetSnapshot(@PathVariable UUID id);
+
     @GetExchange("/internal/content/v1/knowledge-sets/{id}/questions")
     ApiResponse<List<QuestionResponse>> getQuestions(
         @PathVariable UUID id,
@@ -28,4 +45,10 @@ public interface ContentClient {
 
     @GetExchange("/internal/content/v1/questions/{id}")
     ApiResponse<QuestionResponse> getQuestion(@PathVariable UUID id);
+
+    /**
+     * 批量获取题目，按请求的 ID 顺序返回，不存在的题目被忽略.
+     */
+    @PostExchange("/internal/content/v1/questions:batchGet")
+    ApiResponse<List<QuestionResponse>> getQuestionsByIds(@RequestBody QuestionBatchGetRequest request);
 }
@@ -0,0 +1,11 @@
+package io.github.suj1e.content.api.dto;
+
+import java.util.UUID;
+
+/**
+ * 题库版本响应.
+ */
+public record KnowledgeSetVersionResponse(
+    UUID id,
+    long version
+) {}
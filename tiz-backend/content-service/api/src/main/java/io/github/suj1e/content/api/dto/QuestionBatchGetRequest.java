@@ -0,0 +1,20 @@
+package io.github.suj1e.content.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 批量获取题目请求 DTO.
+ */
+public record QuestionBatchGetRequest(
+    @NotEmpty @Size(max = MAX_IDS) List<UUID> ids
+) {
+
+    /**
+     * 单次请求的题目 ID 上限，调用方需按此分批.
+     */
+    public static final int MAX_IDS = 500;
+}
@@ -0,0 +1,26 @@
+package io.github.suj1e.content.api.dto;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 题库快照.
+ * 同一 (knowledgeSetId, version) 的快照内容不变，可长期缓存.
+ */
+public record QuestionSetSnapshot(
+    UUID knowledgeSetId,
+    long version,
+    KnowledgeSetResponse knowledgeSet,
+    List<QuestionResponse> questions
+) {
+
+    /**
+     * 按 ID 查找快照中的题目.
+     */
+    public Optional<QuestionResponse> findQuestion(UUID questionId) {
+        return questions.stream()
+            .filter(q -> q.id().equals(questionId))
+            .findFirst();
+    }
+}
@@ -1,9 +1,11 @@
 package io.github.suj1e.content.config;
 
+import io.github.suj1e.user.api.cache.AiConfigCacheConfiguration;
 import io.github.suj1e.user.api.client.UserClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.support.WebClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
@@ -12,6 +14,7 @@ import org.springframework.web.service.invoker.HttpServiceProxyFactory;
  * User 服务 HTTP 客户端配置.
  */
 @Configuration
+@Import(AiConfigCacheConfiguration.class)
 public class UserClientConfig {
 
     @Value("${user.service.url}")
@@ -8,7 +8,10 @@ import io.github.suj1e.content.api.dto.GenerateResponse;
 import io.github.suj1e.content.service.GenerateService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.UUID;
 
@@ -38,6 +41,22 @@ public class GenerateController {
         return ApiResponse.of(response);
     }
 
+    /**
+     * 流式生成题目 (SSE).
+     * 事件: knowledge_set (保存时) → question × N → done，出错时以 error 结束.
+     *
+     * @param userId  用户 ID (从 JWT 获取)
+     * @param request 生成请求
+     * @return SSE 事件流
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> generateStream(
+        @CurrentUserId UUID userId,
+        @Valid @RequestBody GenerateRequest request
+    ) {
+        return generateService.generateStream(userId, request);
+    }
+
     /**
      * 获取后续批次题目.
      *
@@ -55,4 +74,22 @@ public class GenerateController {
         BatchResponse response = generateService.getBatch(userId, knowledgeSetId, page);
         return ApiResponse.of(response);
     }
+
+    /**
+     * 流式获取后续批次题目 (SSE).
+     * 事件: question × N → done，出错时以 error 结束.
+     *
+     * @param userId         用户 ID (从 JWT 获取)
+     * @param knowledgeSetId 题库 ID
+     * @param page           页码
+     * @return SSE 事件流
+     */
+    @GetMapping(value = "/{id}/batch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> getBatchStream(
+        @CurrentUserId UUID userId,
+        @PathVariable("id") UUID knowledgeSetId,
+        @RequestParam(defaultValue = "1") int page
+    ) {
+        return generateService.getBatchStream(userId, knowledgeSetId, page);
+    }
 }
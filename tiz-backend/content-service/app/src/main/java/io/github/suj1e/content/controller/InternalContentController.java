@@ -1,18 +1,22 @@
 package io.github.suj1e.content.controller;
 
 import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.content.api.dto.KnowledgeSetVersionResponse;
+import io.github.suj1e.content.api.dto.QuestionBatchGetRequest;
 import io.github.suj1e.content.dto.KnowledgeSetInternalResponse;
 import io.github.suj1e.content.dto.QuestionResponse;
-import io.github.suj1e.content.entity.Category;
-import io.github.suj1e.content.entity.KnowledgeSet;
-import io.github.suj1e.content.entity.Tag;
-import io.github.suj1e.content.service.CategoryService;
+import io.github.suj1e.content.dto.QuestionSetSnapshotResponse;
 import io.github.suj1e.content.service.LibraryService;
 import io.github.suj1e.content.service.QuestionService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -25,39 +29,36 @@ public class InternalContentController {
 
     private final LibraryService libraryService;
     private final QuestionService questionService;
-    private final CategoryService categoryService;
 
     /**
      * 获取题库信息.
      */
     @GetMapping("/knowledge-sets/{id}")
-    public ApiResponse<KnowledgeSetInternalResponse> getKnowledgeSet(@PathVariable UUID id) {
-        KnowledgeSet ks = libraryService.getKnowledgeSetEntityById(id);
-
-        String categoryName = null;
-        if (ks.getCategoryId() != null) {
-            try {
-                Category category = categoryService.getCategoryEntityById(ks.getCategoryId());
-                categoryName = category.getName();
-            } catch (Exception e) {
-                // Category not found, ignore
-            }
+    public ApiResponse<KnowledgeSetInternalResponse> getKnowledgeSet(@PathVariable UUID id, WebRequest webRequest) {
+        KnowledgeSetInternalResponse response = libraryService.getKnowledgeSetInternal(id);
+        if (webRequest.checkNotModified(contentETag(response))) {
+            return null;
         }
+        return ApiResponse.of(response);
+    }
 
-        List<String> tagNames = ks.getTags().stream()
-            .map(Tag::getName)
-            .toList();
-
-        KnowledgeSetInternalResponse response = new KnowledgeSetInternalResponse(
-            ks.getId(),
-            ks.getTitle(),
-            categoryName,
-            tagNames,
-            ks.getDifficulty().name(),
-            ks.getQuestionCount()
-        );
+    /**
+     * 获取题库版本号.
+     */
+    @GetMapping("/knowledge-sets/{id}/version")
+    public ApiResponse<KnowledgeSetVersionResponse> getKnowledgeSetVersion(@PathVariable UUID id) {
+        return ApiResponse.of(new KnowledgeSetVersionResponse(id, libraryService.getKnowledgeSetVersion(id)));
+    }
 
-        return ApiResponse.of(response);
+    /**
+     * 获取题库快照 (题库信息及全部题目).
+     */
+    @GetMapping("/knowledge-sets/{id}/snapshot")
+    public ApiResponse<QuestionSetSnapshotResponse> getQuestionSetSnapshot(@PathVariable UUID id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(versionETag(id, libraryService.getKnowledgeSetVersion(id)))) {
+            return null;
+        }
+        return ApiResponse.of(libraryService.getQuestionSetSnapshot(id));
     }
 
     /**
@@ -66,8 +67,13 @@ public class InternalContentController {
     @GetMapping("/knowledge-sets/{id}/questions")
     public ApiResponse<List<QuestionResponse>> getQuestions(
         @PathVariable UUID id,
-        @RequestParam(required = false) Integer limit
+        @RequestParam(required = false) Integer limit,
+        WebRequest webRequest
     ) {
+        Optional<Long> version = libraryService.findKnowledgeSetVersion(id);
+        if (version.isPresent() && webRequest.checkNotModified(versionETag(id, version.get()))) {
+            return null;
+        }
         return ApiResponse.of(questionService.getQuestionsByKnowledgeSetId(id, limit));
     }
 
@@ -78,4 +84,27 @@ public class InternalContentController {
     public ApiResponse<QuestionResponse> getQuestion(@PathVariable UUID id) {
         return ApiResponse.of(questionService.getQuestionById(id));
     }
+
+    /**
+     * 批量获取题目.
+     */
+    @PostMapping("/questions:batchGet")
+    public ApiResponse<List<QuestionResponse>> getQuestionsByIds(@Valid @RequestBody QuestionBatchGetRequest request) {
+        return ApiResponse.of(questionService.getQuestionsByIds(request.ids()));
+    }
+
+    /**
+     * 基于题库版本号的 ETag.
+     * 先读版本号再读内容，并发变更时内容只会比 ETag 新，客户端下次请求时会取到完整响应.
+     */
+    private static String versionETag(UUID id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * 基于响应内容摘要的 ETag (题库信息包含分类名，分类改名不会递增题库版本号).
+     */
+    private static String contentETag(Object response) {
+        return "\"" + DigestUtils.md5DigestAsHex(response.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 }
@@ -27,8 +27,12 @@ public class LibraryController {
     @GetMapping
     public CursorResponse<LibrarySummaryResponse> getLibraries(
         @CurrentUserId UUID userId,
-        @Valid LibraryFilterRequest filter
+        @Valid LibraryFilterRequest filter,
+        @RequestParam(name = "page_token", required = false) String pageToken
     ) {
+        if (pageToken != null) {
+            filter.setPageToken(pageToken);
+        }
         return libraryService.getLibraries(userId, filter);
     }
 
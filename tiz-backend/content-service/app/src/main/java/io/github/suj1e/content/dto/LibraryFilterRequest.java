@@ -21,8 +21,9 @@ public class LibraryFilterRequest extends PageQuery {
 
     private List<String> tags;
 
-    public LibraryFilterRequest() {
-        setSortBy("createdAt");
-        setSortOrder(org.springframework.data.domain.Sort.Direction.DESC);
-    }
+    /**
+     * 上一页响应的 next_token，为空时查询第一页.
+     * 列表固定按创建时间倒序，忽略 page、sortBy 和 sortOrder.
+     */
+    private String pageToken;
 }
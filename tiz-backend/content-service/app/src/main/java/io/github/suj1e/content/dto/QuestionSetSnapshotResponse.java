@@ -0,0 +1,14 @@
+package io.github.suj1e.content.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 题库快照响应 DTO (内部接口).
+ */
+public record QuestionSetSnapshotResponse(
+    UUID knowledgeSetId,
+    long version,
+    KnowledgeSetInternalResponse knowledgeSet,
+    List<QuestionResponse> questions
+) {}
@@ -34,6 +34,12 @@ public class KnowledgeSet extends SoftDeletableEntity {
     @Column(name = "question_count", nullable = false)
     private Integer questionCount = 0;
 
+    /**
+     * 题库版本号，题目或题库信息变更时递增，用于客户端快照缓存.
+     */
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "knowledge_set_tags",
@@ -42,6 +48,13 @@ public class KnowledgeSet extends SoftDeletableEntity {
     )
     private List<Tag> tags = new ArrayList<>();
 
+    /**
+     * 递增版本号.
+     */
+    public void bumpVersion() {
+        version = (version != null ? version : 0L) + 1;
+    }
+
     /**
      * 难度枚举.
      */
@@ -16,6 +16,7 @@ public enum ContentErrorCode implements ErrorCode {
     KNOWLEDGE_SET_NOT_FOUND("not_found_error", "CONTENT_3001", "Knowledge set not found", HttpStatus.NOT_FOUND),
     KNOWLEDGE_SET_ALREADY_DELETED("validation_error", "CONTENT_3002", "Knowledge set already deleted", HttpStatus.BAD_REQUEST),
     KNOWLEDGE_SET_ACCESS_DENIED("authorization_error", "CONTENT_3003", "Access denied to knowledge set", HttpStatus.FORBIDDEN),
+    INVALID_PAGE_TOKEN("validation_error", "CONTENT_3004", "Invalid page token", HttpStatus.BAD_REQUEST),
 
     // Question (CONTENT_4xxx)
     QUESTION_NOT_FOUND("not_found_error", "CONTENT_4001", "Question not found", HttpStatus.NOT_FOUND),
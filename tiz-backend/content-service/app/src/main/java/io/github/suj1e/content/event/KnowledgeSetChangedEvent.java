@@ -0,0 +1,10 @@
+package io.github.suj1e.content.event;
+
+import java.util.UUID;
+
+/**
+ * 题库变更事件 (题库版本号已递增或题库已删除).
+ *
+ * @param knowledgeSetId 题库 ID
+ */
+public record KnowledgeSetChangedEvent(UUID knowledgeSetId) {}
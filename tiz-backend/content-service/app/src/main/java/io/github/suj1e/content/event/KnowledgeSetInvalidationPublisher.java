@@ -0,0 +1,32 @@
+package io.github.suj1e.content.event;
+
+import io.github.suj1e.content.api.cache.QuestionSetCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 题库变更广播.
+ * 事务提交后通过 Redis pub/sub 通知各服务的 {@link QuestionSetCache} 重新校验版本.
+ * 广播失败时各服务按版本缓存 TTL 自然校验.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KnowledgeSetInvalidationPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onKnowledgeSetChanged(KnowledgeSetChangedEvent event) {
+        try {
+            redisTemplate.convertAndSend(QuestionSetCache.INVALIDATION_CHANNEL, event.knowledgeSetId().toString());
+        } catch (Exception e) {
+            log.warn("Failed to publish knowledge set invalidation for {}: {}",
+                event.knowledgeSetId(), e.getMessage());
+        }
+    }
+}
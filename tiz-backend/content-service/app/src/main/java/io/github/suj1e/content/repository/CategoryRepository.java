@@ -2,6 +2,7 @@ package io.github.suj1e.content.repository;
 
 import io.github.suj1e.content.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,7 +29,9 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
     boolean existsByName(String name);
 
     /**
-     * 统计指定分类下的题库数量.
+     * 按分类统计题库数量 (不含已删除题库).
      */
-    long countKnowledgeSetsById(UUID categoryId);
+    @Query("SELECT ks.categoryId AS id, COUNT(ks.id) AS count FROM KnowledgeSet ks "
+        + "WHERE ks.categoryId IS NOT NULL GROUP BY ks.categoryId")
+    List<KnowledgeSetCount> countKnowledgeSetsGroupByCategory();
 }
@@ -0,0 +1,16 @@
+package io.github.suj1e.content.repository;
+
+import java.util.UUID;
+
+/**
+ * 按分组统计的题库数量投影.
+ */
+public interface KnowledgeSetCount {
+
+    /**
+     * 分组 ID (标签 ID 或分类 ID).
+     */
+    UUID getId();
+
+    long getCount();
+}
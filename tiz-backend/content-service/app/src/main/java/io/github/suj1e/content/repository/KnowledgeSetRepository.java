@@ -3,10 +3,14 @@ package io.github.suj1e.content.repository;
 import io.github.suj1e.content.entity.KnowledgeSet;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,21 +36,29 @@ public interface KnowledgeSetRepository extends JpaRepository<KnowledgeSet, UUID
     Page<KnowledgeSet> findByUserIdAndDifficulty(UUID userId, KnowledgeSet.Difficulty difficulty, Pageable pageable);
 
     /**
-     * 查询用户题库（带分类和标签过滤）.
+     * 按游标查询用户题库（带分类和标签过滤）.
+     * 按 (createdAt, id) 倒序定位到游标之后，返回 Slice 不执行计数查询；
+     * 游标为空时从第一页开始. 标签过滤使用 EXISTS 子查询，不与标签表连接.
      */
     @Query("""
-        SELECT DISTINCT ks FROM KnowledgeSet ks
-        LEFT JOIN ks.tags t
+        SELECT ks FROM KnowledgeSet ks
         WHERE ks.userId = :userId
         AND (:categoryId IS NULL OR ks.categoryId = :categoryId)
         AND (:difficulty IS NULL OR ks.difficulty = :difficulty)
-        AND (:tagNames IS NULL OR t.name IN :tagNames)
+        AND (:tagNames IS NULL OR EXISTS (
+            SELECT 1 FROM KnowledgeSet tks JOIN tks.tags t
+            WHERE tks.id = ks.id AND t.name IN :tagNames))
+        AND (:cursorCreatedAt IS NULL OR ks.createdAt < :cursorCreatedAt
+            OR (ks.createdAt = :cursorCreatedAt AND ks.id < :cursorId))
+        ORDER BY ks.createdAt DESC, ks.id DESC
         """)
-    Page<KnowledgeSet> findByUserIdWithFilters(
+    Slice<KnowledgeSet> findByUserIdWithFiltersAfter(
         @Param("userId") UUID userId,
         @Param("categoryId") UUID categoryId,
         @Param("difficulty") KnowledgeSet.Difficulty difficulty,
         @Param("tagNames") List<String> tagNames,
+        @Param("cursorCreatedAt") Instant cursorCreatedAt,
+        @Param("cursorId") UUID cursorId,
         Pageable pageable
     );
 
@@ -59,4 +71,19 @@ public interface KnowledgeSetRepository extends JpaRepository<KnowledgeSet, UUID
      * 统计用户的题库数量.
      */
     long countByUserId(UUID userId);
+
+    /**
+     * 查询题库版本号.
+     */
+    @Query("SELECT ks.version FROM KnowledgeSet ks WHERE ks.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * 增加题库的题目数量并递增版本号.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE KnowledgeSet ks SET ks.questionCount = COALESCE(ks.questionCount, 0) + :delta, "
+        + "ks.version = ks.version + 1 WHERE ks.id = :id")
+    int addQuestionCount(@Param("id") UUID id, @Param("delta") int delta);
 }
@@ -1,10 +1,13 @@
 package io.github.suj1e.content.repository;
 
 import io.github.suj1e.content.entity.Tag;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,7 +15,17 @@ import java.util.UUID;
 /**
  * 标签仓库.
  */
-public interface TagRepository extends JpaRepository<Tag, UUID> {
+public interface TagRepository extends JpaRepository<Tag, UUID>, TagRepositoryCustom {
+
+    /**
+     * 题库标签名投影.
+     */
+    interface KnowledgeSetTagName {
+
+        UUID getKnowledgeSetId();
+
+        String getName();
+    }
 
     /**
      * 查找所有标签并按名称排序.
@@ -35,8 +48,24 @@ public interface TagRepository extends JpaRepository<Tag, UUID> {
     List<Tag> findByNameIn(List<String> names);
 
     /**
-     * 统计指定标签关联的题库数量.
+     * 根据名称列表查找标签 (共享锁读).
+     * 锁定读取总是读到最新提交的数据，用于插入后回读其他事务并发创建的同名标签.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT t FROM Tag t WHERE t.name IN :names")
+    List<Tag> findForShareByNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * 按标签统计关联的题库数量 (不含已删除题库).
+     */
+    @Query("SELECT t.id AS id, COUNT(ks.id) AS count FROM KnowledgeSet ks JOIN ks.tags t GROUP BY t.id")
+    List<KnowledgeSetCount> countKnowledgeSetsGroupByTag();
+
+    /**
+     * 批量查询题库的标签名.
      */
-    @Query("SELECT COUNT(DISTINCT ks.id) FROM KnowledgeSet ks JOIN ks.tags t WHERE t.id = :tagId")
-    long countKnowledgeSetsByTagId(@Param("tagId") UUID tagId);
+    @Query("SELECT ks.id AS knowledgeSetId, t.name AS name FROM KnowledgeSet ks JOIN ks.tags t "
+        + "WHERE ks.id IN :knowledgeSetIds")
+    List<KnowledgeSetTagName> findTagNamesByKnowledgeSetIds(
+        @Param("knowledgeSetIds") Collection<UUID> knowledgeSetIds);
 }
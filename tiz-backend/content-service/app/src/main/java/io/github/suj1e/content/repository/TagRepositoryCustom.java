@@ -0,0 +1,17 @@
+package io.github.suj1e.content.repository;
+
+import java.util.Collection;
+
+/**
+ * 标签仓库自定义操作.
+ */
+public interface TagRepositoryCustom {
+
+    /**
+     * 批量插入标签，名称已存在的忽略 (单条 INSERT ... ON DUPLICATE KEY UPDATE).
+     *
+     * @param names 标签名称
+     * @return 受影响的行数
+     */
+    int insertIgnoringDuplicates(Collection<String> names);
+}
@@ -0,0 +1,49 @@
+package io.github.suj1e.content.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 标签仓库自定义操作实现.
+ */
+public class TagRepositoryImpl implements TagRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertIgnoringDuplicates(Collection<String> names) {
+        if (names.isEmpty()) {
+            return 0;
+        }
+
+        List<String> values = List.copyOf(names);
+        String placeholders = values.stream()
+            .map(name -> "(?, ?)")
+            .collect(Collectors.joining(", "));
+        // id = id: 名称冲突时不做修改，并发插入同名标签不会报唯一键冲突
+        Query query = entityManager.createNativeQuery(
+            "INSERT INTO tags (id, name) VALUES " + placeholders + " ON DUPLICATE KEY UPDATE id = id");
+
+        int position = 1;
+        for (String name : values) {
+            query.setParameter(position++, toBytes(UUID.randomUUID()));
+            query.setParameter(position++, name);
+        }
+        return query.executeUpdate();
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits())
+            .array();
+    }
+}
@@ -0,0 +1,280 @@
+package io.github.suj1e.content.service;
+
+import io.github.suj1e.llm.api.client.LlmClient;
+import io.github.suj1e.llm.api.dto.AiConfig;
+import io.github.suj1e.llm.api.dto.GenerateRequest;
+import io.github.suj1e.llm.api.dto.GenerateResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 题目批次预取器.
+ * 返回第 N 批题目后在后台预先生成第 N+1 批，结果暂存在 Redis (对题库不可见)，
+ * 用户请求该批次时直接取用，未取用的暂存批次在 {@code ttl} 后过期.
+ * 预取并发受全局和单用户上限约束，超出时跳过预取.
+ * 进行中的预取只能被取用或取消一次: 从 {@code inFlight} 中移除即获得其所有权，
+ * 预取任务完成时仍持有所有权才暂存结果.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BatchPrefetcher {
+
+    private static final String KEY_PREFIX = "generate:prefetch:";
+    private static final String PAGES_SUFFIX = "pages";
+
+    private final LlmClient llmClient;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${generate.prefetch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${generate.prefetch.max-concurrent:20}")
+    private int maxConcurrent;
+
+    @Value("${generate.prefetch.max-per-user:1}")
+    private int maxPerUser;
+
+    @Value("${generate.prefetch.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${generate.prefetch.claim-wait:30s}")
+    private Duration claimWait;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Prefetch> inFlight = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> perUser = new ConcurrentHashMap<>();
+
+    private Semaphore permits;
+    private Counter hits;
+    private Counter misses;
+    private Counter skipped;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(Math.max(1, maxConcurrent));
+        hits = counter("hit");
+        misses = counter("miss");
+        skipped = counter("skipped");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 在后台预取题库的指定批次.
+     * 已在预取或已暂存时忽略；达到并发上限时跳过.
+     *
+     * @param userId         用户 ID
+     * @param knowledgeSetId 题库 ID
+     * @param page           批次号
+     * @param aiConfig       用户 AI 配置
+     */
+    public void prefetch(UUID userId, UUID knowledgeSetId, int page, AiConfig aiConfig) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(knowledgeSetId, page);
+        if (inFlight.containsKey(key) || isStaged(key)) {
+            return;
+        }
+
+        AtomicInteger userCount = perUser.computeIfAbsent(userId, id -> new AtomicInteger());
+        if (userCount.incrementAndGet() > maxPerUser || !permits.tryAcquire()) {
+            release(userId, userCount);
+            skipped.increment();
+            log.debug("Skipping prefetch of batch {} for knowledge set {}: concurrency limit", page, knowledgeSetId);
+            return;
+        }
+
+        Prefetch prefetch = new Prefetch();
+        prefetch.task = new FutureTask<>(() -> {
+            try {
+                GenerateResponse response = llmClient.generateQuestions(
+                    new GenerateRequest(null, GenerateService.DEFAULT_BATCH_SIZE, page, aiConfig)).data();
+                // 先交给已取用的请求，仍未被取用或取消时才暂存
+                prefetch.result.complete(response);
+                if (inFlight.remove(key, prefetch)) {
+                    stage(knowledgeSetId, page, response);
+                }
+                log.debug("Prefetched batch {} for knowledge set {}", page, knowledgeSetId);
+            } catch (Exception e) {
+                log.warn("Failed to prefetch batch {} for knowledge set {}: {}", page, knowledgeSetId, e.getMessage());
+                prefetch.result.completeExceptionally(e);
+            }
+        }, null) {
+            // 正常结束、失败或在开始前被取消都会回调，保证许可归还
+            @Override
+            protected void done() {
+                inFlight.remove(key, prefetch);
+                permits.release();
+                release(userId, userCount);
+            }
+        };
+
+        if (inFlight.putIfAbsent(key, prefetch) != null) {
+            permits.release();
+            release(userId, userCount);
+            return;
+        }
+        executor.execute(prefetch.task);
+    }
+
+    /**
+     * 取用预取的批次.
+     * 预取仍在进行时原子地接管并等待其完成 (最多 {@code claim-wait})，否则从 Redis 原子读取并删除暂存结果.
+     *
+     * @param knowledgeSetId 题库 ID
+     * @param page           批次号
+     * @return 预取结果，没有可用结果时为空
+     */
+    public Optional<GenerateResponse> claim(UUID knowledgeSetId, int page) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = key(knowledgeSetId, page);
+
+        Prefetch pending = inFlight.remove(key);
+        if (pending != null) {
+            try {
+                GenerateResponse response = pending.result.get(claimWait.toMillis(), TimeUnit.MILLISECONDS);
+                if (response != null) {
+                    hits.increment();
+                    return Optional.of(response);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                log.debug("Prefetch of {} not usable: {}", key, e.getMessage());
+            }
+            // 已接管但等不到结果: 中止预取，由调用方直接生成
+            pending.task.cancel(true);
+            misses.increment();
+            return Optional.empty();
+        }
+
+        try {
+            String json = redisTemplate.opsForValue().getAndDelete(key);
+            if (json != null) {
+                hits.increment();
+                return Optional.of(objectMapper.readValue(json, GenerateResponse.class));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read prefetched batch {}: {}", key, e.getMessage());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * 取消题库的预取并丢弃暂存批次 (题库删除时调用).
+     * 进行中的预取被移除并中断，不会再暂存结果；暂存批次按题库的批次索引删除.
+     *
+     * @param knowledgeSetId 题库 ID
+     */
+    public void cancel(UUID knowledgeSetId) {
+        String prefix = KEY_PREFIX + knowledgeSetId + ":";
+        for (String key : inFlight.keySet()) {
+            if (key.startsWith(prefix)) {
+                Prefetch prefetch = inFlight.remove(key);
+                if (prefetch != null) {
+                    prefetch.task.cancel(true);
+                }
+            }
+        }
+        try {
+            String pagesKey = pagesKey(knowledgeSetId);
+            Set<String> pages = redisTemplate.opsForSet().members(pagesKey);
+            List<String> keys = new ArrayList<>();
+            keys.add(pagesKey);
+            if (pages != null) {
+                pages.forEach(page -> keys.add(prefix + page));
+            }
+            redisTemplate.delete(keys);
+        } catch (Exception e) {
+            log.warn("Failed to discard prefetched batches of knowledge set {}: {}", knowledgeSetId, e.getMessage());
+        }
+    }
+
+    private boolean isStaged(String key) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * 暂存预取结果，并将批次号记入题库的批次索引 (供取消时定位).
+     */
+    private void stage(UUID knowledgeSetId, int page, GenerateResponse response) {
+        try {
+            redisTemplate.opsForValue().set(key(knowledgeSetId, page), objectMapper.writeValueAsString(response), ttl);
+            String pagesKey = pagesKey(knowledgeSetId);
+            redisTemplate.opsForSet().add(pagesKey, String.valueOf(page));
+            redisTemplate.expire(pagesKey, ttl);
+        } catch (Exception e) {
+            log.warn("Failed to stage prefetched batch {}: {}", key(knowledgeSetId, page), e.getMessage());
+        }
+    }
+
+    private void release(UUID userId, AtomicInteger userCount) {
+        if (userCount.decrementAndGet() <= 0) {
+            perUser.remove(userId, userCount);
+        }
+    }
+
+    private static String key(UUID knowledgeSetId, int page) {
+        return KEY_PREFIX + knowledgeSetId + ":" + page;
+    }
+
+    private static String pagesKey(UUID knowledgeSetId) {
+        return KEY_PREFIX + knowledgeSetId + ":" + PAGES_SUFFIX;
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("generate.prefetch.requests")
+            .description("Prefetched question batch lookups")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 进行中的预取: 结果和可中断的后台任务.
+     */
+    private static final class Prefetch {
+        private final CompletableFuture<GenerateResponse> result = new CompletableFuture<>();
+        private FutureTask<Void> task;
+    }
+}
@@ -9,8 +9,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * 分类服务.
@@ -20,6 +23,7 @@ import java.util.UUID;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final KnowledgeSetCountCache countCache;
 
     /**
      * 获取所有分类.
@@ -37,9 +41,10 @@ public class CategoryService {
      */
     @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategoriesWithCount() {
+        Map<UUID, Long> counts = countCache.categoryCounts();
         return categoryRepository.findAllByOrderBySortOrderAsc()
             .stream()
-            .map(this::toResponseWithCount)
+            .map(category -> toResponseWithCount(category, counts.getOrDefault(category.getId(), 0L)))
             .toList();
     }
 
@@ -62,6 +67,20 @@ public class CategoryService {
             .orElseThrow(() -> new NotFoundException("Category", id));
     }
 
+    /**
+     * 批量获取分类名称 (单次查询).
+     *
+     * @return 分类 ID 到名称的映射，已删除的分类不在映射中
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, String> getCategoryNames(Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        return categoryRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Category::getId, Category::getName));
+    }
+
     private CategoryResponse toResponse(Category category) {
         return new CategoryResponse(
             category.getId(),
@@ -71,8 +90,7 @@ public class CategoryService {
         );
     }
 
-    private CategoryResponse toResponseWithCount(Category category) {
-        long count = categoryRepository.countKnowledgeSetsById(category.getId());
+    private CategoryResponse toResponseWithCount(Category category, long count) {
         return new CategoryResponse(
             category.getId(),
             category.getName(),
@@ -7,19 +7,33 @@ import io.github.suj1e.content.api.dto.*;
 import io.github.suj1e.content.entity.KnowledgeSet;
 import io.github.suj1e.content.entity.Question;
 import io.github.suj1e.content.error.ContentErrorCode;
+import io.github.suj1e.content.event.KnowledgeSetChangedEvent;
 import io.github.suj1e.content.repository.KnowledgeSetRepository;
 import io.github.suj1e.content.repository.QuestionRepository;
 import io.github.suj1e.llm.api.client.LlmClient;
-import io.github.suj1e.user.api.client.UserClient;
+import io.github.suj1e.user.api.cache.AiConfigCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * 生成题目服务.
@@ -30,11 +44,25 @@ import java.util.UUID;
 public class GenerateService {
 
     private final LlmClient llmClient;
-    private final UserClient userClient;
+    private final AiConfigCache aiConfigCache;
     private final KnowledgeSetRepository knowledgeSetRepository;
     private final QuestionRepository questionRepository;
+    private final BatchPrefetcher batchPrefetcher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    private static final int DEFAULT_BATCH_SIZE = 10;
+    static final int DEFAULT_BATCH_SIZE = 10;
+
+    private static final String EVENT_KNOWLEDGE_SET = "knowledge_set";
+    private static final String EVENT_QUESTION = "question";
+    private static final String EVENT_DONE = "done";
+    private static final String EVENT_ERROR = "error";
+
+    @Value("${generate.stream.micro-batch-size:5}")
+    private int microBatchSize;
+
+    @Value("${generate.stream.micro-batch-wait:500ms}")
+    private Duration microBatchWait;
 
     /**
      * 生成题目.
@@ -87,6 +115,10 @@ public class GenerateService {
 
             log.info("Generated and saved {} questions for knowledge set {}",
                 questions.size(), knowledgeSet.getId());
+
+            if (llmData.batch().hasMore()) {
+                batchPrefetcher.prefetch(userId, knowledgeSet.getId(), llmData.batch().current() + 1, aiConfig);
+            }
         } else {
             // 不保存，仅返回生成的题目信息
             questionResponses = llmData.questions().stream()
@@ -106,22 +138,22 @@ public class GenerateService {
 
     /**
      * 获取后续批次题目.
+     * 取用预取结果或调用 LLM 可能等待较长时间，在事务外完成，只有保存题目时才开启事务.
      *
      * @param userId         用户 ID
      * @param knowledgeSetId 题库 ID
      * @param page           页码
      * @return 批次响应
      */
-    @Transactional
     public BatchResponse getBatch(UUID userId, UUID knowledgeSetId, int page) {
         // 验证题库存在且属于用户
-        KnowledgeSet knowledgeSet = knowledgeSetRepository.findByIdAndUserId(knowledgeSetId, userId)
+        knowledgeSetRepository.findByIdAndUserId(knowledgeSetId, userId)
             .orElseThrow(() -> new NotFoundException("KnowledgeSet", knowledgeSetId));
 
         // 获取用户 AI 配置
         io.github.suj1e.llm.api.dto.AiConfig aiConfig = fetchAiConfig(userId);
 
-        // 调用 LLM 服务获取后续批次
+        // 优先取用预取的批次，否则调用 LLM 服务获取后续批次
         io.github.suj1e.llm.api.dto.GenerateRequest llmRequest =
             new io.github.suj1e.llm.api.dto.GenerateRequest(
                 null, // sessionId not needed for batch
@@ -130,19 +162,16 @@ public class GenerateService {
                 aiConfig
             );
 
-        ApiResponse<io.github.suj1e.llm.api.dto.GenerateResponse> llmResponse =
-            llmClient.generateQuestions(llmRequest);
-
-        io.github.suj1e.llm.api.dto.GenerateResponse llmData = llmResponse.data();
-
-        // 保存题目
-        List<Question> questions = createQuestions(knowledgeSetId, llmData.questions());
-        questions = questionRepository.saveAll(questions);
+        io.github.suj1e.llm.api.dto.GenerateResponse llmData = batchPrefetcher.claim(knowledgeSetId, page)
+            .orElseGet(() -> llmClient.generateQuestions(llmRequest).data());
 
-        // 更新题库的题目数量
-        int currentCount = knowledgeSet.getQuestionCount() != null ? knowledgeSet.getQuestionCount() : 0;
-        knowledgeSet.setQuestionCount(currentCount + questions.size());
-        knowledgeSetRepository.save(knowledgeSet);
+        // 保存题目并更新题库的题目数量
+        List<Question> questions = transactionTemplate.execute(status -> {
+            List<Question> saved = questionRepository.saveAll(createQuestions(knowledgeSetId, llmData.questions()));
+            knowledgeSetRepository.addQuestionCount(knowledgeSetId, saved.size());
+            eventPublisher.publishEvent(new KnowledgeSetChangedEvent(knowledgeSetId));
+            return saved;
+        });
 
         // 构建响应
         List<QuestionResponse> questionResponses = questions.stream()
@@ -158,9 +187,163 @@ public class GenerateService {
         log.info("Generated and saved batch {} with {} questions for knowledge set {}",
             page, questions.size(), knowledgeSetId);
 
+        // 后台预取下一批次
+        if (llmData.batch().hasMore()) {
+            batchPrefetcher.prefetch(userId, knowledgeSetId, page + 1, aiConfig);
+        }
+
         return new BatchResponse(questionResponses, batchInfo);
     }
 
+    /**
+     * 流式生成题目.
+     * 需要保存时先创建题库并推送 knowledge_set 事件，之后每解析出一道题即推送 question 事件.
+     *
+     * @param userId  用户 ID
+     * @param request 生成请求
+     * @return SSE 事件流
+     */
+    public Flux<ServerSentEvent<Object>> generateStream(UUID userId,
+                                                        io.github.suj1e.content.api.dto.GenerateRequest request) {
+        io.github.suj1e.llm.api.dto.AiConfig aiConfig = fetchAiConfig(userId);
+        io.github.suj1e.llm.api.dto.GenerateRequest llmRequest =
+            new io.github.suj1e.llm.api.dto.GenerateRequest(
+                request.sessionId(),
+                DEFAULT_BATCH_SIZE,
+                1,
+                aiConfig
+            );
+
+        if (!request.save()) {
+            return streamQuestions(null, 0, llmRequest);
+        }
+
+        KnowledgeSet knowledgeSet = knowledgeSetRepository.save(createKnowledgeSet(userId, request.sessionId()));
+        return Flux.concat(
+            Mono.just(event(EVENT_KNOWLEDGE_SET, toKnowledgeSetResponse(knowledgeSet, 0))),
+            streamQuestions(knowledgeSet.getId(), 0, llmRequest)
+        );
+    }
+
+    /**
+     * 流式获取后续批次题目.
+     *
+     * @param userId         用户 ID
+     * @param knowledgeSetId 题库 ID
+     * @param page           页码
+     * @return SSE 事件流
+     */
+    public Flux<ServerSentEvent<Object>> getBatchStream(UUID userId, UUID knowledgeSetId, int page) {
+        KnowledgeSet knowledgeSet = knowledgeSetRepository.findByIdAndUserId(knowledgeSetId, userId)
+            .orElseThrow(() -> new NotFoundException("KnowledgeSet", knowledgeSetId));
+
+        io.github.suj1e.llm.api.dto.AiConfig aiConfig = fetchAiConfig(userId);
+        io.github.suj1e.llm.api.dto.GenerateRequest llmRequest =
+            new io.github.suj1e.llm.api.dto.GenerateRequest(
+                null, // sessionId not needed for batch
+                DEFAULT_BATCH_SIZE,
+                page,
+                aiConfig
+            );
+
+        int currentCount = knowledgeSet.getQuestionCount() != null ? knowledgeSet.getQuestionCount() : 0;
+        return streamQuestions(knowledgeSetId, currentCount, llmRequest);
+    }
+
+    /**
+     * 转发流式生成的题目.
+     * knowledgeSetId 为空时题目解析后立即推送；否则由独立订阅按微批写入 (客户端断开不影响保存)，
+     * 每个微批写入后再推送其中的题目 (带已分配的 ID)，全部写入后一次性更新题库题目数量，再推送 done 事件.
+     */
+    private Flux<ServerSentEvent<Object>> streamQuestions(UUID knowledgeSetId, int sortOffset,
+                                                          io.github.suj1e.llm.api.dto.GenerateRequest llmRequest) {
+        AtomicInteger sortOrder = new AtomicInteger(sortOffset);
+        Flux<Question> questions = llmClient.generateQuestionsStream(llmRequest)
+            .map(dto -> toQuestion(knowledgeSetId, dto, sortOrder.incrementAndGet()));
+
+        if (knowledgeSetId == null) {
+            return questions
+                .map(question -> event(EVENT_QUESTION, toQuestionResponse(question)))
+                .concatWith(Mono.fromSupplier(() -> event(EVENT_DONE, new StreamDone(null, sortOrder.get() - sortOffset))))
+                .onErrorResume(e -> {
+                    log.error("Streaming generation failed", e);
+                    return Mono.just(errorEvent());
+                });
+        }
+
+        return Flux.defer(() -> {
+            // 写入链路独立订阅，客户端取消只会使推送失败，不影响写入
+            Sinks.Many<ServerSentEvent<Object>> events = Sinks.many().unicast().onBackpressureBuffer();
+            persistQuestions(knowledgeSetId, questions,
+                saved -> saved.forEach(question -> events.tryEmitNext(event(EVENT_QUESTION, toQuestionResponse(question)))))
+                .subscribe(
+                    count -> {
+                        events.tryEmitNext(event(EVENT_DONE, new StreamDone(knowledgeSetId, count)));
+                        events.tryEmitComplete();
+                    },
+                    e -> {
+                        log.error("Streaming generation failed for knowledge set {}", knowledgeSetId, e);
+                        // 已生成题目写入并更新数量后再推送 error 事件
+                        events.tryEmitNext(errorEvent());
+                        events.tryEmitComplete();
+                    });
+            return events.asFlux();
+        });
+    }
+
+    /**
+     * 按微批写入题目，结束 (含出错) 后一次性更新题库题目数量.
+     *
+     * @param onSaved 每个微批写入后以已保存的题目回调
+     * @return 已写入的题目数量；生成或写入出错时在更新数量后以错误结束
+     */
+    private Mono<Integer> persistQuestions(UUID knowledgeSetId, Flux<Question> questions,
+                                           Consumer<List<Question>> onSaved) {
+        AtomicInteger saved = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        return questions
+            .bufferTimeout(microBatchSize, microBatchWait)
+            // 出错时等待进行中的微批写完，保证计数准确
+            .concatMapDelayError(batch -> Mono.fromRunnable(() -> {
+                List<Question> batchSaved = questionRepository.saveAll(batch);
+                saved.addAndGet(batchSaved.size());
+                onSaved.accept(batchSaved);
+            }).subscribeOn(Schedulers.boundedElastic()))
+            .onErrorResume(e -> {
+                failure.set(e);
+                return Mono.empty();
+            })
+            .then(Mono.fromCallable(() -> {
+                if (saved.get() > 0) {
+                    knowledgeSetRepository.addQuestionCount(knowledgeSetId, saved.get());
+                    eventPublisher.publishEvent(new KnowledgeSetChangedEvent(knowledgeSetId));
+                }
+                log.info("Streamed and saved {} questions for knowledge set {}", saved.get(), knowledgeSetId);
+                return saved.get();
+            }).subscribeOn(Schedulers.boundedElastic()))
+            .flatMap(count -> failure.get() != null ? Mono.error(failure.get()) : Mono.just(count));
+    }
+
+    private static ServerSentEvent<Object> errorEvent() {
+        return event(EVENT_ERROR, Map.of(
+            "code", ContentErrorCode.QUESTION_GENERATION_FAILED.getCode(),
+            "message", ContentErrorCode.QUESTION_GENERATION_FAILED.getMessage()
+        ));
+    }
+
+    private static ServerSentEvent<Object> event(String name, Object data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
+
+    /**
+     * 流式生成结束事件.
+     *
+     * @param knowledgeSetId 题库 ID (不保存时为 null)
+     * @param questionCount  本次生成的题目数量
+     */
+    public record StreamDone(UUID knowledgeSetId, int questionCount) {}
+
     /**
      * 创建题库实体.
      */
@@ -180,21 +363,28 @@ public class GenerateService {
                                             List<io.github.suj1e.llm.api.dto.GenerateResponse.QuestionDto> questionDtos) {
         List<Question> questions = new ArrayList<>();
         for (int i = 0; i < questionDtos.size(); i++) {
-            io.github.suj1e.llm.api.dto.GenerateResponse.QuestionDto dto = questionDtos.get(i);
-            Question question = new Question();
-            question.setKnowledgeSetId(knowledgeSetId);
-            question.setType(Question.Type.valueOf(dto.type()));
-            question.setContent(dto.content());
-            question.setOptions(dto.options());
-            question.setAnswer(dto.answer());
-            question.setExplanation(dto.explanation());
-            question.setRubric(dto.rubric());
-            question.setSortOrder(i + 1);
-            questions.add(question);
+            questions.add(toQuestion(knowledgeSetId, questionDtos.get(i), i + 1));
         }
         return questions;
     }
 
+    /**
+     * 创建题目实体.
+     */
+    private Question toQuestion(UUID knowledgeSetId,
+                                io.github.suj1e.llm.api.dto.GenerateResponse.QuestionDto dto, int sortOrder) {
+        Question question = new Question();
+        question.setKnowledgeSetId(knowledgeSetId);
+        question.setType(Question.Type.valueOf(dto.type()));
+        question.setContent(dto.content());
+        question.setOptions(dto.options());
+        question.setAnswer(dto.answer());
+        question.setExplanation(dto.explanation());
+        question.setRubric(dto.rubric());
+        question.setSortOrder(sortOrder);
+        return question;
+    }
+
     /**
      * 转换为 KnowledgeSetResponse.
      */
@@ -248,14 +438,8 @@ public class GenerateService {
      * @throws BusinessException 如果用户未配置 AI
      */
     private io.github.suj1e.llm.api.dto.AiConfig fetchAiConfig(UUID userId) {
-        ApiResponse<io.github.suj1e.user.api.dto.AiConfigResponse> response =
-            userClient.getAiConfig(userId);
-
-        if (response.data() == null) {
-            throw new BusinessException(ContentErrorCode.AI_CONFIG_REQUIRED);
-        }
-
-        io.github.suj1e.user.api.dto.AiConfigResponse config = response.data();
+        io.github.suj1e.user.api.dto.AiConfigResponse config = aiConfigCache.get(userId)
+            .orElseThrow(() -> new BusinessException(ContentErrorCode.AI_CONFIG_REQUIRED));
 
         // 转换为 LLM 服务所需的 AiConfig
         return new io.github.suj1e.llm.api.dto.AiConfig(
@@ -0,0 +1,74 @@
+package io.github.suj1e.content.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.github.suj1e.content.event.KnowledgeSetChangedEvent;
+import io.github.suj1e.content.repository.CategoryRepository;
+import io.github.suj1e.content.repository.KnowledgeSetCount;
+import io.github.suj1e.content.repository.TagRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 标签和分类的题库数量缓存.
+ * 每类计数由一条 GROUP BY 查询整体加载，本实例题库变更提交后失效，
+ * 其他实例的变更在 {@code ttl} 内可见.
+ */
+@Component
+@RequiredArgsConstructor
+public class KnowledgeSetCountCache {
+
+    private enum Kind { TAG, CATEGORY }
+
+    private final TagRepository tagRepository;
+    private final CategoryRepository categoryRepository;
+
+    @Value("${content.count-cache.ttl:60s}")
+    private Duration ttl;
+
+    private LoadingCache<Kind, Map<UUID, Long>> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .build(this::load);
+    }
+
+    /**
+     * 各标签关联的题库数量，无题库的标签不在映射中.
+     */
+    public Map<UUID, Long> tagCounts() {
+        return cache.get(Kind.TAG);
+    }
+
+    /**
+     * 各分类下的题库数量，无题库的分类不在映射中.
+     */
+    public Map<UUID, Long> categoryCounts() {
+        return cache.get(Kind.CATEGORY);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onKnowledgeSetChanged(KnowledgeSetChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    private Map<UUID, Long> load(Kind kind) {
+        List<KnowledgeSetCount> counts = kind == Kind.TAG
+            ? tagRepository.countKnowledgeSetsGroupByTag()
+            : categoryRepository.countKnowledgeSetsGroupByCategory();
+        return counts.stream()
+            .collect(Collectors.toUnmodifiableMap(KnowledgeSetCount::getId, KnowledgeSetCount::getCount));
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.suj1e.content.service;
+
+import io.github.suj1e.common.exception.BusinessException;
+import io.github.suj1e.content.error.ContentErrorCode;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 题库列表游标编解码.
+ * 游标记录上一页最后一项的 (createdAt, id)，格式为 {@code base64url(payload).base64url(hmac)}，
+ * 签名防止客户端篡改游标跳过查询条件.
+ */
+@Component
+public class LibraryCursorCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * 游标位置.
+     */
+    public record Cursor(Instant createdAt, UUID id) {}
+
+    @Value("${content.library.cursor-secret}")
+    private String secret;
+
+    private SecretKeySpec key;
+
+    @PostConstruct
+    void init() {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("content.library.cursor-secret must be set");
+        }
+        key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * 编码游标.
+     */
+    public String encode(Instant createdAt, UUID id) {
+        byte[] payload = (createdAt + "|" + id).getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * 解码并校验游标.
+     *
+     * @throws BusinessException 游标格式错误或签名不匹配
+     */
+    public Cursor decode(String token) {
+        try {
+            int dot = token.indexOf('.');
+            if (dot < 0) {
+                throw invalid();
+            }
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                throw invalid();
+            }
+
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split("\\|", 2);
+            if (parts.length != 2) {
+                throw invalid();
+            }
+            return new Cursor(Instant.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return Arrays.copyOf(mac.doFinal(payload), SIGNATURE_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC unavailable", e);
+        }
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException(ContentErrorCode.INVALID_PAGE_TOKEN);
+    }
+}
@@ -6,19 +6,24 @@ import io.github.suj1e.content.dto.*;
 import io.github.suj1e.content.entity.Category;
 import io.github.suj1e.content.entity.KnowledgeSet;
 import io.github.suj1e.content.entity.Tag;
+import io.github.suj1e.content.event.KnowledgeSetChangedEvent;
 import io.github.suj1e.content.repository.KnowledgeSetRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
+import static java.util.stream.Collectors.toSet;
+
 /**
  * 题库服务.
  */
@@ -30,47 +35,54 @@ public class LibraryService {
     private final CategoryService categoryService;
     private final TagService tagService;
     private final QuestionService questionService;
+    private final BatchPrefetcher batchPrefetcher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LibraryCursorCodec cursorCodec;
 
     /**
-     * 分页查询用户的题库列表.
+     * 游标分页查询用户的题库列表 (按创建时间倒序).
      */
     @Transactional(readOnly = true)
     public CursorResponse<LibrarySummaryResponse> getLibraries(UUID userId, LibraryFilterRequest filter) {
-        Pageable pageable = filter.toPageable();
+        LibraryCursorCodec.Cursor cursor = filter.getPageToken() != null && !filter.getPageToken().isBlank()
+            ? cursorCodec.decode(filter.getPageToken())
+            : null;
 
-        Page<KnowledgeSet> page = knowledgeSetRepository.findByUserIdWithFilters(
+        Slice<KnowledgeSet> slice = knowledgeSetRepository.findByUserIdWithFiltersAfter(
             userId,
             filter.getCategoryId(),
             filter.getDifficulty(),
             filter.getTags(),
-            pageable
+            cursor != null ? cursor.createdAt() : null,
+            cursor != null ? cursor.id() : null,
+            PageRequest.ofSize(filter.getPageSize())
         );
 
-        List<LibrarySummaryResponse> items = page.getContent().stream()
-            .map(this::toSummaryResponse)
+        // 分类名和标签名按页批量加载，每页查询数固定
+        List<KnowledgeSet> knowledgeSets = slice.getContent();
+        Map<UUID, String> categoryNames = categoryService.getCategoryNames(knowledgeSets.stream()
+            .map(KnowledgeSet::getCategoryId)
+            .filter(Objects::nonNull)
+            .collect(toSet()));
+        Map<UUID, List<String>> tagNames = tagService.getTagNamesByKnowledgeSetIds(knowledgeSets.stream()
+            .map(KnowledgeSet::getId)
+            .toList());
+
+        List<LibrarySummaryResponse> items = knowledgeSets.stream()
+            .map(ks -> toSummaryResponse(ks, categoryNames, tagNames))
             .toList();
 
-        boolean hasMore = page.hasNext();
+        boolean hasMore = slice.hasNext();
         String nextToken = null;
 
-        if (hasMore && !items.isEmpty()) {
-            // Create a simple token based on the last item's ID
-            LibrarySummaryResponse lastItem = items.get(items.size() - 1);
-            nextToken = encodeToken(lastItem.id().toString());
+        if (hasMore && !knowledgeSets.isEmpty()) {
+            KnowledgeSet last = knowledgeSets.get(knowledgeSets.size() - 1);
+            nextToken = cursorCodec.encode(last.getCreatedAt(), last.getId());
         }
 
         return CursorResponse.of(items, hasMore, nextToken);
     }
 
-    /**
-     * Encode token for cursor pagination.
-     */
-    private String encodeToken(String value) {
-        return Base64.getEncoder().encodeToString(
-            ("{\"id\":\"" + value + "\"}").getBytes(StandardCharsets.UTF_8)
-        );
-    }
-
     /**
      * 获取题库详情.
      */
@@ -101,7 +113,9 @@ public class LibraryService {
             knowledgeSet.getTags().addAll(tags);
         }
 
+        knowledgeSet.bumpVersion();
         knowledgeSet = knowledgeSetRepository.save(knowledgeSet);
+        eventPublisher.publishEvent(new KnowledgeSetChangedEvent(id));
         return toDetailResponse(knowledgeSet);
     }
 
@@ -113,6 +127,8 @@ public class LibraryService {
         KnowledgeSet knowledgeSet = knowledgeSetRepository.findByIdAndUserId(id, userId)
             .orElseThrow(() -> new NotFoundException("KnowledgeSet", id));
         knowledgeSetRepository.delete(knowledgeSet);
+        batchPrefetcher.cancel(id);
+        eventPublisher.publishEvent(new KnowledgeSetChangedEvent(id));
     }
 
     /**
@@ -124,6 +140,47 @@ public class LibraryService {
             .orElseThrow(() -> new NotFoundException("KnowledgeSet", id));
     }
 
+    /**
+     * 获取题库信息 (内部使用).
+     */
+    @Transactional(readOnly = true)
+    public KnowledgeSetInternalResponse getKnowledgeSetInternal(UUID id) {
+        return toInternalResponse(getKnowledgeSetEntityById(id));
+    }
+
+    /**
+     * 获取题库当前版本号 (内部使用).
+     */
+    @Transactional(readOnly = true)
+    public long getKnowledgeSetVersion(UUID id) {
+        return findKnowledgeSetVersion(id)
+            .orElseThrow(() -> new NotFoundException("KnowledgeSet", id));
+    }
+
+    /**
+     * 查询题库当前版本号 (内部使用)，题库不存在时为空.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findKnowledgeSetVersion(UUID id) {
+        return knowledgeSetRepository.findVersionById(id);
+    }
+
+    /**
+     * 获取题库快照 (内部使用).
+     * 先读取版本号再读取题目，并发变更时快照内容只会比版本号新，客户端会在下次校验时重新加载.
+     */
+    @Transactional(readOnly = true)
+    public QuestionSetSnapshotResponse getQuestionSetSnapshot(UUID id) {
+        KnowledgeSet knowledgeSet = getKnowledgeSetEntityById(id);
+        long version = knowledgeSet.getVersion();
+        return new QuestionSetSnapshotResponse(
+            id,
+            version,
+            toInternalResponse(knowledgeSet),
+            questionService.getQuestionsByKnowledgeSetId(id)
+        );
+    }
+
     /**
      * 更新题库的题目数量.
      */
@@ -133,10 +190,28 @@ public class LibraryService {
             .orElseThrow(() -> new NotFoundException("KnowledgeSet", knowledgeSetId));
         long count = questionService.countByKnowledgeSetId(knowledgeSetId);
         knowledgeSet.setQuestionCount((int) count);
+        knowledgeSet.bumpVersion();
         knowledgeSetRepository.save(knowledgeSet);
+        eventPublisher.publishEvent(new KnowledgeSetChangedEvent(knowledgeSetId));
     }
 
-    private LibrarySummaryResponse toSummaryResponse(KnowledgeSet ks) {
+    private LibrarySummaryResponse toSummaryResponse(KnowledgeSet ks, Map<UUID, String> categoryNames,
+                                                     Map<UUID, List<String>> tagNames) {
+        // Category was deleted -> no entry in the map, name stays null
+        String categoryName = ks.getCategoryId() != null ? categoryNames.get(ks.getCategoryId()) : null;
+
+        return new LibrarySummaryResponse(
+            ks.getId(),
+            ks.getTitle(),
+            categoryName,
+            tagNames.getOrDefault(ks.getId(), List.of()),
+            ks.getDifficulty().name(),
+            ks.getQuestionCount(),
+            ks.getCreatedAt()
+        );
+    }
+
+    private KnowledgeSetInternalResponse toInternalResponse(KnowledgeSet ks) {
         String categoryName = null;
         if (ks.getCategoryId() != null) {
             try {
@@ -151,14 +226,13 @@ public class LibraryService {
             .map(Tag::getName)
             .toList();
 
-        return new LibrarySummaryResponse(
+        return new KnowledgeSetInternalResponse(
             ks.getId(),
             ks.getTitle(),
             categoryName,
             tagNames,
             ks.getDifficulty().name(),
-            ks.getQuestionCount(),
-            ks.getCreatedAt()
+            ks.getQuestionCount()
         );
     }
 
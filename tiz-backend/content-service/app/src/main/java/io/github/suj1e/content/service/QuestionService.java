@@ -9,8 +9,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 题目服务.
@@ -57,6 +62,23 @@ public class QuestionService {
         return toResponse(question);
     }
 
+    /**
+     * 批量获取题目.
+     * 单次查询，按传入 ID 的顺序返回，不存在的题目被忽略.
+     */
+    @Transactional(readOnly = true)
+    public List<QuestionResponse> getQuestionsByIds(List<UUID> ids) {
+        Map<UUID, Question> questions = questionRepository.findAllById(new LinkedHashSet<>(ids))
+            .stream()
+            .collect(Collectors.toMap(Question::getId, Function.identity()));
+        return ids.stream()
+            .distinct()
+            .map(questions::get)
+            .filter(Objects::nonNull)
+            .map(this::toResponse)
+            .toList();
+    }
+
     /**
      * 获取题目实体.
      */
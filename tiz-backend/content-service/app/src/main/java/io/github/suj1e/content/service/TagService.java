@@ -1,22 +1,59 @@
 package io.github.suj1e.content.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.suj1e.content.dto.TagResponse;
 import io.github.suj1e.content.entity.Tag;
 import io.github.suj1e.content.repository.TagRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toList;
 
 /**
  * 标签服务.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TagService {
 
     private final TagRepository tagRepository;
+    private final KnowledgeSetCountCache countCache;
+
+    @Value("${content.tag-cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    /**
+     * 标签名 (小写) 到标签 ID 的本地缓存. 标签创建后不会改名或删除，缓存无需失效.
+     * 只缓存 ID，实体按事务通过 {@code getReferenceById} 获取，不在事务间共享.
+     */
+    private Cache<String, UUID> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .build();
+    }
 
     /**
      * 获取所有标签.
@@ -34,14 +71,17 @@ public class TagService {
      */
     @Transactional(readOnly = true)
     public List<TagResponse> getAllTagsWithCount() {
+        Map<UUID, Long> counts = countCache.tagCounts();
         return tagRepository.findAllByOrderByNameAsc()
             .stream()
-            .map(this::toResponseWithCount)
+            .map(tag -> new TagResponse(tag.getId(), tag.getName(), counts.getOrDefault(tag.getId(), 0L)))
             .toList();
     }
 
     /**
      * 根据名称列表获取或创建标签.
+     * 已缓存的名称直接返回当前事务内的实体引用，未缓存的名称一次批量查询，缺失的名称一条语句批量插入 (已存在则忽略) 后加锁回读，
+     * 并发创建同名标签时不会触发唯一键冲突. 返回结果去重并保持请求顺序.
      */
     @Transactional
     public List<Tag> getOrCreateTags(List<String> tagNames) {
@@ -49,13 +89,47 @@ public class TagService {
             return List.of();
         }
 
-        return tagNames.stream()
-            .map(name -> tagRepository.findByName(name)
-                .orElseGet(() -> {
-                    Tag tag = new Tag();
-                    tag.setName(name);
-                    return tagRepository.save(tag);
-                }))
+        // tags.name 使用 _ci 排序规则，按小写名称去重和匹配
+        Map<String, String> requested = new LinkedHashMap<>();
+        for (String name : tagNames) {
+            if (name != null) {
+                requested.putIfAbsent(key(name), name);
+            }
+        }
+
+        Map<String, Tag> tags = new HashMap<>();
+        cache.getAllPresent(requested.keySet())
+            .forEach((key, id) -> tags.put(key, tagRepository.getReferenceById(id)));
+        List<String> uncached = requested.entrySet().stream()
+            .filter(entry -> !tags.containsKey(entry.getKey()))
+            .map(Map.Entry::getValue)
+            .toList();
+
+        if (!uncached.isEmpty()) {
+            Map<String, Tag> existing = byKey(tagRepository.findByNameIn(uncached));
+            cache.putAll(ids(existing));
+            tags.putAll(existing);
+
+            List<String> missing = uncached.stream()
+                .filter(name -> !tags.containsKey(key(name)))
+                .toList();
+            if (!missing.isEmpty()) {
+                tagRepository.insertIgnoringDuplicates(missing);
+                Map<String, Tag> created = byKey(tagRepository.findForShareByNameIn(missing));
+                tags.putAll(created);
+                cacheAfterCommit(created);
+            }
+        }
+
+        return requested.entrySet().stream()
+            .filter(entry -> {
+                boolean found = tags.containsKey(entry.getKey());
+                if (!found) {
+                    log.warn("Tag not resolved after insert, skipped: {}", entry.getValue());
+                }
+                return found;
+            })
+            .map(entry -> tags.get(entry.getKey()))
             .toList();
     }
 
@@ -70,12 +144,58 @@ public class TagService {
         return tagRepository.findByNameIn(tagNames);
     }
 
-    private TagResponse toResponse(Tag tag) {
-        return new TagResponse(tag.getId(), tag.getName());
+    /**
+     * 批量获取题库的标签名 (单次查询).
+     *
+     * @return 题库 ID 到标签名列表的映射，无标签的题库不在映射中
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, List<String>> getTagNamesByKnowledgeSetIds(Collection<UUID> knowledgeSetIds) {
+        if (knowledgeSetIds == null || knowledgeSetIds.isEmpty()) {
+            return Map.of();
+        }
+        return tagRepository.findTagNamesByKnowledgeSetIds(knowledgeSetIds).stream()
+            .collect(groupingBy(TagRepository.KnowledgeSetTagName::getKnowledgeSetId,
+                mapping(TagRepository.KnowledgeSetTagName::getName, toList())));
+    }
+
+    /**
+     * 本事务新建的标签在提交后才放入缓存，回滚时不会缓存不存在的标签.
+     */
+    private void cacheAfterCommit(Map<String, Tag> createdTags) {
+        if (createdTags.isEmpty()) {
+            return;
+        }
+        Map<String, UUID> created = ids(createdTags);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.putAll(created);
+                }
+            });
+        } else {
+            cache.putAll(created);
+        }
     }
 
-    private TagResponse toResponseWithCount(Tag tag) {
-        long count = tagRepository.countKnowledgeSetsByTagId(tag.getId());
-        return new TagResponse(tag.getId(), tag.getName(), count);
+    private static Map<String, Tag> byKey(List<Tag> tags) {
+        return tags.stream()
+            .collect(toMap(tag -> key(tag.getName()), Function.identity(),
+                (first, second) -> first));
+    }
+
+    private static Map<String, UUID> ids(Map<String, Tag> tags) {
+        Map<String, UUID> ids = new HashMap<>(tags.size());
+        tags.forEach((key, tag) -> ids.put(key, tag.getId()));
+        return ids;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private TagResponse toResponse(Tag tag) {
+        return new TagResponse(tag.getId(), tag.getName());
     }
 }
@@ -0,0 +1,115 @@
+package io.github.suj1e.content.controller;
+
+import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.content.dto.KnowledgeSetInternalResponse;
+import io.github.suj1e.content.dto.QuestionResponse;
+import io.github.suj1e.content.service.LibraryService;
+import io.github.suj1e.content.service.QuestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * InternalContentController 条件请求单元测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class InternalContentControllerTest {
+
+    @Mock
+    private LibraryService libraryService;
+
+    @Mock
+    private QuestionService questionService;
+
+    @InjectMocks
+    private InternalContentController controller;
+
+    private UUID knowledgeSetId;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        knowledgeSetId = UUID.randomUUID();
+        request = new MockHttpServletRequest("GET", "/internal/content/v1/knowledge-sets/" + knowledgeSetId);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @DisplayName("获取题目列表 - 首次请求返回内容和 ETag")
+    void getQuestions_NoIfNoneMatch_ReturnsBodyWithETag() {
+        // Arrange
+        when(libraryService.findKnowledgeSetVersion(knowledgeSetId)).thenReturn(Optional.of(3L));
+        when(questionService.getQuestionsByKnowledgeSetId(knowledgeSetId, null)).thenReturn(List.of(question()));
+
+        // Act
+        ApiResponse<List<QuestionResponse>> result =
+            controller.getQuestions(knowledgeSetId, null, new ServletWebRequest(request, response));
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1, result.data().size());
+        assertEquals("\"" + knowledgeSetId + "-3\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("获取题目列表 - 版本未变返回 304 且不读取题目")
+    void getQuestions_MatchingETag_NotModified() {
+        // Arrange
+        when(libraryService.findKnowledgeSetVersion(knowledgeSetId)).thenReturn(Optional.of(3L));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + knowledgeSetId + "-3\"");
+
+        // Act
+        ApiResponse<List<QuestionResponse>> result =
+            controller.getQuestions(knowledgeSetId, null, new ServletWebRequest(request, response));
+
+        // Assert
+        assertNull(result);
+        assertEquals(304, response.getStatus());
+        verify(questionService, never()).getQuestionsByKnowledgeSetId(any(), any());
+    }
+
+    @Test
+    @DisplayName("获取题库信息 - 内容未变返回 304")
+    void getKnowledgeSet_SameContent_NotModified() {
+        // Arrange
+        when(libraryService.getKnowledgeSetInternal(knowledgeSetId)).thenReturn(
+            new KnowledgeSetInternalResponse(knowledgeSetId, "Java", null, List.of(), "medium", 1));
+        controller.getKnowledgeSet(knowledgeSetId, new ServletWebRequest(request, response));
+        String etag = response.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", request.getRequestURI());
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+
+        // Act
+        ApiResponse<KnowledgeSetInternalResponse> result =
+            controller.getKnowledgeSet(knowledgeSetId, new ServletWebRequest(conditional, notModified));
+
+        // Assert
+        assertNotNull(etag);
+        assertNull(result);
+        assertEquals(304, notModified.getStatus());
+    }
+
+    private static QuestionResponse question() {
+        return new QuestionResponse(UUID.randomUUID(), "choice", "What is 1+1?",
+            List.of("1", "2"), "2", null, null);
+    }
+}
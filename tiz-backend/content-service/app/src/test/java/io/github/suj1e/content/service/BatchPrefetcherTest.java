@@ -0,0 +1,218 @@
+package io.github.suj1e.content.service;
+
+import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.llm.api.client.LlmClient;
+import io.github.suj1e.llm.api.dto.AiConfig;
+import io.github.suj1e.llm.api.dto.BatchInfo;
+import io.github.suj1e.llm.api.dto.GenerateResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 题目批次预取器单元测试.
+ */
+class BatchPrefetcherTest {
+
+    private LlmClient llmClient;
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private SetOperations<String, String> setOperations;
+    private ObjectMapper objectMapper;
+    private BatchPrefetcher prefetcher;
+
+    private UUID userId;
+    private UUID knowledgeSetId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        llmClient = mock(LlmClient.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        objectMapper = JsonMapper.builder().build();
+
+        prefetcher = new BatchPrefetcher(llmClient, redisTemplate, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(prefetcher, "enabled", true);
+        ReflectionTestUtils.setField(prefetcher, "maxConcurrent", 20);
+        ReflectionTestUtils.setField(prefetcher, "maxPerUser", 1);
+        ReflectionTestUtils.setField(prefetcher, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(prefetcher, "claimWait", Duration.ofSeconds(5));
+        prefetcher.init();
+
+        userId = UUID.randomUUID();
+        knowledgeSetId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        prefetcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("预取完成后取用 - 暂存结果并记入批次索引，取用时原子读取并删除")
+    void claim_AfterPrefetch_ReturnsStagedBatch() {
+        // Arrange
+        GenerateResponse batch = batch(2);
+        when(llmClient.generateQuestions(any())).thenReturn(ApiResponse.of(batch));
+        Map<String, String> staged = new ConcurrentHashMap<>();
+        doAnswer(invocation -> staged.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        when(valueOperations.getAndDelete(anyString())).thenAnswer(invocation -> staged.remove(invocation.<String>getArgument(0)));
+
+        // Act
+        prefetcher.prefetch(userId, knowledgeSetId, 2, aiConfig());
+        // 批次索引在暂存结果之后写入，等到它才能确定结果已放入 staged
+        verify(setOperations, timeout(5000)).add(prefix(knowledgeSetId) + "pages", "2");
+        Optional<GenerateResponse> claimed = prefetcher.claim(knowledgeSetId, 2);
+
+        // Assert
+        assertThat(claimed).contains(batch);
+        assertThat(staged).isEmpty();
+        verify(valueOperations).set(eq(key(2)), anyString(), eq(Duration.ofMinutes(10)));
+    }
+
+    @Test
+    @DisplayName("从 Redis 取用暂存批次 - 原子读取并删除")
+    void claim_Staged_ReadsAndDeletes() {
+        // Arrange
+        GenerateResponse batch = batch(3);
+        when(valueOperations.getAndDelete(key(3))).thenReturn(objectMapper.writeValueAsString(batch));
+
+        // Act
+        Optional<GenerateResponse> claimed = prefetcher.claim(knowledgeSetId, 3);
+
+        // Assert
+        assertThat(claimed).contains(batch);
+    }
+
+    @Test
+    @DisplayName("超过单用户并发上限 - 跳过预取")
+    void prefetch_PerUserLimit_Skips() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(llmClient.generateQuestions(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return ApiResponse.of(batch(2));
+        });
+
+        // Act
+        prefetcher.prefetch(userId, knowledgeSetId, 2, aiConfig());
+        prefetcher.prefetch(userId, UUID.randomUUID(), 2, aiConfig());
+        release.countDown();
+
+        // Assert
+        verify(llmClient, after(200).times(1)).generateQuestions(any());
+    }
+
+    @Test
+    @DisplayName("并发取用进行中的预取 - 只有一个请求拿到结果，且不再暂存")
+    void claim_Concurrent_OnlyOneOwnsInFlightBatch() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        GenerateResponse batch = batch(2);
+        when(llmClient.generateQuestions(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return ApiResponse.of(batch);
+        });
+        prefetcher.prefetch(userId, knowledgeSetId, 2, aiConfig());
+
+        // Act
+        CompletableFuture<Optional<GenerateResponse>> first =
+            CompletableFuture.supplyAsync(() -> prefetcher.claim(knowledgeSetId, 2));
+        while (inFlight().containsKey(key(2))) {
+            Thread.sleep(10);
+        }
+        Optional<GenerateResponse> second = prefetcher.claim(knowledgeSetId, 2);
+        release.countDown();
+
+        // Assert
+        assertThat(first.join()).contains(batch);
+        assertThat(second).isEmpty();
+        verify(valueOperations, after(200).never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("取消题库预取 - 中断进行中的预取并按批次索引删除暂存批次")
+    void cancel_InterruptsInFlightAndDeletesIndexedBatches() throws InterruptedException {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(llmClient.generateQuestions(any())).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return ApiResponse.of(batch(4));
+        });
+        when(setOperations.members(prefix(knowledgeSetId) + "pages")).thenReturn(Set.of("2", "3"));
+        prefetcher.prefetch(userId, knowledgeSetId, 4, aiConfig());
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        prefetcher.cancel(knowledgeSetId);
+
+        // Assert
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(redisTemplate).delete(argThat((Collection<String> keys) ->
+            keys.containsAll(List.of(prefix(knowledgeSetId) + "pages", key(2), key(3)))));
+        verify(redisTemplate, never()).keys(anyString());
+        verify(valueOperations, after(200).never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> inFlight() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(prefetcher, "inFlight");
+    }
+
+    private String key(int page) {
+        return prefix(knowledgeSetId) + page;
+    }
+
+    private static String prefix(UUID knowledgeSetId) {
+        return "generate:prefetch:" + knowledgeSetId + ":";
+    }
+
+    private static GenerateResponse batch(int page) {
+        return new GenerateResponse(
+            List.of(new GenerateResponse.QuestionDto("choice", "Q" + page, List.of("A", "B"), "A", null, null)),
+            new BatchInfo(page, 3, page < 3));
+    }
+
+    private static AiConfig aiConfig() {
+        return new AiConfig("gpt-4o-mini", 0.7, 2000, null, "zh", null, null);
+    }
+}
@@ -14,6 +14,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,6 +30,9 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private KnowledgeSetCountCache countCache;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -100,10 +104,8 @@ class CategoryServiceTest {
 
             when(categoryRepository.findAllByOrderBySortOrderAsc())
                 .thenReturn(List.of(testCategory, category2));
-            when(categoryRepository.countKnowledgeSetsById(testCategory.getId()))
-                .thenReturn(5L);
-            when(categoryRepository.countKnowledgeSetsById(category2.getId()))
-                .thenReturn(3L);
+            when(countCache.categoryCounts())
+                .thenReturn(Map.of(testCategory.getId(), 5L, category2.getId(), 3L));
 
             // Act
             List<CategoryResponse> result = categoryService.getAllCategoriesWithCount();
@@ -0,0 +1,199 @@
+package io.github.suj1e.content.service;
+
+import io.github.suj1e.content.api.dto.BatchResponse;
+import io.github.suj1e.content.api.dto.GenerateRequest;
+import io.github.suj1e.content.api.dto.QuestionResponse;
+import io.github.suj1e.content.entity.KnowledgeSet;
+import io.github.suj1e.content.entity.Question;
+import io.github.suj1e.content.repository.KnowledgeSetRepository;
+import io.github.suj1e.content.repository.QuestionRepository;
+import io.github.suj1e.llm.api.client.LlmClient;
+import io.github.suj1e.llm.api.dto.BatchInfo;
+import io.github.suj1e.llm.api.dto.GenerateResponse;
+import io.github.suj1e.user.api.cache.AiConfigCache;
+import io.github.suj1e.user.api.dto.AiConfigResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * GenerateService 流式生成单元测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class GenerateServiceTest {
+
+    @Mock
+    private LlmClient llmClient;
+
+    @Mock
+    private AiConfigCache aiConfigCache;
+
+    @Mock
+    private KnowledgeSetRepository knowledgeSetRepository;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private BatchPrefetcher batchPrefetcher;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private GenerateService generateService;
+
+    private UUID userId;
+    private UUID knowledgeSetId;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(generateService, "microBatchSize", 2);
+        ReflectionTestUtils.setField(generateService, "microBatchWait", Duration.ofSeconds(10));
+        userId = UUID.randomUUID();
+        knowledgeSetId = UUID.randomUUID();
+        when(aiConfigCache.get(userId)).thenReturn(Optional.of(
+            new AiConfigResponse("gpt-4o-mini", 0.7, 2000, null, "zh", null, null)));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("流式生成并保存 - 逐题推送、按微批写入、结束时更新一次题目数量")
+    void generateStream_Save_PersistsInMicroBatches() {
+        // Arrange
+        when(knowledgeSetRepository.save(any(KnowledgeSet.class))).thenAnswer(invocation -> {
+            KnowledgeSet knowledgeSet = invocation.getArgument(0);
+            knowledgeSet.setId(knowledgeSetId);
+            return knowledgeSet;
+        });
+        when(llmClient.generateQuestionsStream(any())).thenReturn(Flux.just(question("Q1"), question("Q2"), question("Q3")));
+        stubSaveAllAssigningIds();
+
+        // Act
+        List<ServerSentEvent<Object>> events = generateService
+            .generateStream(userId, new GenerateRequest(UUID.randomUUID(), true))
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        // Assert
+        assertThat(events).extracting(ServerSentEvent::event)
+            .containsExactly("knowledge_set", "question", "question", "question", "done");
+        assertThat(events.getLast().data()).isEqualTo(new GenerateService.StreamDone(knowledgeSetId, 3));
+        assertThat(events).filteredOn(event -> "question".equals(event.event()))
+            .extracting(event -> ((QuestionResponse) event.data()).id())
+            .doesNotContainNull()
+            .doesNotHaveDuplicates();
+        verify(questionRepository, times(2)).saveAll(anyList());
+        verify(knowledgeSetRepository).addQuestionCount(knowledgeSetId, 3);
+    }
+
+    @Test
+    @DisplayName("流式生成不保存 - 仅转发题目")
+    void generateStream_NoSave_OnlyForwards() {
+        // Arrange
+        when(llmClient.generateQuestionsStream(any())).thenReturn(Flux.just(question("Q1"), question("Q2")));
+
+        // Act
+        List<ServerSentEvent<Object>> events = generateService
+            .generateStream(userId, new GenerateRequest(UUID.randomUUID(), false))
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        // Assert
+        assertThat(events).extracting(ServerSentEvent::event)
+            .containsExactly("question", "question", "done");
+        assertThat(events.getLast().data()).isEqualTo(new GenerateService.StreamDone(null, 2));
+        verifyNoInteractions(questionRepository, knowledgeSetRepository);
+    }
+
+    @Test
+    @DisplayName("批次流式生成中途失败 - 推送 error 事件并按已保存数量更新题库")
+    void getBatchStream_Failure_UpdatesSavedCount() {
+        // Arrange
+        KnowledgeSet knowledgeSet = new KnowledgeSet();
+        knowledgeSet.setId(knowledgeSetId);
+        knowledgeSet.setQuestionCount(10);
+        when(knowledgeSetRepository.findByIdAndUserId(knowledgeSetId, userId)).thenReturn(Optional.of(knowledgeSet));
+        when(llmClient.generateQuestionsStream(any())).thenReturn(Flux.concat(
+            Flux.just(question("Q1"), question("Q2")),
+            Flux.error(new IllegalStateException("llm down"))
+        ));
+        stubSaveAllAssigningIds();
+
+        // Act
+        List<ServerSentEvent<Object>> events = generateService
+            .getBatchStream(userId, knowledgeSetId, 2)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        // Assert
+        assertThat(events).extracting(ServerSentEvent::event)
+            .containsExactly("question", "question", "error");
+        verify(questionRepository).saveAll(anyList());
+        verify(knowledgeSetRepository).addQuestionCount(knowledgeSetId, 2);
+    }
+
+    @Test
+    @DisplayName("获取批次 - 事务外取用预取结果，事务内保存并预取下一批")
+    void getBatch_Prefetched_ClaimsOutsideTransactionAndPrefetchesNext() {
+        // Arrange
+        KnowledgeSet knowledgeSet = new KnowledgeSet();
+        knowledgeSet.setId(knowledgeSetId);
+        when(knowledgeSetRepository.findByIdAndUserId(knowledgeSetId, userId)).thenReturn(Optional.of(knowledgeSet));
+        when(batchPrefetcher.claim(knowledgeSetId, 2)).thenReturn(Optional.of(
+            new GenerateResponse(List.of(question("Q1")), new BatchInfo(2, 3, true))));
+        when(questionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        BatchResponse response = generateService.getBatch(userId, knowledgeSetId, 2);
+
+        // Assert
+        assertThat(response.questions()).hasSize(1);
+        var inOrder = inOrder(batchPrefetcher, transactionTemplate, knowledgeSetRepository);
+        inOrder.verify(batchPrefetcher).claim(knowledgeSetId, 2);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(knowledgeSetRepository).addQuestionCount(knowledgeSetId, 1);
+        verify(llmClient, never()).generateQuestions(any());
+        verify(batchPrefetcher).prefetch(eq(userId), eq(knowledgeSetId), eq(3), any());
+    }
+
+    /**
+     * 模拟 JPA 写入时分配 ID.
+     */
+    private void stubSaveAllAssigningIds() {
+        when(questionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Question> questions = invocation.getArgument(0);
+            questions.forEach(question -> question.setId(UUID.randomUUID()));
+            return questions;
+        });
+    }
+
+    private static GenerateResponse.QuestionDto question(String content) {
+        return new GenerateResponse.QuestionDto("choice", content, List.of("A", "B"), "A", null, null);
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.suj1e.content.service;
+
+import io.github.suj1e.content.event.KnowledgeSetChangedEvent;
+import io.github.suj1e.content.repository.CategoryRepository;
+import io.github.suj1e.content.repository.KnowledgeSetCount;
+import io.github.suj1e.content.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 题库数量缓存单元测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class KnowledgeSetCountCacheTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private KnowledgeSetCountCache countCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(countCache, "ttl", Duration.ofMinutes(1));
+        countCache.init();
+    }
+
+    @Test
+    @DisplayName("标签计数 - 单次聚合查询后命中缓存")
+    void tagCounts_LoadedOnceAndCached() {
+        // Arrange
+        UUID tagId = UUID.randomUUID();
+        when(tagRepository.countKnowledgeSetsGroupByTag()).thenReturn(List.of(count(tagId, 4)));
+
+        // Act
+        countCache.tagCounts();
+        var counts = countCache.tagCounts();
+
+        // Assert
+        assertThat(counts).containsEntry(tagId, 4L);
+        verify(tagRepository, times(1)).countKnowledgeSetsGroupByTag();
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    @DisplayName("题库变更后 - 重新加载计数")
+    void onKnowledgeSetChanged_Invalidates() {
+        // Arrange
+        UUID categoryId = UUID.randomUUID();
+        when(categoryRepository.countKnowledgeSetsGroupByCategory())
+            .thenReturn(List.of(count(categoryId, 1)))
+            .thenReturn(List.of(count(categoryId, 2)));
+        countCache.categoryCounts();
+
+        // Act
+        countCache.onKnowledgeSetChanged(new KnowledgeSetChangedEvent(UUID.randomUUID()));
+
+        // Assert
+        assertThat(countCache.categoryCounts()).containsEntry(categoryId, 2L);
+        verify(categoryRepository, times(2)).countKnowledgeSetsGroupByCategory();
+    }
+
+    private static KnowledgeSetCount count(UUID id, long count) {
+        return new KnowledgeSetCount() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.suj1e.content.service;
+
+import io.github.suj1e.common.exception.BusinessException;
+import io.github.suj1e.content.error.ContentErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 题库列表游标编解码单元测试.
+ */
+class LibraryCursorCodecTest {
+
+    private LibraryCursorCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new LibraryCursorCodec();
+        ReflectionTestUtils.setField(codec, "secret", "test-secret");
+        codec.init();
+    }
+
+    @Test
+    @DisplayName("编码后解码 - 还原创建时间和 ID")
+    void decode_EncodedToken_RoundTrips() {
+        // Arrange
+        Instant createdAt = Instant.parse("2026-03-01T08:30:15.123456Z");
+        UUID id = UUID.randomUUID();
+
+        // Act
+        LibraryCursorCodec.Cursor cursor = codec.decode(codec.encode(createdAt, id));
+
+        // Assert
+        assertThat(cursor).isEqualTo(new LibraryCursorCodec.Cursor(createdAt, id));
+    }
+
+    @Test
+    @DisplayName("篡改游标内容 - 签名校验失败")
+    void decode_TamperedPayload_Rejected() {
+        // Arrange
+        String token = codec.encode(Instant.now(), UUID.randomUUID());
+        String forged = codec.encode(Instant.EPOCH, UUID.randomUUID());
+        String tampered = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        // Act & Assert
+        assertThatThrownBy(() -> codec.decode(tampered))
+            .isInstanceOf(BusinessException.class)
+            .extracting("errorCode")
+            .isEqualTo(ContentErrorCode.INVALID_PAGE_TOKEN);
+    }
+
+    @Test
+    @DisplayName("格式错误的游标 - 抛出无效游标异常")
+    void decode_Malformed_Rejected() {
+        // Act & Assert
+        assertThatThrownBy(() -> codec.decode("not-a-token"))
+            .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> codec.decode("%%%.###"))
+            .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("未配置签名密钥 - 启动时失败")
+    void init_BlankSecret_FailsFast() {
+        // Arrange
+        LibraryCursorCodec unconfigured = new LibraryCursorCodec();
+        ReflectionTestUtils.setField(unconfigured, "secret", " ");
+
+        // Act & Assert
+        assertThatThrownBy(unconfigured::init)
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -8,6 +8,7 @@ import io.github.suj1e.content.dto.LibrarySummaryResponse;
 import io.github.suj1e.content.entity.Category;
 import io.github.suj1e.content.entity.KnowledgeSet;
 import io.github.suj1e.content.entity.Tag;
+import io.github.suj1e.content.event.KnowledgeSetChangedEvent;
 import io.github.suj1e.content.repository.KnowledgeSetRepository;
 import io.github.suj1e.common.response.CursorResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,12 +19,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -49,6 +54,15 @@ class LibraryServiceTest {
     @Mock
     private QuestionService questionService;
 
+    @Mock
+    private BatchPrefetcher batchPrefetcher;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LibraryCursorCodec cursorCodec;
+
     @InjectMocks
     private LibraryService libraryService;
 
@@ -81,10 +95,9 @@ class LibraryServiceTest {
             filter.setPage(1);
             filter.setPageSize(10);
 
-            Page<KnowledgeSet> page = new PageImpl<>(List.of(testKnowledgeSet));
-            when(knowledgeSetRepository.findByUserIdWithFilters(
-                eq(userId), any(), any(), any(), any(Pageable.class)
-            )).thenReturn(page);
+            when(knowledgeSetRepository.findByUserIdWithFiltersAfter(
+                eq(userId), any(), any(), any(), isNull(), isNull(), any(Pageable.class)
+            )).thenReturn(new SliceImpl<>(List.of(testKnowledgeSet)));
 
             // Act
             CursorResponse<LibrarySummaryResponse> result = libraryService.getLibraries(userId, filter);
@@ -105,20 +118,79 @@ class LibraryServiceTest {
             filter.setPageSize(10);
             filter.setCategoryId(categoryId);
 
-            Page<KnowledgeSet> page = new PageImpl<>(List.of(testKnowledgeSet));
-            when(knowledgeSetRepository.findByUserIdWithFilters(
-                eq(userId), eq(categoryId), any(), any(), any(Pageable.class)
-            )).thenReturn(page);
+            when(knowledgeSetRepository.findByUserIdWithFiltersAfter(
+                eq(userId), eq(categoryId), any(), any(), any(), any(), any(Pageable.class)
+            )).thenReturn(new SliceImpl<>(List.of(testKnowledgeSet)));
 
             // Act
             CursorResponse<LibrarySummaryResponse> result = libraryService.getLibraries(userId, filter);
 
             // Assert
             assertThat(result.data()).hasSize(1);
-            verify(knowledgeSetRepository).findByUserIdWithFilters(
-                eq(userId), eq(categoryId), any(), any(), any(Pageable.class)
+            verify(knowledgeSetRepository).findByUserIdWithFiltersAfter(
+                eq(userId), eq(categoryId), any(), any(), any(), any(), any(Pageable.class)
             );
         }
+
+        @Test
+        @DisplayName("should batch load category and tag names for the page")
+        void shouldBatchLoadCategoryAndTagNames() {
+            // Arrange
+            UUID categoryId = UUID.randomUUID();
+            testKnowledgeSet.setCategoryId(categoryId);
+            KnowledgeSet other = new KnowledgeSet();
+            other.setId(UUID.randomUUID());
+            other.setTitle("Other");
+            other.setCategoryId(categoryId);
+
+            LibraryFilterRequest filter = new LibraryFilterRequest();
+            filter.setPage(1);
+            filter.setPageSize(10);
+
+            when(knowledgeSetRepository.findByUserIdWithFiltersAfter(
+                eq(userId), any(), any(), any(), any(), any(), any(Pageable.class)
+            )).thenReturn(new SliceImpl<>(List.of(testKnowledgeSet, other)));
+            when(categoryService.getCategoryNames(Set.of(categoryId)))
+                .thenReturn(Map.of(categoryId, "Programming"));
+            when(tagService.getTagNamesByKnowledgeSetIds(List.of(knowledgeSetId, other.getId())))
+                .thenReturn(Map.of(knowledgeSetId, List.of("java", "spring")));
+
+            // Act
+            CursorResponse<LibrarySummaryResponse> result = libraryService.getLibraries(userId, filter);
+
+            // Assert
+            assertThat(result.data()).extracting(LibrarySummaryResponse::category)
+                .containsExactly("Programming", "Programming");
+            assertThat(result.data().get(0).tags()).containsExactly("java", "spring");
+            assertThat(result.data().get(1).tags()).isEmpty();
+            verify(categoryService, never()).getCategoryEntityById(any());
+        }
+
+        @Test
+        @DisplayName("should seek after the page token and return next token")
+        void shouldSeekAfterPageToken() {
+            // Arrange
+            Instant createdAt = Instant.parse("2026-01-01T00:00:00Z");
+            UUID cursorId = UUID.randomUUID();
+            testKnowledgeSet.setCreatedAt(createdAt.minusSeconds(60));
+
+            LibraryFilterRequest filter = new LibraryFilterRequest();
+            filter.setPageSize(1);
+            filter.setPageToken("token");
+
+            when(cursorCodec.decode("token")).thenReturn(new LibraryCursorCodec.Cursor(createdAt, cursorId));
+            when(knowledgeSetRepository.findByUserIdWithFiltersAfter(
+                eq(userId), any(), any(), any(), eq(createdAt), eq(cursorId), eq(PageRequest.ofSize(1))
+            )).thenReturn(new SliceImpl<>(List.of(testKnowledgeSet), PageRequest.ofSize(1), true));
+            when(cursorCodec.encode(testKnowledgeSet.getCreatedAt(), knowledgeSetId)).thenReturn("next");
+
+            // Act
+            CursorResponse<LibrarySummaryResponse> result = libraryService.getLibraries(userId, filter);
+
+            // Assert
+            assertThat(result.hasMore()).isTrue();
+            assertThat(result.nextToken()).isEqualTo("next");
+        }
     }
 
     @Nested
@@ -177,6 +249,27 @@ class LibraryServiceTest {
             verify(knowledgeSetRepository).save(any(KnowledgeSet.class));
         }
 
+        @Test
+        @DisplayName("should bump version and publish change event")
+        void shouldBumpVersionAndPublishEvent() {
+            // Arrange
+            LibraryRequest request = new LibraryRequest();
+            request.setTitle("Updated Title");
+            testKnowledgeSet.setVersion(3L);
+
+            when(knowledgeSetRepository.findByIdAndUserId(knowledgeSetId, userId))
+                .thenReturn(Optional.of(testKnowledgeSet));
+            when(knowledgeSetRepository.save(any(KnowledgeSet.class)))
+                .thenReturn(testKnowledgeSet);
+
+            // Act
+            libraryService.updateLibrary(knowledgeSetId, userId, request);
+
+            // Assert
+            assertThat(testKnowledgeSet.getVersion()).isEqualTo(4L);
+            verify(eventPublisher).publishEvent(new KnowledgeSetChangedEvent(knowledgeSetId));
+        }
+
         @Test
         @DisplayName("should update tags")
         void shouldUpdateTags() {
@@ -224,6 +317,7 @@ class LibraryServiceTest {
 
             // Assert
             verify(knowledgeSetRepository).delete(testKnowledgeSet);
+            verify(batchPrefetcher).cancel(knowledgeSetId);
         }
 
         @Test
@@ -0,0 +1,64 @@
+package io.github.suj1e.content.service;
+
+import io.github.suj1e.content.dto.QuestionResponse;
+import io.github.suj1e.content.entity.Question;
+import io.github.suj1e.content.repository.QuestionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * QuestionService 单元测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class QuestionServiceTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @InjectMocks
+    private QuestionService questionService;
+
+    @Nested
+    @DisplayName("getQuestionsByIds")
+    class GetQuestionsByIds {
+
+        @Test
+        @DisplayName("should load questions in one query and keep request order")
+        void shouldLoadInOneQueryAndKeepOrder() {
+            // Arrange
+            Question first = question("Q1");
+            Question second = question("Q2");
+            UUID missingId = UUID.randomUUID();
+            List<UUID> ids = List.of(second.getId(), missingId, first.getId(), second.getId());
+            when(questionRepository.findAllById(Set.of(first.getId(), second.getId(), missingId)))
+                .thenReturn(List.of(first, second));
+
+            // Act
+            List<QuestionResponse> result = questionService.getQuestionsByIds(ids);
+
+            // Assert
+            assertThat(result).extracting(QuestionResponse::content).containsExactly("Q2", "Q1");
+            verify(questionRepository, times(1)).findAllById(any());
+        }
+    }
+
+    private static Question question(String content) {
+        Question question = new Question();
+        question.setId(UUID.randomUUID());
+        question.setType(Question.Type.choice);
+        question.setContent(content);
+        return question;
+    }
+}
@@ -11,9 +11,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +31,9 @@ class TagServiceTest {
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private KnowledgeSetCountCache countCache;
+
     @InjectMocks
     private TagService tagService;
 
@@ -38,6 +44,9 @@ class TagServiceTest {
         testTag = new Tag();
         testTag.setId(java.util.UUID.randomUUID());
         testTag.setName("Java");
+
+        ReflectionTestUtils.setField(tagService, "cacheMaxSize", 100L);
+        tagService.init();
     }
 
     @Nested
@@ -93,10 +102,8 @@ class TagServiceTest {
 
             when(tagRepository.findAllByOrderByNameAsc())
                 .thenReturn(List.of(testTag, tag2));
-            when(tagRepository.countKnowledgeSetsByTagId(testTag.getId()))
-                .thenReturn(10L);
-            when(tagRepository.countKnowledgeSetsByTagId(tag2.getId()))
-                .thenReturn(5L);
+            when(countCache.tagCounts())
+                .thenReturn(Map.of(testTag.getId(), 10L, tag2.getId(), 5L));
 
             // Act
             List<TagResponse> result = tagService.getAllTagsWithCount();
@@ -108,6 +115,20 @@ class TagServiceTest {
             assertThat(result.get(1).name()).isEqualTo("Python");
             assertThat(result.get(1).count()).isEqualTo(5L);
         }
+
+        @Test
+        @DisplayName("should report zero for tags without knowledge sets")
+        void shouldReportZeroForUnusedTags() {
+            // Arrange
+            when(tagRepository.findAllByOrderByNameAsc()).thenReturn(List.of(testTag));
+            when(countCache.tagCounts()).thenReturn(Map.of());
+
+            // Act
+            List<TagResponse> result = tagService.getAllTagsWithCount();
+
+            // Assert
+            assertThat(result.get(0).count()).isZero();
+        }
     }
 
     @Nested
@@ -115,37 +136,66 @@ class TagServiceTest {
     class GetOrCreateTags {
 
         @Test
-        @DisplayName("should return existing tags")
+        @DisplayName("should return existing tags with one lookup")
         void shouldReturnExistingTags() {
             // Arrange
-            when(tagRepository.findByName("Java")).thenReturn(Optional.of(testTag));
+            when(tagRepository.findByNameIn(List.of("Java"))).thenReturn(List.of(testTag));
 
             // Act
             List<Tag> result = tagService.getOrCreateTags(List.of("Java"));
 
             // Assert
-            assertThat(result).hasSize(1);
-            assertThat(result.get(0).getName()).isEqualTo("Java");
+            assertThat(result).containsExactly(testTag);
+            verify(tagRepository, never()).insertIgnoringDuplicates(any());
+        }
+
+        @Test
+        @DisplayName("should batch insert missing tags and re-read them")
+        void shouldBatchInsertMissingTags() {
+            // Arrange
+            Tag react = tag("React");
+            Tag vue = tag("Vue");
+            when(tagRepository.findByNameIn(List.of("Java", "React", "Vue"))).thenReturn(List.of(testTag));
+            when(tagRepository.findForShareByNameIn(List.of("React", "Vue"))).thenReturn(List.of(vue, react));
+
+            // Act
+            List<Tag> result = tagService.getOrCreateTags(List.of("Java", "React", "Vue"));
+
+            // Assert
+            assertThat(result).containsExactly(testTag, react, vue);
+            verify(tagRepository).insertIgnoringDuplicates(List.of("React", "Vue"));
             verify(tagRepository, never()).save(any());
         }
 
         @Test
-        @DisplayName("should create new tags when not exists")
-        void shouldCreateNewTags() {
+        @DisplayName("should dedupe names case-insensitively")
+        void shouldDedupeNamesCaseInsensitively() {
+            // Arrange
+            when(tagRepository.findByNameIn(List.of("Java"))).thenReturn(List.of(testTag));
+
+            // Act
+            List<Tag> result = tagService.getOrCreateTags(List.of("Java", "java", "JAVA"));
+
+            // Assert
+            assertThat(result).containsExactly(testTag);
+        }
+
+        @Test
+        @DisplayName("should serve repeated names from cache as per-transaction references")
+        void shouldServeRepeatedNamesFromCache() {
             // Arrange
-            when(tagRepository.findByName("React")).thenReturn(Optional.empty());
-            when(tagRepository.save(any(Tag.class))).thenAnswer(inv -> {
-                Tag tag = inv.getArgument(0);
-                tag.setId(java.util.UUID.randomUUID());
-                return tag;
-            });
+            Tag reference = tag("Java");
+            when(tagRepository.findByNameIn(List.of("Java"))).thenReturn(List.of(testTag));
+            when(tagRepository.getReferenceById(testTag.getId())).thenReturn(reference);
+            tagService.getOrCreateTags(List.of("Java"));
 
             // Act
-            List<Tag> result = tagService.getOrCreateTags(List.of("React"));
+            List<Tag> result = tagService.getOrCreateTags(List.of("Java"));
 
             // Assert
-            assertThat(result).hasSize(1);
-            verify(tagRepository).save(any(Tag.class));
+            assertThat(result).containsExactly(reference);
+            assertThat(result.get(0)).isNotSameAs(testTag);
+            verify(tagRepository, times(1)).findByNameIn(any());
         }
 
         @Test
@@ -157,5 +207,61 @@ class TagServiceTest {
             // Assert
             assertThat(result).isEmpty();
         }
+
+        private Tag tag(String name) {
+            Tag tag = new Tag();
+            tag.setId(UUID.randomUUID());
+            tag.setName(name);
+            return tag;
+        }
+    }
+
+    @Nested
+    @DisplayName("getTagNamesByKnowledgeSetIds")
+    class GetTagNamesByKnowledgeSetIds {
+
+        @Test
+        @DisplayName("should group tag names by knowledge set in one query")
+        void shouldGroupTagNamesByKnowledgeSet() {
+            // Arrange
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            when(tagRepository.findTagNamesByKnowledgeSetIds(List.of(first, second))).thenReturn(List.of(
+                tagName(first, "Java"), tagName(first, "Spring"), tagName(second, "React")));
+
+            // Act
+            Map<UUID, List<String>> result = tagService.getTagNamesByKnowledgeSetIds(List.of(first, second));
+
+            // Assert
+            assertThat(result).containsOnly(
+                entry(first, List.of("Java", "Spring")),
+                entry(second, List.of("React")));
+            verify(tagRepository, times(1)).findTagNamesByKnowledgeSetIds(any());
+        }
+
+        @Test
+        @DisplayName("should skip query for empty input")
+        void shouldSkipQueryForEmptyInput() {
+            // Act
+            Map<UUID, List<String>> result = tagService.getTagNamesByKnowledgeSetIds(List.of());
+
+            // Assert
+            assertThat(result).isEmpty();
+            verifyNoInteractions(tagRepository);
+        }
+
+        private TagRepository.KnowledgeSetTagName tagName(UUID knowledgeSetId, String name) {
+            return new TagRepository.KnowledgeSetTagName() {
+                @Override
+                public UUID getKnowledgeSetId() {
+                    return knowledgeSetId;
+                }
+
+                @Override
+                public String getName() {
+                    return name;
+                }
+            };
+        }
     }
 }
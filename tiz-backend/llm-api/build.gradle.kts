@@ -52,9 +52,24 @@ dependencies {
     // WebFlux for reactive client
     api(libs.spring.boot.starter.webflux)
 
+    // GradingCache (Caffeine 本地缓存 + Redis)，使用方自带 Redis 和 Micrometer
+    api(libs.caffeine)
+    compileOnly(libs.spring.boot.starter.data.redis)
+    compileOnly(libs.micrometer.core)
+
     // Lombok
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
+
+    // Testing
+    testImplementation(libs.spring.boot.starter.test)
+    testImplementation(libs.spring.boot.starter.data.redis)
+    testImplementation(libs.micrometer.core)
+    testRuntimeOnly(libs.junit.platform.launcher)
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
 }
 
 tasks.withType<JavaCompile> {
@@ -16,9 +16,18 @@ public interface LlmClient {
     @PostExchange("/internal/llm/v1/chat/stream")
     Flux<ChatEvent> chatStream(@RequestBody ChatRequest request);
 
+    @PostExchange("/internal/llm/v1/chat/summarize")
+    ApiResponse<SummarizeResponse> summarizeChat(@RequestBody SummarizeRequest request);
+
     @PostExchange("/internal/llm/v1/generate")
     ApiResponse<GenerateResponse> generateQuestions(@RequestBody GenerateRequest request);
 
+    @PostExchange(value = "/internal/llm/v1/generate/stream", accept = "application/x-ndjson")
+    Flux<GenerateResponse.QuestionDto> generateQuestionsStream(@RequestBody GenerateRequest request);
+
     @PostExchange("/internal/llm/v1/grade")
     ApiResponse<GradeResponse> gradeAnswer(@RequestBody GradeRequest request);
+
+    @PostExchange("/internal/llm/v1/grade/batch")
+    ApiResponse<BatchGradeResponse> gradeAnswers(@RequestBody BatchGradeRequest request);
 }
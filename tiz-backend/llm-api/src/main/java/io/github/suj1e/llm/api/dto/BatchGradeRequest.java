@@ -0,0 +1,25 @@
+package io.github.suj1e.llm.api.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 批量评分请求.
+ * 同一批次内的答案共用一份 AI 配置.
+ */
+public record BatchGradeRequest(
+    @NotEmpty @Valid List<Item> items,
+    @NotNull AiConfig aiConfig
+) {
+    public record Item(
+        @NotNull UUID questionId,
+        String questionContent,
+        String correctAnswer,
+        String rubric,
+        String userAnswer
+    ) {}
+}
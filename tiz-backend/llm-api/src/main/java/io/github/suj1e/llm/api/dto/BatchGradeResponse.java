@@ -0,0 +1,21 @@
+package io.github.suj1e.llm.api.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 批量评分响应.
+ * 单题失败不影响整批，失败项的 error 非空且评分字段为空.
+ */
+public record BatchGradeResponse(
+    List<Item> results
+) {
+    public record Item(
+        UUID questionId,
+        Integer score,
+        Integer maxScore,
+        Boolean correct,
+        String feedback,
+        String error
+    ) {}
+}
@@ -0,0 +1,18 @@
+package io.github.suj1e.llm.api.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 对话摘要请求.
+ * 将 messages 合并进 previousSummary，生成新的滚动摘要.
+ */
+public record SummarizeRequest(
+    UUID sessionId,
+    String previousSummary,
+    @NotEmpty List<ChatMessage> messages,
+    @NotNull AiConfig aiConfig
+) {}
@@ -0,0 +1,8 @@
+package io.github.suj1e.llm.api.dto;
+
+/**
+ * 对话摘要响应.
+ */
+public record SummarizeResponse(
+    String summary
+) {}
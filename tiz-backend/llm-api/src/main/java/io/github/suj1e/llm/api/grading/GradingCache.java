@@ -0,0 +1,152 @@
+package io.github.suj1e.llm.api.grading;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import tools.jackson.databind.ObjectMapper;
+import io.github.suj1e.llm.api.dto.AiConfig;
+import io.github.suj1e.llm.api.dto.GradeResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 简答题评分结果缓存.
+ * 以 (题目, 参考答案, 评分标准, 标准化后的用户答案, 模型, 语言) 的 SHA-256 为键，
+ * 进程内 Caffeine 缓存在前，Redis 缓存在后，Redis 不可用时仅降级为本地缓存.
+ * 由 {@link GradingCacheConfiguration} 创建.
+ */
+@Slf4j
+public class GradingCache {
+
+    private static final String KEY_PREFIX = "grading:result:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration redisTtl;
+
+    private final Cache<String, GradeResponse> localCache;
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    /**
+     * @param enabled      是否启用缓存
+     * @param localMaxSize 本地缓存最大条目数
+     * @param localTtl     本地缓存时间
+     * @param redisTtl     Redis 缓存时间
+     */
+    public GradingCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                        boolean enabled, long localMaxSize, Duration localTtl, Duration redisTtl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.redisTtl = redisTtl;
+        this.localCache = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(localTtl)
+            .build();
+        this.localHits = counter("hit", "local");
+        this.redisHits = counter("hit", "redis");
+        this.misses = counter("miss", "none");
+    }
+
+    /**
+     * 计算缓存键.
+     */
+    public String key(UUID questionId, String referenceAnswer, String rubric,
+                      String userAnswer, AiConfig aiConfig) {
+        String material = String.join("\u0000",
+            String.valueOf(questionId),
+            String.valueOf(referenceAnswer),
+            String.valueOf(rubric),
+            normalize(userAnswer),
+            aiConfig != null ? String.valueOf(aiConfig.customApiUrl()) : "",
+            aiConfig != null ? String.valueOf(aiConfig.preferredModel()) : "",
+            aiConfig != null ? String.valueOf(aiConfig.responseLanguage()) : ""
+        );
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(material.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 查询缓存.
+     */
+    public Optional<GradeResponse> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        GradeResponse cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            localHits.increment();
+            return Optional.of(cached);
+        }
+
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            if (json != null) {
+                GradeResponse grade = objectMapper.readValue(json, GradeResponse.class);
+                localCache.put(key, grade);
+                redisHits.increment();
+                return Optional.of(grade);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read grading cache: {}", e.getMessage());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * 写入缓存.
+     */
+    public void put(String key, GradeResponse grade) {
+        if (!enabled || grade == null) {
+            return;
+        }
+
+        localCache.put(key, grade);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key,
+                objectMapper.writeValueAsString(grade), redisTtl);
+        } catch (Exception e) {
+            log.warn("Failed to write grading cache: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 标准化用户答案: 去除首尾空白、合并连续空白并转为小写.
+     */
+    private String normalize(String answer) {
+        if (answer == null) {
+            return "";
+        }
+        return answer.strip().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private Counter counter(String result, String tier) {
+        return Counter.builder("grading.cache.requests")
+            .description("Grading cache lookups")
+            .tag("result", result)
+            .tag("tier", tier)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.suj1e.llm.api.grading;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+
+/**
+ * 评分结果缓存配置.
+ * 不参与组件扫描，评分服务在提供 {@code LlmClient} 的配置类上通过 {@code @Import} 启用.
+ */
+public class GradingCacheConfiguration {
+
+    @Value("${grading.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${grading.cache.local-max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${grading.cache.local-ttl:10m}")
+    private Duration localTtl;
+
+    @Value("${grading.cache.redis-ttl:24h}")
+    private Duration redisTtl;
+
+    @Bean
+    public GradingCache gradingCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        return new GradingCache(redisTemplate, objectMapper, meterRegistry,
+            enabled, localMaxSize, localTtl, redisTtl);
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.suj1e.llm.api.grading;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import io.github.suj1e.llm.api.dto.AiConfig;
+import io.github.suj1e.llm.api.dto.GradeResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 评分缓存测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class GradingCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private GradingCache gradingCache;
+    private AiConfig aiConfig;
+
+    @BeforeEach
+    void setUp() {
+        gradingCache = new GradingCache(redisTemplate, objectMapper, meterRegistry,
+            true, 100L, Duration.ofMinutes(1), Duration.ofHours(1));
+
+        aiConfig = new AiConfig("gpt-4o-mini", 0.7, 2000, "prompt", "en",
+            "https://api.openai.com/v1", "key");
+    }
+
+    @Test
+    @DisplayName("标准化后相同的答案应得到相同的键")
+    void shouldProduceSameKeyForNormalizedAnswers() {
+        // Given
+        UUID questionId = UUID.randomUUID();
+
+        // When
+        String first = gradingCache.key(questionId, "ref", "rubric", "  Garbage   Collection ", aiConfig);
+        String second = gradingCache.key(questionId, "ref", "rubric", "garbage collection", aiConfig);
+        String otherModel = gradingCache.key(questionId, "ref", "rubric", "garbage collection",
+            new AiConfig("gpt-4o", 0.7, 2000, "prompt", "en", "https://api.openai.com/v1", "key"));
+
+        // Then
+        assertEquals(first, second);
+        assertNotEquals(first, otherModel);
+    }
+
+    @Test
+    @DisplayName("本地未命中时应回源 Redis 并回填本地缓存")
+    void shouldFallBackToRedisAndPopulateLocal() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("grading:result:k"))
+            .thenReturn("{\"score\":1,\"maxScore\":1,\"correct\":true,\"feedback\":\"ok\"}");
+
+        // When
+        Optional<GradeResponse> first = gradingCache.get("k");
+        Optional<GradeResponse> second = gradingCache.get("k");
+
+        // Then
+        assertEquals(Optional.of(new GradeResponse(1, 1, true, "ok")), first);
+        assertEquals(first, second);
+        verify(valueOperations, times(1)).get(anyString());
+        assertEquals(1.0, hits("redis"));
+        assertEquals(1.0, hits("local"));
+    }
+
+    @Test
+    @DisplayName("Redis 不可用时应仅使用本地缓存")
+    void shouldDegradeToLocalWhenRedisUnavailable() {
+        // Given
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+        GradeResponse grade = new GradeResponse(0, 1, false, "no");
+
+        // When
+        gradingCache.put("k", grade);
+        Optional<GradeResponse> cached = gradingCache.get("k");
+        Optional<GradeResponse> missing = gradingCache.get("other");
+
+        // Then
+        assertEquals(Optional.of(grade), cached);
+        assertTrue(missing.isEmpty());
+        assertEquals(1.0, meterRegistry.get("grading.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    private double hits(String tier) {
+        return meterRegistry.get("grading.cache.requests")
+            .tag("result", "hit").tag("tier", tier).counter().count();
+    }
+}
@@ -1,10 +1,14 @@
 package io.github.suj1e.practice.config;
 
+import io.github.suj1e.content.api.cache.QuestionSetCacheConfiguration;
+import io.github.suj1e.content.api.client.ConditionalGetFilter;
 import io.github.suj1e.content.api.client.ContentClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.support.WebClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
@@ -13,11 +17,15 @@ import org.springframework.web.service.invoker.HttpServiceProxyFactory;
  * Content Client HTTP Exchange 配置.
  */
 @Configuration
+@Import(QuestionSetCacheConfiguration.class)
 public class ContentClientConfig {
 
     @Value("${content.service.url:http://content-service:8103}")
     private String contentServiceUrl;
 
+    @Value("${content.http-cache.max-size:16MB}")
+    private DataSize httpCacheMaxSize;
+
     /**
      * LoadBalanced WebClient.Builder for service discovery.
      */
@@ -28,12 +36,13 @@ public class ContentClientConfig {
     }
 
     /**
-     * Content 服务客户端 (使用服务发现).
+     * Content 服务客户端 (使用服务发现，GET 请求携带 If-None-Match 复用上次响应).
      */
     @Bean
     public ContentClient contentClient(WebClient.Builder loadBalancedWebClientBuilder) {
-        WebClient webClient = loadBalancedWebClientBuilder
+        WebClient webClient = loadBalancedWebClientBuilder.clone()
             .baseUrl(contentServiceUrl)
+            .filter(new ConditionalGetFilter(httpCacheMaxSize.toBytes()))
             .build();
 
         HttpServiceProxyFactory factory = HttpServiceProxyFactory
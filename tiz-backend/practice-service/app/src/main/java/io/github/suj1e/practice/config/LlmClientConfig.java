@@ -1,9 +1,11 @@
 package io.github.suj1e.practice.config;
 
 import io.github.suj1e.llm.api.client.LlmClient;
+import io.github.suj1e.llm.api.grading.GradingCacheConfiguration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.support.WebClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
@@ -12,6 +14,7 @@ import org.springframework.web.service.invoker.HttpServiceProxyFactory;
  * LLM Client HTTP Exchange 配置.
  */
 @Configuration
+@Import(GradingCacheConfiguration.class)
 public class LlmClientConfig {
 
     @Value("${llm.service.url}")
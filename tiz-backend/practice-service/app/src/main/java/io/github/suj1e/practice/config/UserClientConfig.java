@@ -1,10 +1,12 @@
 package io.github.suj1e.practice.config;
 
+import io.github.suj1e.user.api.cache.AiConfigCacheConfiguration;
 import io.github.suj1e.user.api.client.UserClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.support.WebClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
@@ -13,6 +15,7 @@ import org.springframework.web.service.invoker.HttpServiceProxyFactory;
  * User Client HTTP Exchange 配置.
  */
 @Configuration
+@Import(AiConfigCacheConfiguration.class)
 public class UserClientConfig {
 
     @Value("${user.service.url:http://user-service:8107}")
@@ -6,17 +6,19 @@ import io.github.suj1e.llm.api.client.LlmClient;
 import io.github.suj1e.llm.api.dto.AiConfig;
 import io.github.suj1e.llm.api.dto.GradeResponse;
 import io.github.suj1e.llm.api.dto.GradeRequest;
-import io.github.suj1e.user.api.client.UserClient;
+import io.github.suj1e.user.api.cache.AiConfigCache;
 import io.github.suj1e.user.api.dto.AiConfigResponse;
 import io.github.suj1e.common.response.ApiResponse;
 import io.github.suj1e.practice.error.PracticeErrorCode;
 import io.github.suj1e.practice.exception.GradingException;
+import io.github.suj1e.llm.api.grading.GradingCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -33,7 +35,8 @@ public class GradingService {
     private static final String ESSAY_TYPE = "essay";
 
     private final LlmClient llmClient;
-    private final UserClient userClient;
+    private final AiConfigCache aiConfigCache;
+    private final GradingCache gradingCache;
 
     /**
      * 评分结果.
@@ -91,12 +94,19 @@ public class GradingService {
 
     /**
      * 评分简答题.
-     * 调用 LLM 服务进行 AI 评分.
+     * 相同题目与答案优先使用评分缓存，未命中时调用 LLM 服务进行 AI 评分.
      */
     private GradingResult gradeEssay(QuestionResponse question, String userAnswer, UUID userId) {
         // Fetch AI config from user service
         AiConfig aiConfig = fetchAiConfig(userId);
 
+        String cacheKey = gradingCache.key(question.id(), question.answer(),
+            question.rubric(), userAnswer, aiConfig);
+        Optional<GradeResponse> cached = gradingCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return toResult(cached.get());
+        }
+
         try {
             GradeRequest request = new GradeRequest(
                 question.id(),
@@ -115,15 +125,8 @@ public class GradingService {
                 return GradingResult.incorrect(MAX_SCORE);
             }
 
-            BigDecimal score = data.score() != null
-                ? new BigDecimal(data.score().toString())
-                : BigDecimal.ZERO;
-            BigDecimal maxScore = data.maxScore() != null
-                ? new BigDecimal(data.maxScore().toString())
-                : MAX_SCORE;
-            boolean correct = Boolean.TRUE.equals(data.correct());
-
-            return GradingResult.withFeedback(correct, score, maxScore, data.feedback());
+            gradingCache.put(cacheKey, data);
+            return toResult(data);
 
         } catch (Exception e) {
             log.error("Failed to grade essay question {}: {}", question.id(), e.getMessage(), e);
@@ -132,6 +135,21 @@ public class GradingService {
         }
     }
 
+    /**
+     * 转换 LLM 评分响应.
+     */
+    private GradingResult toResult(GradeResponse data) {
+        BigDecimal score = data.score() != null
+            ? new BigDecimal(data.score().toString())
+            : BigDecimal.ZERO;
+        BigDecimal maxScore = data.maxScore() != null
+            ? new BigDecimal(data.maxScore().toString())
+            : MAX_SCORE;
+        boolean correct = Boolean.TRUE.equals(data.correct());
+
+        return GradingResult.withFeedback(correct, score, maxScore, data.feedback());
+    }
+
     /**
      * Fetch AI configuration for the user.
      *
@@ -141,8 +159,7 @@ public class GradingService {
      */
     private AiConfig fetchAiConfig(UUID userId) {
         try {
-            ApiResponse<AiConfigResponse> response = userClient.getAiConfig(userId);
-            AiConfigResponse config = response.data();
+            AiConfigResponse config = aiConfigCache.get(userId).orElse(null);
 
             if (config == null) {
                 log.error("AI config not found for user {}", userId);
@@ -1,8 +1,11 @@
 package io.github.suj1e.practice.service;
 
+import io.github.suj1e.content.api.cache.QuestionSetCache;
 import io.github.suj1e.content.api.client.ContentClient;
 import io.github.suj1e.content.api.dto.KnowledgeSetResponse;
+import io.github.suj1e.content.api.dto.QuestionBatchGetRequest;
 import io.github.suj1e.content.api.dto.QuestionResponse;
+import io.github.suj1e.content.api.dto.QuestionSetSnapshot;
 import io.github.suj1e.common.response.ApiResponse;
 import io.github.suj1e.practice.dto.*;
 import io.github.suj1e.practice.entity.PracticeAnswer;
@@ -21,7 +24,9 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -36,6 +41,7 @@ public class PracticeService {
     private final PracticeSessionRepository sessionRepository;
     private final PracticeAnswerRepository answerRepository;
     private final ContentClient contentClient;
+    private final QuestionSetCache questionSetCache;
     private final GradingService gradingService;
 
     /**
@@ -54,19 +60,12 @@ public class PracticeService {
             throw new PracticeException(PracticeErrorCode.SESSION_IN_PROGRESS_EXISTS);
         }
 
-        // 获取题库信息
-        ApiResponse<KnowledgeSetResponse> ksResponse =
-            contentClient.getKnowledgeSet(knowledgeSetId);
-        if (ksResponse.data() == null) {
-            throw new PracticeException(PracticeErrorCode.SESSION_NOT_FOUND,
-                "Knowledge set not found: " + knowledgeSetId);
-        }
-        KnowledgeSetResponse knowledgeSet = ksResponse.data();
-
-        // 获取题目列表
-        ApiResponse<List<QuestionResponse>> questionsResponse =
-            contentClient.getQuestions(knowledgeSetId, null);
-        List<QuestionResponse> questions = questionsResponse.data();
+        // 获取题库快照 (题库信息及题目列表)
+        QuestionSetSnapshot snapshot = questionSetCache.get(knowledgeSetId)
+            .orElseThrow(() -> new PracticeException(PracticeErrorCode.SESSION_NOT_FOUND,
+                "Knowledge set not found: " + knowledgeSetId));
+        KnowledgeSetResponse knowledgeSet = snapshot.knowledgeSet();
+        List<QuestionResponse> questions = snapshot.questions();
         if (questions == null || questions.isEmpty()) {
             throw new PracticeException(PracticeErrorCode.SESSION_NOT_FOUND,
                 "No questions found in knowledge set: " + knowledgeSetId);
@@ -129,14 +128,11 @@ public class PracticeService {
             throw new PracticeException(PracticeErrorCode.SESSION_ALREADY_COMPLETED);
         }
 
-        // 获取题目信息
-        ApiResponse<QuestionResponse> questionResponse =
-            contentClient.getQuestion(request.questionId());
-        if (questionResponse.data() == null) {
-            throw new PracticeException(PracticeErrorCode.ANSWER_NOT_FOUND,
-                "Question not found: " + request.questionId());
-        }
-        QuestionResponse question = questionResponse.data();
+        // 获取题目信息 (题库快照缓存)
+        QuestionResponse question = questionSetCache.get(session.getKnowledgeSetId())
+            .flatMap(snapshot -> snapshot.findQuestion(request.questionId()))
+            .orElseThrow(() -> new PracticeException(PracticeErrorCode.ANSWER_NOT_FOUND,
+                "Question not found: " + request.questionId()));
 
         // 评分
         GradingService.GradingResult result = gradingService.grade(question, request.answer(), userId);
@@ -255,12 +251,12 @@ public class PracticeService {
         // 获取答案列表
         List<PracticeAnswer> answers = answerRepository.findBySessionIdOrderByAnsweredAtAsc(sessionId);
 
-        // 获取题目详情用于构建响应
+        // 批量获取题目详情用于构建响应
+        Map<UUID, QuestionResponse> questionsById = fetchQuestions(answers);
+
         List<SessionResponse.AnswerResponse> answerResponses = new ArrayList<>();
         for (PracticeAnswer answer : answers) {
-            ApiResponse<QuestionResponse> qResponse =
-                contentClient.getQuestion(answer.getQuestionId());
-            QuestionResponse question = qResponse.data();
+            QuestionResponse question = questionsById.get(answer.getQuestionId());
 
             answerResponses.add(new SessionResponse.AnswerResponse(
                 answer.getQuestionId(),
@@ -291,6 +287,30 @@ public class PracticeService {
         );
     }
 
+    /**
+     * 批量获取答案对应的题目，按 {@link QuestionBatchGetRequest#MAX_IDS} 分批请求.
+     */
+    private Map<UUID, QuestionResponse> fetchQuestions(List<PracticeAnswer> answers) {
+        if (answers.isEmpty()) {
+            return Map.of();
+        }
+        List<UUID> questionIds = answers.stream()
+            .map(PracticeAnswer::getQuestionId)
+            .distinct()
+            .toList();
+        Map<UUID, QuestionResponse> questions = new HashMap<>();
+        for (int from = 0; from < questionIds.size(); from += QuestionBatchGetRequest.MAX_IDS) {
+            List<UUID> chunk = questionIds.subList(from,
+                Math.min(from + QuestionBatchGetRequest.MAX_IDS, questionIds.size()));
+            List<QuestionResponse> batch =
+                contentClient.getQuestionsByIds(new QuestionBatchGetRequest(chunk)).data();
+            if (batch != null) {
+                batch.forEach(question -> questions.putIfAbsent(question.id(), question));
+            }
+        }
+        return questions;
+    }
+
     /**
      * 获取会话并验证权限.
      */
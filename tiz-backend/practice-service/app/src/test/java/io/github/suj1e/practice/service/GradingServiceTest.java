@@ -5,10 +5,11 @@ import io.github.suj1e.content.api.dto.QuestionResponse;
 import io.github.suj1e.llm.api.client.LlmClient;
 import io.github.suj1e.llm.api.dto.GradeResponse;
 import io.github.suj1e.llm.api.dto.GradeRequest;
-import io.github.suj1e.user.api.client.UserClient;
+import io.github.suj1e.user.api.cache.AiConfigCache;
 import io.github.suj1e.user.api.dto.AiConfigResponse;
 import io.github.suj1e.common.response.ApiResponse;
 import io.github.suj1e.practice.exception.GradingException;
+import io.github.suj1e.llm.api.grading.GradingCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -20,10 +21,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -36,7 +39,10 @@ class GradingServiceTest {
     private LlmClient llmClient;
 
     @Mock
-    private UserClient userClient;
+    private AiConfigCache aiConfigCache;
+
+    @Mock
+    private GradingCache gradingCache;
 
     @InjectMocks
     private GradingService gradingService;
@@ -143,8 +149,8 @@ class GradingServiceTest {
                 "gpt-4o-mini", 0.7, 2000, "You are a helpful assistant",
                 "en", "https://api.openai.com/v1", "test-key"
             );
-            when(userClient.getAiConfig(userId))
-                .thenReturn(ApiResponse.of(aiConfigResponse));
+            when(aiConfigCache.get(userId))
+                .thenReturn(Optional.of(aiConfigResponse));
 
             GradeResponse llmResponse = new GradeResponse(
                 8, 10, true, "Good explanation but could be more detailed"
@@ -163,8 +169,40 @@ class GradingServiceTest {
             assertEquals(new BigDecimal("10"), result.maxScore());
             assertEquals("Good explanation but could be more detailed", result.feedback());
 
-            verify(userClient).getAiConfig(userId);
+            verify(aiConfigCache).get(userId);
             verify(llmClient).gradeAnswer(any(GradeRequest.class));
+            verify(gradingCache).put(any(), eq(llmResponse));
+        }
+
+        @Test
+        @DisplayName("Should return cached result without calling LLM service")
+        void shouldReturnCachedResultWithoutCallingLlm() {
+            // Given
+            QuestionResponse question = new QuestionResponse(
+                questionId, "essay", "Explain dependency injection", null,
+                "Dependency injection is...", "Key concepts: IoC, DI types", "Rubric content"
+            );
+
+            AiConfigResponse aiConfigResponse = new AiConfigResponse(
+                "gpt-4o-mini", 0.7, 2000, "You are a helpful assistant",
+                "en", "https://api.openai.com/v1", "test-key"
+            );
+            when(aiConfigCache.get(userId))
+                .thenReturn(Optional.of(aiConfigResponse));
+            when(gradingCache.key(eq(questionId), any(), any(), any(), any())).thenReturn("key");
+            when(gradingCache.get("key"))
+                .thenReturn(Optional.of(new GradeResponse(7, 10, true, "Cached feedback")));
+
+            // When
+            GradingService.GradingResult result = gradingService.grade(
+                question, "DI is a design pattern...", userId
+            );
+
+            // Then
+            assertTrue(result.correct());
+            assertEquals(new BigDecimal("7"), result.score());
+            assertEquals("Cached feedback", result.feedback());
+            verifyNoInteractions(llmClient);
         }
 
         @Test
@@ -176,8 +214,8 @@ class GradingServiceTest {
                 "Spring Boot is...", "Auto-configuration", "Rubric"
             );
 
-            when(userClient.getAiConfig(userId))
-                .thenReturn(new ApiResponse<>(null));
+            when(aiConfigCache.get(userId))
+                .thenReturn(Optional.empty());
 
             // When & Then
             GradingException exception = assertThrows(GradingException.class,
@@ -199,8 +237,8 @@ class GradingServiceTest {
                 "gpt-4o-mini", 0.7, 2000, "You are a helpful assistant",
                 "en", "https://api.openai.com/v1", "test-key"
             );
-            when(userClient.getAiConfig(userId))
-                .thenReturn(ApiResponse.of(aiConfigResponse));
+            when(aiConfigCache.get(userId))
+                .thenReturn(Optional.of(aiConfigResponse));
 
             when(llmClient.gradeAnswer(any(GradeRequest.class)))
                 .thenReturn(new ApiResponse<>(null));
@@ -228,8 +266,8 @@ class GradingServiceTest {
                 "gpt-4o-mini", 0.7, 2000, "You are a helpful assistant",
                 "en", "https://api.openai.com/v1", "test-key"
             );
-            when(userClient.getAiConfig(userId))
-                .thenReturn(ApiResponse.of(aiConfigResponse));
+            when(aiConfigCache.get(userId))
+                .thenReturn(Optional.of(aiConfigResponse));
 
             when(llmClient.gradeAnswer(any(GradeRequest.class)))
                 .thenThrow(new RuntimeException("LLM service unavailable"));
@@ -1,14 +1,19 @@
 package io.github.suj1e.practice.service;
 
+import io.github.suj1e.content.api.cache.QuestionSetCache;
 import io.github.suj1e.content.api.client.ContentClient;
 import io.github.suj1e.content.api.dto.KnowledgeSetResponse;
+import io.github.suj1e.content.api.dto.QuestionBatchGetRequest;
 import io.github.suj1e.content.api.dto.QuestionResponse;
+import io.github.suj1e.content.api.dto.QuestionSetSnapshot;
 import io.github.suj1e.llm.api.client.LlmClient;
 import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.practice.dto.SessionResponse;
 import io.github.suj1e.practice.dto.StartPracticeRequest;
 import io.github.suj1e.practice.dto.StartPracticeResponse;
 import io.github.suj1e.practice.dto.SubmitAnswerRequest;
 import io.github.suj1e.practice.dto.SubmitAnswerResponse;
+import io.github.suj1e.practice.entity.PracticeAnswer;
 import io.github.suj1e.practice.entity.PracticeSession;
 import io.github.suj1e.practice.entity.SessionStatus;
 import io.github.suj1e.practice.error.PracticeErrorCode;
@@ -20,11 +25,13 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -48,6 +55,9 @@ class PracticeServiceTest {
     @Mock
     private ContentClient contentClient;
 
+    @Mock
+    private QuestionSetCache questionSetCache;
+
     @Mock
     private LlmClient llmClient;
 
@@ -85,17 +95,14 @@ class PracticeServiceTest {
             KnowledgeSetResponse ksResponse = new KnowledgeSetResponse(
                 knowledgeSetId, "Test Knowledge Set", "Category", List.of("tag1"), "medium", 2
             );
-            when(contentClient.getKnowledgeSet(knowledgeSetId))
-                .thenReturn(ApiResponse.of(ksResponse));
-
             List<QuestionResponse> questions = List.of(
                 new QuestionResponse(
                     questionId, "choice", "What is 1+1?", List.of("1", "2", "3", "4"),
                     "2", "Basic math", null
                 )
             );
-            when(contentClient.getQuestions(knowledgeSetId, null))
-                .thenReturn(ApiResponse.of(questions));
+            when(questionSetCache.get(knowledgeSetId))
+                .thenReturn(Optional.of(new QuestionSetSnapshot(knowledgeSetId, 1L, ksResponse, questions)));
 
             PracticeSession savedSession = new PracticeSession();
             savedSession.setId(sessionId);
@@ -143,8 +150,7 @@ class PracticeServiceTest {
             when(sessionRepository.existsByUserIdAndKnowledgeSetIdAndStatus(
                 userId, knowledgeSetId, SessionStatus.IN_PROGRESS))
                 .thenReturn(false);
-            when(contentClient.getKnowledgeSet(knowledgeSetId))
-                .thenReturn(new ApiResponse<>(null));
+            when(questionSetCache.get(knowledgeSetId)).thenReturn(Optional.empty());
 
             // When & Then
             PracticeException exception = assertThrows(PracticeException.class,
@@ -164,10 +170,8 @@ class PracticeServiceTest {
             KnowledgeSetResponse ksResponse = new KnowledgeSetResponse(
                 knowledgeSetId, "Test Knowledge Set", "Category", List.of("tag1"), "medium", 0
             );
-            when(contentClient.getKnowledgeSet(knowledgeSetId))
-                .thenReturn(ApiResponse.of(ksResponse));
-            when(contentClient.getQuestions(knowledgeSetId, null))
-                .thenReturn(ApiResponse.of(List.of()));
+            when(questionSetCache.get(knowledgeSetId))
+                .thenReturn(Optional.of(new QuestionSetSnapshot(knowledgeSetId, 1L, ksResponse, List.of())));
 
             // When & Then
             PracticeException exception = assertThrows(PracticeException.class,
@@ -192,7 +196,8 @@ class PracticeServiceTest {
                 questionId, "choice", "What is 1+1?", List.of("1", "2", "3", "4"),
                 "2", "Basic math", null
             );
-            when(contentClient.getQuestion(questionId)).thenReturn(ApiResponse.of(question));
+            when(questionSetCache.get(knowledgeSetId))
+                .thenReturn(Optional.of(new QuestionSetSnapshot(knowledgeSetId, 1L, null, List.of(question))));
 
             GradingService.GradingResult gradingResult = GradingService.GradingResult.correct(
                 BigDecimal.TEN, BigDecimal.TEN
@@ -226,7 +231,8 @@ class PracticeServiceTest {
                 questionId, "essay", "Explain Spring Boot", null,
                 "Spring Boot is...", "It provides auto-configuration", "Key points: 1, 2, 3"
             );
-            when(contentClient.getQuestion(questionId)).thenReturn(ApiResponse.of(question));
+            when(questionSetCache.get(knowledgeSetId))
+                .thenReturn(Optional.of(new QuestionSetSnapshot(knowledgeSetId, 1L, null, List.of(question))));
 
             GradingService.GradingResult gradingResult = GradingService.GradingResult.withFeedback(
                 true, new BigDecimal("8"), BigDecimal.TEN, "Good explanation but missing some details"
@@ -309,4 +315,86 @@ class PracticeServiceTest {
             return session;
         }
     }
+
+    @Nested
+    @DisplayName("Get Session Tests")
+    class GetSessionTests {
+
+        @Test
+        @DisplayName("Should load all answered questions with a single batch call")
+        void shouldLoadQuestionsInSingleBatchCall() {
+            // Given
+            PracticeSession session = new PracticeSession();
+            session.setId(sessionId);
+            session.setUserId(userId);
+            session.setKnowledgeSetId(knowledgeSetId);
+            session.setStatus(SessionStatus.IN_PROGRESS);
+            session.setTotalQuestions(2);
+            when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+            when(contentClient.getKnowledgeSet(knowledgeSetId)).thenReturn(ApiResponse.of(
+                new KnowledgeSetResponse(knowledgeSetId, "Java", null, List.of(), "easy", 2)));
+
+            UUID otherQuestionId = UUID.randomUUID();
+            when(answerRepository.findBySessionIdOrderByAnsweredAtAsc(sessionId))
+                .thenReturn(List.of(answer(questionId, "2"), answer(otherQuestionId, "B")));
+            when(contentClient.getQuestionsByIds(new QuestionBatchGetRequest(List.of(questionId, otherQuestionId))))
+                .thenReturn(ApiResponse.of(List.of(
+                    new QuestionResponse(otherQuestionId, "choice", "Q2", List.of("A", "B"), "B", null, null),
+                    new QuestionResponse(questionId, "choice", "Q1", List.of("1", "2"), "2", null, null)
+                )));
+
+            // When
+            SessionResponse response = practiceService.getSession(userId, sessionId);
+
+            // Then
+            assertEquals(2, response.answers().size());
+            assertEquals("Q1", response.answers().get(0).questionContent());
+            assertEquals("Q2", response.answers().get(1).questionContent());
+            verify(contentClient, never()).getQuestion(any());
+        }
+
+        @Test
+        @DisplayName("Should split question lookups into chunks within the batch request limit")
+        void shouldChunkQuestionLookupsToBatchLimit() {
+            // Given
+            PracticeSession session = new PracticeSession();
+            session.setId(sessionId);
+            session.setUserId(userId);
+            session.setKnowledgeSetId(knowledgeSetId);
+            session.setStatus(SessionStatus.IN_PROGRESS);
+            session.setTotalQuestions(QuestionBatchGetRequest.MAX_IDS + 1);
+            when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+            when(contentClient.getKnowledgeSet(knowledgeSetId)).thenReturn(ApiResponse.of(
+                new KnowledgeSetResponse(knowledgeSetId, "Java", null, List.of(), "easy", QuestionBatchGetRequest.MAX_IDS + 1)));
+
+            List<PracticeAnswer> answers = new ArrayList<>();
+            for (int i = 0; i <= QuestionBatchGetRequest.MAX_IDS; i++) {
+                answers.add(answer(UUID.randomUUID(), "A"));
+            }
+            when(answerRepository.findBySessionIdOrderByAnsweredAtAsc(sessionId)).thenReturn(answers);
+            when(contentClient.getQuestionsByIds(any())).thenAnswer(invocation -> ApiResponse.of(
+                invocation.<QuestionBatchGetRequest>getArgument(0).ids().stream()
+                    .map(id -> new QuestionResponse(id, "choice", "Q", List.of("A"), "A", null, null))
+                    .toList()));
+
+            // When
+            SessionResponse response = practiceService.getSession(userId, sessionId);
+
+            // Then
+            ArgumentCaptor<QuestionBatchGetRequest> captor = ArgumentCaptor.forClass(QuestionBatchGetRequest.class);
+            verify(contentClient, times(2)).getQuestionsByIds(captor.capture());
+            assertEquals(List.of(QuestionBatchGetRequest.MAX_IDS, 1),
+                captor.getAllValues().stream().map(request -> request.ids().size()).toList());
+            assertTrue(response.answers().stream().allMatch(answer -> "Q".equals(answer.questionContent())));
+        }
+
+        private PracticeAnswer answer(UUID questionId, String userAnswer) {
+            PracticeAnswer answer = new PracticeAnswer();
+            answer.setSessionId(sessionId);
+            answer.setQuestionId(questionId);
+            answer.setUserAnswer(userAnswer);
+            answer.setIsCorrect(true);
+            return answer;
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package io.github.suj1e.quiz.dto;
+
+import java.util.UUID;
+
+/**
+ * 异步评分状态响应.
+ */
+public record GradingStatusResponse(
+    UUID sessionId,
+    String status,
+    Integer gradedCount,
+    Integer totalCount,
+    UUID resultId
+) {}
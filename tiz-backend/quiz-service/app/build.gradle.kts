@@ -25,6 +25,7 @@ dependencies {
     // Service APIs (from Maven Local)
     implementation(libs.content.api)
     implementation(libs.llm.api)
+    implementation(libs.user.api)
 
     // Spring Boot Starters
     implementation(libs.spring.boot.starter.web)
@@ -34,6 +35,10 @@ dependencies {
     implementation(libs.spring.boot.starter.security)
     implementation(libs.spring.boot.starter.actuator)
     implementation(libs.spring.kafka)
+    implementation(libs.spring.boot.kafka)
+
+    // Cache
+    implementation(libs.caffeine)
 
     // Spring Cloud
     implementation(libs.spring.cloud.nacos.discovery)
@@ -1,50 +1,126 @@
 package io.github.suj1e.quiz.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.producer.ProducerConfig;
-import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.common.serialization.StringSerializer;
-import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.kafka.autoconfigure.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.annotation.EnableKafka;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * Kafka 配置.
+ * 生产者和消费者参数由 {@code spring.kafka.*} 构建；生产者按 {@code kafka.producer.profile} 补充调优预设，
+ * 已显式配置的参数 (如 {@code spring.kafka.producer.compression-type} 或 {@code properties.*}) 优先于预设，
+ * 始终开启幂等发送 (acks=all).
+ * 存在 MeterRegistry 时导出生产者指标 (kafka.producer.*)，可通过 /actuator/metrics 查看.
+ * 投递超时由 {@code outbox.send-timeout} 推导并始终短于它，覆盖参数违反该约束时启动失败.
  */
 @Configuration
 @EnableKafka
 public class KafkaConfig {
 
-    @Value("${spring.kafka.bootstrap-servers:localhost:30009}")
-    private String bootstrapServers;
+    /**
+     * 生产者调优预设.
+     */
+    public enum ProducerProfile {
+
+        /**
+         * 低延迟: 不等待攒批，lz4 压缩.
+         */
+        LATENCY(0, 16 * 1024, "lz4"),
+
+        /**
+         * 高吞吐: 等待 20ms 攒批，128KB 批次，zstd 压缩.
+         */
+        THROUGHPUT(20, 128 * 1024, "zstd");
+
+        private final int lingerMs;
+        private final int batchSize;
+        private final String compressionType;
+
+        ProducerProfile(int lingerMs, int batchSize, String compressionType) {
+            this.lingerMs = lingerMs;
+            this.batchSize = batchSize;
+            this.compressionType = compressionType;
+        }
+    }
+
+    /**
+     * 单次请求超时上限.
+     */
+    private static final int MAX_REQUEST_TIMEOUT_MS = 10_000;
+
+    @Value("${kafka.producer.profile:throughput}")
+    private String producerProfile;
+
+    @Value("${outbox.send-timeout:30s}")
+    private Duration sendTimeout;
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+    public ProducerFactory<String, String> producerFactory(KafkaProperties kafkaProperties,
+                                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(producerProperties(
+            kafkaProperties.buildProducerProperties(),
+            ProducerProfile.valueOf(producerProfile.toUpperCase(Locale.ROOT)), sendTimeout
+        ));
+        meterRegistry.ifAvailable(registry -> factory.addListener(new MicrometerProducerListener<>(registry)));
+        return factory;
+    }
+
+    /**
+     * 构建生产者参数: {@code spring.kafka.*} 构建的参数 + 幂等发送 + 未显式配置的超时和调优预设.
+     * 投递超时取 outbox 发送等待时间的 5/6，生产者先于 outbox 放弃，避免被记为超时的消息之后仍然送达.
+     *
+     * @param configured {@link KafkaProperties#buildProducerProperties()} 的结果
+     * @throws IllegalStateException 投递超时不短于 outbox 发送等待时间
+     */
+    static Map<String, Object> producerProperties(Map<String, Object> configured, ProducerProfile profile,
+                                                  Duration sendTimeout) {
+        Map<String, Object> configProps = new HashMap<>(configured);
+
+        // 幂等发送: broker 去重重试产生的重复消息，单分区内保持顺序 (in-flight 不超过 5)
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+
+        configProps.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG, profile.lingerMs);
+        configProps.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, profile.batchSize);
+        configProps.putIfAbsent(ProducerConfig.COMPRESSION_TYPE_CONFIG, profile.compressionType);
+
+        // 投递超时需不小于 linger + 单次请求超时 (Kafka 约束)
+        int deliveryTimeoutMs = (int) (sendTimeout.toMillis() * 5 / 6);
+        long lingerMs = Long.parseLong(String.valueOf(configProps.get(ProducerConfig.LINGER_MS_CONFIG)));
+        int requestTimeoutMs = (int) Math.min(MAX_REQUEST_TIMEOUT_MS, deliveryTimeoutMs - lingerMs);
+        if (requestTimeoutMs <= 0) {
+            throw new IllegalStateException("outbox.send-timeout is too short for the Kafka producer: " + sendTimeout);
+        }
+        configProps.putIfAbsent(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
+        configProps.putIfAbsent(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+
+        long effectiveDeliveryTimeoutMs = Long.parseLong(
+            String.valueOf(configProps.get(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG)));
+        if (effectiveDeliveryTimeoutMs >= sendTimeout.toMillis()) {
+            throw new IllegalStateException("Kafka delivery.timeout.ms (" + effectiveDeliveryTimeoutMs
+                + ") must be shorter than outbox.send-timeout (" + sendTimeout.toMillis() + "ms)");
+        }
+        return configProps;
     }
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "quiz-group");
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        return new DefaultKafkaConsumerFactory<>(props);
+    public ConsumerFactory<String, String> consumerFactory(KafkaProperties kafkaProperties) {
+        return new DefaultKafkaConsumerFactory<>(kafkaProperties.buildConsumerProperties());
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 }
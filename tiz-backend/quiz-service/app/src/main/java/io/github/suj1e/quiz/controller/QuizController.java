@@ -2,14 +2,18 @@ package io.github.suj1e.quiz.controller;
 
 import io.github.suj1e.common.annotation.CurrentUserId;
 import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.quiz.dto.GradingStatusResponse;
 import io.github.suj1e.quiz.dto.QuizResultResponse;
 import io.github.suj1e.quiz.dto.StartQuizRequest;
 import io.github.suj1e.quiz.dto.StartQuizResponse;
 import io.github.suj1e.quiz.dto.SubmitQuizRequest;
+import io.github.suj1e.quiz.grading.GradingProgressTracker;
 import io.github.suj1e.quiz.service.QuizService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -22,6 +26,7 @@ import java.util.UUID;
 public class QuizController {
 
     private final QuizService quizService;
+    private final GradingProgressTracker progressTracker;
 
     /**
      * 开始测验.
@@ -56,6 +61,56 @@ public class QuizController {
         return ApiResponse.of(new SubmitQuizResponse(resultId));
     }
 
+    /**
+     * 异步提交测验.
+     * 立即返回，通过评分状态接口或 SSE 获取结果.
+     *
+     * @param userId    用户 ID (从 JWT 获取)
+     * @param sessionId 会话 ID
+     * @param request   提交请求
+     * @return 评分状态
+     */
+    @PostMapping("/{id}/submit-async")
+    public ApiResponse<GradingStatusResponse> submitQuizAsync(
+        @CurrentUserId UUID userId,
+        @PathVariable("id") UUID sessionId,
+        @Valid @RequestBody SubmitQuizRequest request
+    ) {
+        quizService.submitQuizAsync(sessionId, userId, request);
+        return ApiResponse.of(quizService.getGradingStatus(sessionId, userId));
+    }
+
+    /**
+     * 获取异步评分状态.
+     *
+     * @param userId    用户 ID (从 JWT 获取)
+     * @param sessionId 会话 ID
+     * @return 评分状态
+     */
+    @GetMapping("/{id}/grading")
+    public ApiResponse<GradingStatusResponse> getGradingStatus(
+        @CurrentUserId UUID userId,
+        @PathVariable("id") UUID sessionId
+    ) {
+        return ApiResponse.of(quizService.getGradingStatus(sessionId, userId));
+    }
+
+    /**
+     * 订阅异步评分进度 (SSE).
+     * 事件: progress / completed / error.
+     *
+     * @param userId    用户 ID (从 JWT 获取)
+     * @param sessionId 会话 ID
+     * @return SSE 发射器
+     */
+    @GetMapping(value = "/{id}/grading/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGradingStatus(
+        @CurrentUserId UUID userId,
+        @PathVariable("id") UUID sessionId
+    ) {
+        return progressTracker.subscribe(quizService.getGradingStatus(sessionId, userId));
+    }
+
     /**
      * 获取测验结果.
      *
@@ -52,6 +52,18 @@ public class OutboxEvent {
     @Column(name = "sent_at")
     private Instant sentAt;
 
+    /**
+     * 领取该事件的发布线程标识，租约内其他实例不会重复领取.
+     */
+    @Column(name = "locked_by", length = 64)
+    private String lockedBy;
+
+    /**
+     * 领取租约到期时间，发布线程崩溃时到期后由其他实例重新领取.
+     */
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false, nullable = false)
     private Instant createdAt;
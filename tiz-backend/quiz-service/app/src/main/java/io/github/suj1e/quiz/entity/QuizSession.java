@@ -39,10 +39,28 @@ public class QuizSession extends BaseEntity {
     @Column(name = "completed_at")
     private Instant completedAt;
 
+    /**
+     * 评分租约持有者 (实例标识)，仅持有者可以写入评分结果.
+     */
+    @Column(name = "grading_owner", length = 64)
+    private String gradingOwner;
+
+    /**
+     * 评分租约心跳，排队和评分期间由持有者定期刷新.
+     */
+    @Column(name = "grading_heartbeat_at")
+    private Instant gradingHeartbeatAt;
+
+    /**
+     * 已开始的评分次数.
+     */
+    @Column(name = "grading_attempts", nullable = false)
+    private Integer gradingAttempts = 0;
+
     /**
      * 测验会话状态枚举.
      */
     public enum Status {
-        in_progress, completed, expired
+        in_progress, grading_pending, completed, expired, grading_failed
     }
 }
@@ -18,6 +18,7 @@ public enum QuizErrorCode implements ErrorCode {
     SESSION_ALREADY_COMPLETED("validation_error", "QUIZ_6003", "Quiz session already completed", HttpStatus.BAD_REQUEST),
     SESSION_ACCESS_DENIED("authorization_error", "QUIZ_6004", "Access denied to quiz session", HttpStatus.FORBIDDEN),
     SESSION_IN_PROGRESS("validation_error", "QUIZ_6005", "Quiz session is still in progress", HttpStatus.BAD_REQUEST),
+    SESSION_GRADING("validation_error", "QUIZ_6006", "Quiz session is being graded", HttpStatus.BAD_REQUEST),
 
     // QuizResult (QUIZ_7xxx)
     RESULT_NOT_FOUND("not_found_error", "QUIZ_7001", "Quiz result not found", HttpStatus.NOT_FOUND),
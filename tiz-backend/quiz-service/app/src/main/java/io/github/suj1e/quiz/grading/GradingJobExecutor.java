@@ -0,0 +1,105 @@
+package io.github.suj1e.quiz.grading;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步评分任务执行器.
+ * 固定大小的工作线程池 + 有界队列，队列满时拒绝，由恢复任务稍后重新调度.
+ * 排队和执行中的会话由本实例持有评分租约 ({@link #getOwner()}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GradingJobExecutor {
+
+    private final GradingProgressTracker progressTracker;
+
+    @Value("${grading.worker.threads:4}")
+    private int threads;
+
+    @Value("${grading.worker.queue-capacity:100}")
+    private int queueCapacity;
+
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 本实例的评分租约持有者标识.
+     */
+    @Getter
+    private final String owner = UUID.randomUUID().toString();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("quiz-grading-", 0).factory()
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 提交评分任务.
+     *
+     * @param sessionId 会话 ID
+     * @param job       评分任务
+     * @return 是否已入队 (同一会话已在执行时视为已入队)
+     */
+    public boolean submit(UUID sessionId, Runnable job) {
+        if (!inFlight.add(sessionId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> run(sessionId, job));
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(sessionId);
+            return false;
+        }
+    }
+
+    /**
+     * 会话是否正在本实例排队或评分.
+     */
+    public boolean isInFlight(UUID sessionId) {
+        return inFlight.contains(sessionId);
+    }
+
+    /**
+     * 本实例正在排队或评分的会话.
+     */
+    public Set<UUID> inFlightIds() {
+        return Set.copyOf(inFlight);
+    }
+
+    private void run(UUID sessionId, Runnable job) {
+        try {
+            job.run();
+        } catch (Exception e) {
+            log.error("Grading job failed: sessionId={}", sessionId, e);
+            progressTracker.fail(sessionId, e.getMessage());
+        } finally {
+            inFlight.remove(sessionId);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.suj1e.quiz.grading;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import io.github.suj1e.quiz.dto.GradingStatusResponse;
+import io.github.suj1e.quiz.entity.QuizSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 异步评分进度跟踪.
+ * 进度仅保存在执行评分的实例内存中，数据库中的会话状态是最终依据.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GradingProgressTracker {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${grading.sse-timeout:300000}")
+    private long sseTimeout;
+
+    private final Map<UUID, Progress> progress = new ConcurrentHashMap<>();
+    private final Map<UUID, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    /**
+     * 评分进度.
+     */
+    public record Progress(int graded, int total) {}
+
+    /**
+     * 开始跟踪.
+     */
+    public void start(UUID sessionId, int total) {
+        progress.put(sessionId, new Progress(0, total));
+        broadcast(sessionId, "progress", progress.get(sessionId));
+    }
+
+    /**
+     * 一道题评分完成.
+     */
+    public void increment(UUID sessionId) {
+        Progress updated = progress.computeIfPresent(sessionId,
+            (id, p) -> new Progress(p.graded() + 1, p.total()));
+        if (updated != null) {
+            broadcast(sessionId, "progress", updated);
+        }
+    }
+
+    /**
+     * 评分完成.
+     */
+    public void complete(UUID sessionId, UUID resultId) {
+        progress.remove(sessionId);
+        broadcast(sessionId, "completed", new CompletedData(resultId));
+        completeEmitters(sessionId);
+    }
+
+    /**
+     * 评分失败 (会话保持评分中状态，等待恢复任务重试).
+     */
+    public void fail(UUID sessionId, String message) {
+        progress.remove(sessionId);
+        broadcast(sessionId, "error", new ErrorData("QUIZ_9001", message));
+        completeEmitters(sessionId);
+    }
+
+    /**
+     * 获取本实例内的评分进度.
+     */
+    public Optional<Progress> get(UUID sessionId) {
+        return Optional.ofNullable(progress.get(sessionId));
+    }
+
+    /**
+     * 订阅评分进度.
+     * 已完成的会话立即推送 completed 事件并结束.
+     */
+    public SseEmitter subscribe(GradingStatusResponse current) {
+        UUID sessionId = current.sessionId();
+        SseEmitter emitter = new SseEmitter(sseTimeout);
+
+        if (QuizSession.Status.completed.name().equals(current.status())) {
+            send(emitter, "completed", new CompletedData(current.resultId()));
+            emitter.complete();
+            return emitter;
+        }
+
+        List<SseEmitter> sessionEmitters =
+            emitters.computeIfAbsent(sessionId, id -> new CopyOnWriteArrayList<>());
+        sessionEmitters.add(emitter);
+        Runnable remove = () -> sessionEmitters.remove(emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        send(emitter, "progress", new Progress(current.gradedCount(), current.totalCount()));
+        return emitter;
+    }
+
+    private void broadcast(UUID sessionId, String name, Object data) {
+        List<SseEmitter> sessionEmitters = emitters.get(sessionId);
+        if (sessionEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : sessionEmitters) {
+            send(emitter, name, data);
+        }
+    }
+
+    private void completeEmitters(UUID sessionId) {
+        List<SseEmitter> sessionEmitters = emitters.remove(sessionId);
+        if (sessionEmitters != null) {
+            sessionEmitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    private void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event()
+                .name(name)
+                .data(objectMapper.writeValueAsString(data), MediaType.APPLICATION_JSON));
+        } catch (IOException | JacksonException e) {
+            log.debug("Failed to send grading event: {}", name, e);
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * 完成事件数据.
+     */
+    record CompletedData(UUID resultId) {}
+
+    /**
+     * 错误事件数据.
+     */
+    record ErrorData(String code, String message) {}
+}
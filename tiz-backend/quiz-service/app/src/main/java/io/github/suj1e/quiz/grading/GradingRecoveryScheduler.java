@@ -0,0 +1,85 @@
+package io.github.suj1e.quiz.grading;
+
+import io.github.suj1e.quiz.entity.QuizSession;
+import io.github.suj1e.quiz.repository.QuizSessionRepository;
+import io.github.suj1e.quiz.service.QuizService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 评分任务恢复.
+ * 本实例定期刷新排队和评分中会话的租约心跳；心跳过期或租约已释放的会话
+ * (实例崩溃、队列已满或评分失败) 由任一实例认领后重新调度，评分次数用尽时置为评分失败.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GradingRecoveryScheduler {
+
+    private final QuizSessionRepository quizSessionRepository;
+    private final GradingJobExecutor gradingJobExecutor;
+    private final QuizService quizService;
+
+    @Value("${grading.worker.stale-after:5m}")
+    private Duration staleAfter;
+
+    @Value("${grading.worker.recovery-batch-size:50}")
+    private int batchSize;
+
+    @Value("${grading.worker.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * 刷新本实例持有的评分租约.
+     * 默认每 30 秒执行一次，需明显短于 stale-after.
+     */
+    @Scheduled(fixedDelayString = "${grading.worker.heartbeat-interval:30000}")
+    public void heartbeat() {
+        Set<UUID> inFlight = gradingJobExecutor.inFlightIds();
+        if (!inFlight.isEmpty()) {
+            quizSessionRepository.heartbeat(inFlight, gradingJobExecutor.getOwner(), Instant.now());
+        }
+    }
+
+    /**
+     * 定时扫描租约过期的评分中会话.
+     * 默认每分钟执行一次.
+     */
+    @Scheduled(fixedDelayString = "${grading.worker.recovery-interval:60000}")
+    public void recoverStaleJobs() {
+        Instant staleBefore = Instant.now().minus(staleAfter);
+        List<QuizSession> staleSessions = quizSessionRepository.findStaleGrading(
+            staleBefore, PageRequest.of(0, batchSize)
+        );
+
+        for (QuizSession session : staleSessions) {
+            if (gradingJobExecutor.isInFlight(session.getId())) {
+                continue;
+            }
+            if (session.getGradingAttempts() >= maxAttempts) {
+                if (quizSessionRepository.failStaleGrading(session.getId(), staleBefore, Instant.now()) == 1) {
+                    log.error("Grading gave up after {} attempts: sessionId={}",
+                        session.getGradingAttempts(), session.getId());
+                }
+                continue;
+            }
+            int claimed = quizSessionRepository.claimStale(
+                session.getId(), gradingJobExecutor.getOwner(), staleBefore, Instant.now()
+            );
+            if (claimed == 1) {
+                log.info("Re-enqueue stale grading job: sessionId={}", session.getId());
+                quizService.enqueueGrading(session.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.suj1e.quiz.outbox;
+
+import io.github.suj1e.quiz.entity.OutboxEvent;
+import io.github.suj1e.quiz.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox 事件即时分发器.
+ * 事件所在事务提交后立即入队，由分发线程领取并发布，事件延迟为毫秒级.
+ * 领取只针对未被租约占用的待发送事件，与定时扫描互斥; 入队失败或进程崩溃的事件由定时扫描兜底.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 本实例分发线程的租约持有者.
+     */
+    private final String owner = UUID.randomUUID() + "-dispatch";
+
+    @Value("${outbox.immediate-dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.immediate-dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${outbox.lease:60s}")
+    private Duration lease;
+
+    private BlockingQueue<UUID> queue;
+
+    private Thread dispatcherThread;
+
+    @PostConstruct
+    void init() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        if (enabled) {
+            dispatcherThread = Thread.ofPlatform().name("outbox-dispatcher").daemon().start(this::run);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (dispatcherThread != null) {
+            dispatcherThread.interrupt();
+        }
+    }
+
+    /**
+     * 提交即时发布. 未开启或队列已满时忽略，事件由定时扫描发布.
+     *
+     * @param eventId 已提交的事件 ID
+     */
+    public void dispatch(UUID eventId) {
+        if (!enabled) {
+            return;
+        }
+        if (!queue.offer(eventId)) {
+            log.warn("Outbox dispatch queue full, leaving event to scheduler: id={}", eventId);
+        }
+    }
+
+    private void run() {
+        List<UUID> ids = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ids.add(queue.take());
+                queue.drainTo(ids, batchSize - 1);
+                dispatchNow(ids);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Outbox dispatch failed, leaving events to scheduler: ids={}", ids, e);
+            } finally {
+                ids.clear();
+            }
+        }
+    }
+
+    /**
+     * 领取并发布指定事件，已被其他线程领取或已发送的事件跳过.
+     *
+     * @return 发布的事件数
+     */
+    int dispatchNow(List<UUID> ids) {
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            if (outboxEventRepository.claimPending(ids, owner, now, now.plus(lease)) == 0) {
+                return List.of();
+            }
+            return outboxEventRepository.findByIdInAndLockedBy(ids, owner);
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        publish(claimed, owner);
+        return claimed.size();
+    }
+
+    /**
+     * 异步发布一批已领取的事件，按结果批量写回 (成功一条 UPDATE，失败按错误信息分组).
+     */
+    void publish(List<OutboxEvent> events, String owner) {
+        OutboxPublisher.PublishResult result = outboxPublisher.publishAll(events);
+
+        if (!result.sent().isEmpty()) {
+            int marked = outboxEventRepository.markAsSent(result.sent(), owner);
+            if (marked < result.sent().size()) {
+                log.warn("Outbox lease lost before marking sent: owner={}, sent={}, marked={}",
+                    owner, result.sent().size(), marked);
+            }
+        }
+
+        if (!result.failed().isEmpty()) {
+            for (OutboxEvent event : events) {
+                if (result.failed().containsKey(event.getId()) && event.getRetryCount() >= maxRetries - 1) {
+                    log.error("Outbox event reached max retries: id={}, retries={}",
+                        event.getId(), event.getRetryCount());
+                }
+            }
+            result.failed().entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> truncateErrorMessage(entry.getValue()),
+                    Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((errorMessage, ids) -> outboxEventRepository.markAsFailed(ids, owner, errorMessage));
+        }
+    }
+
+    /**
+     * 截断错误消息.
+     */
+    private String truncateErrorMessage(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -1,15 +1,32 @@
 package io.github.suj1e.quiz.outbox;
 
-import tools.jackson.databind.JsonNode;
-import tools.jackson.databind.ObjectMapper;
 import io.github.suj1e.quiz.entity.OutboxEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * Outbox 事件发布器.
+ * 一批事件全部异步发送后统一等待确认，发送在生产者内流水线化，不再逐条等待 broker 往返.
+ * 消息值为事件原始 payload，事件元数据放在 Kafka 头中.
  */
 @Slf4j
 @Component
@@ -18,60 +35,108 @@ public class OutboxPublisher {
 
     private static final String TOPIC_QUIZ_EVENTS = "quiz.events";
 
+    /**
+     * 消息头: 事件 ID (消费方去重).
+     */
+    public static final String HEADER_EVENT_ID = "eventId";
+
+    /**
+     * 消息头: 事件类型.
+     */
+    public static final String HEADER_EVENT_TYPE = "eventType";
+
+    /**
+     * 消息头: 聚合类型.
+     */
+    public static final String HEADER_AGGREGATE_TYPE = "aggregateType";
+
     private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+
+    @Value("${outbox.send-timeout:30s}")
+    private Duration sendTimeout;
 
     /**
-     * 发布事件到 Kafka.
+     * 批量发布结果.
      *
-     * @param event Outbox 事件
-     * @return 是否成功
+     * @param sent   已确认的事件 ID
+     * @param failed 失败的事件 ID 及错误信息
      */
-    public boolean publish(OutboxEvent event) {
-        try {
-            String key = event.getAggregateId().toString();
-            String value = buildMessage(event);
-
-            kafkaTemplate.send(TOPIC_QUIZ_EVENTS, key, value).get();
+    public record PublishResult(List<UUID> sent, Map<UUID, String> failed) {}
 
-            log.info("Published event to Kafka: topic={}, key={}, eventType={}",
-                TOPIC_QUIZ_EVENTS, key, event.getEventType());
+    /**
+     * 异步发送一批事件到 Kafka，并等待全部确认 (最多 {@code outbox.send-timeout}).
+     *
+     * @param events Outbox 事件
+     * @return 发布结果，超时未确认的事件计为失败
+     */
+    public PublishResult publishAll(List<OutboxEvent> events) {
+        Map<OutboxEvent, CompletableFuture<?>> futures = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            try {
+                futures.put(event, kafkaTemplate.send(toRecord(event)));
+            } catch (Exception e) {
+                futures.put(event, CompletableFuture.failedFuture(e));
+            }
+        }
 
-            return true;
-        } catch (Exception e) {
-            log.error("Failed to publish event to Kafka: id={}, eventType={}",
-                event.getId(), event.getEventType(), e);
-            return false;
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // 逐条检查结果
         }
+
+        List<UUID> sent = new ArrayList<>();
+        Map<UUID, String> failed = new LinkedHashMap<>();
+        futures.forEach((event, future) -> {
+            String error = errorOf(future);
+            if (error == null) {
+                sent.add(event.getId());
+            } else {
+                failed.put(event.getId(), error);
+                log.error("Failed to publish event to Kafka: id={}, eventType={}, error={}",
+                    event.getId(), event.getEventType(), error);
+            }
+        });
+
+        log.debug("Published outbox batch to Kafka: topic={}, sent={}, failed={}",
+            TOPIC_QUIZ_EVENTS, sent.size(), failed.size());
+        return new PublishResult(sent, failed);
     }
 
     /**
-     * 构建 Kafka 消息.
+     * 构建 Kafka 消息，按聚合 ID 分区以保证同一聚合的事件有序.
      */
-    private String buildMessage(OutboxEvent event) {
-        try {
-            // 构建消息结构
-            KafkaMessage message = new KafkaMessage(
-                event.getEventType(),
-                event.getAggregateType(),
-                event.getAggregateId().toString(),
-                objectMapper.readTree(event.getPayload())
-            );
-
-            return objectMapper.writeValueAsString(message);
-        } catch (Exception e) {
-            log.error("Failed to build Kafka message", e);
-            return event.getPayload(); // fallback to raw payload
-        }
+    private ProducerRecord<String, String> toRecord(OutboxEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(
+            TOPIC_QUIZ_EVENTS, event.getAggregateId().toString(), event.getPayload()
+        );
+        record.headers()
+            .add(header(HEADER_EVENT_ID, event.getId().toString()))
+            .add(header(HEADER_EVENT_TYPE, event.getEventType()))
+            .add(header(HEADER_AGGREGATE_TYPE, event.getAggregateType()));
+        return record;
+    }
+
+    private static RecordHeader header(String key, String value) {
+        return new RecordHeader(key, value.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
-     * Kafka 消息结构.
+     * 已确认返回 null，否则返回错误信息.
      */
-    public record KafkaMessage(
-        String eventType,
-        String aggregateType,
-        String aggregateId,
-        JsonNode payload
-    ) {}
+    private static String errorOf(CompletableFuture<?> future) {
+        if (!future.isDone()) {
+            return "Timed out waiting for Kafka acknowledgement";
+        }
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package io.github.suj1e.quiz.outbox;
+
+import io.github.suj1e.quiz.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Outbox 已发送事件清理任务.
+ * 按发送时间分批删除超过保留期的 SENT 事件 (可选先归档到 outbox_events_archive)，
+ * 每批独立短事务，避免长时间持有行锁. 失败的事件保留以便排查.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRetentionJob {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.retention.sent-retention:7d}")
+    private Duration sentRetention;
+
+    @Value("${outbox.retention.archive:false}")
+    private boolean archive;
+
+    @Value("${outbox.retention.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * 定时清理超过保留期的已发送事件.
+     * 默认每小时执行一次，逐批清理直到不满一批.
+     */
+    @Scheduled(fixedDelayString = "${outbox.retention.interval:3600000}")
+    public void purgeSentEvents() {
+        if (!enabled) {
+            return;
+        }
+        int purged = purgeBefore(Instant.now().minus(sentRetention));
+        if (purged > 0) {
+            log.info("Purged {} sent outbox events older than {} (archived={})", purged, sentRetention, archive);
+        }
+    }
+
+    /**
+     * 分批清理发送时间早于截止时间的事件.
+     *
+     * @return 清理的事件数
+     */
+    int purgeBefore(Instant cutoff) {
+        int purged = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                if (archive) {
+                    outboxEventRepository.archiveSentBefore(cutoff, batchSize);
+                }
+                return outboxEventRepository.deleteSentBefore(cutoff, batchSize);
+            });
+            int count = deleted != null ? deleted : 0;
+            purged += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return purged;
+    }
+}
@@ -2,18 +2,32 @@ package io.github.suj1e.quiz.outbox;
 
 import io.github.suj1e.quiz.entity.OutboxEvent;
 import io.github.suj1e.quiz.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Outbox 事件扫描和发布任务.
+ * 每次扫描由多个发布线程并行执行，每个线程在短事务内用 FOR UPDATE SKIP LOCKED 领取一批事件并写入租约，
+ * 提交后发布，发布结果仅由租约持有者写回. 多实例、多线程之间领取的事件互不重叠，
+ * 发布线程崩溃时事件在租约到期后被重新领取.
+ * 开启即时分发 ({@link OutboxDispatcher}) 时，扫描只兜底入队失败和崩溃遗留的事件.
  */
 @Slf4j
 @Component
@@ -21,7 +35,13 @@ import java.util.List;
 public class OutboxScheduler {
 
     private final OutboxEventRepository outboxEventRepository;
-    private final OutboxPublisher outboxPublisher;
+    private final OutboxDispatcher outboxDispatcher;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 本实例标识，与线程序号组成租约持有者.
+     */
+    private final String instanceId = UUID.randomUUID().toString();
 
     @Value("${outbox.batch-size:100}")
     private int batchSize;
@@ -29,79 +49,89 @@ public class OutboxScheduler {
     @Value("${outbox.max-retries:3}")
     private int maxRetries;
 
-    /**
-     * 定时扫描待发送的事件并发布.
-     * 默认每 5 秒执行一次.
-     */
-    @Scheduled(fixedDelayString = "${outbox.scan-interval:5000}")
-    public void scanAndPublish() {
-        // 查找待发送的事件
-        List<OutboxEvent> pendingEvents = outboxEventRepository.findPendingEvents(
-            PageRequest.of(0, batchSize)
-        );
+    @Value("${outbox.workers:4}")
+    private int workers;
 
-        if (!pendingEvents.isEmpty()) {
-            log.info("Found {} pending outbox events to publish", pendingEvents.size());
-        }
-
-        for (OutboxEvent event : pendingEvents) {
-            publishEvent(event);
-        }
+    @Value("${outbox.lease:60s}")
+    private Duration lease;
 
-        // 查找失败但可重试的事件
-        List<OutboxEvent> retryEvents = outboxEventRepository.findFailedEventsForRetry(
-            maxRetries, PageRequest.of(0, batchSize)
-        );
+    private ExecutorService executor;
 
-        if (!retryEvents.isEmpty()) {
-            log.info("Found {} failed outbox events to retry", retryEvents.size());
-        }
+    @PostConstruct
+    void init() {
+        executor = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("outbox-worker-", 0).factory());
+    }
 
-        for (OutboxEvent event : retryEvents) {
-            publishEvent(event);
-        }
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
     }
 
     /**
-     * 发布单个事件.
+     * 定时扫描待发送和可重试的事件并发布.
+     * 默认每 30 秒执行一次，各发布线程持续领取直到没有剩余事件.
      */
-    @Transactional
-    public void publishEvent(OutboxEvent event) {
-        try {
-            boolean success = outboxPublisher.publish(event);
-
-            if (success) {
-                outboxEventRepository.markAsSent(event.getId());
-                log.info("Outbox event sent successfully: id={}", event.getId());
-            } else {
-                markAsFailed(event, "Failed to publish to Kafka");
+    @Scheduled(fixedDelayString = "${outbox.scan-interval:30000}")
+    public void scanAndPublish() {
+        List<Future<Integer>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            String owner = instanceId + "-" + i;
+            futures.add(executor.submit(() -> drain(owner)));
+        }
+
+        int published = 0;
+        for (Future<Integer> future : futures) {
+            try {
+                published += future.get();
+            } catch (ExecutionException e) {
+                log.error("Outbox worker failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
-        } catch (Exception e) {
-            log.error("Error publishing outbox event: id={}", event.getId(), e);
-            markAsFailed(event, e.getMessage());
+        }
+
+        if (published > 0) {
+            log.info("Processed {} outbox events", published);
         }
     }
 
     /**
-     * 标记事件为失败.
+     * 持续领取并发布事件，直到领取不满一批.
+     *
+     * @return 处理的事件数
      */
-    private void markAsFailed(OutboxEvent event, String errorMessage) {
-        if (event.getRetryCount() >= maxRetries - 1) {
-            log.error("Outbox event reached max retries: id={}, retries={}",
-                event.getId(), event.getRetryCount());
+    int drain(String owner) {
+        int processed = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<OutboxEvent> claimed = claim(owner);
+            if (!claimed.isEmpty()) {
+                outboxDispatcher.publish(claimed, owner);
+            }
+            processed += claimed.size();
+            if (claimed.size() < batchSize) {
+                break;
+            }
         }
-
-        outboxEventRepository.markAsFailed(event.getId(),
-            truncateErrorMessage(errorMessage));
+        return processed;
     }
 
     /**
-     * 截断错误消息.
+     * 在短事务内锁定一批事件并写入租约，事务提交即释放行锁.
      */
-    private String truncateErrorMessage(String message) {
-        if (message == null) {
-            return null;
-        }
-        return message.length() > 500 ? message.substring(0, 500) : message;
+    List<OutboxEvent> claim(String owner) {
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEvent> events = outboxEventRepository.findClaimable(
+                maxRetries, now, PageRequest.of(0, batchSize)
+            );
+            if (!events.isEmpty()) {
+                outboxEventRepository.claim(
+                    events.stream().map(OutboxEvent::getId).toList(), owner, now.plus(lease)
+                );
+            }
+            return events;
+        });
+        return claimed != null ? claimed : List.of();
     }
 }
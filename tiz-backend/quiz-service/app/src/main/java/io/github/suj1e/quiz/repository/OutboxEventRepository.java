@@ -1,12 +1,20 @@
 package io.github.suj1e.quiz.repository;
 
 import io.github.suj1e.quiz.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,28 +25,75 @@ import java.util.UUID;
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
 
     /**
-     * 查找待发送的事件 (分页).
+     * 锁定可发送的事件 (待发送或失败可重试，且无有效租约).
+     * SELECT ... FOR UPDATE SKIP LOCKED: 并发的发布线程跳过彼此已锁定的行，各自领取不同的事件.
+     * 需在事务内调用，并在同一事务内通过 {@link #claim} 写入租约.
      */
-    @Query("SELECT e FROM OutboxEvent e WHERE e.status = io.github.suj1e.quiz.entity.OutboxEvent$Status.PENDING ORDER BY e.createdAt ASC")
-    List<OutboxEvent> findPendingEvents(Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE (e.status = io.github.suj1e.quiz.entity.OutboxEvent$Status.PENDING "
+        + "OR (e.status = io.github.suj1e.quiz.entity.OutboxEvent$Status.FAILED AND e.retryCount < :maxRetries)) "
+        + "AND (e.lockedUntil IS NULL OR e.lockedUntil < :now) ORDER BY e.createdAt ASC")
+    List<OutboxEvent> findClaimable(@Param("maxRetries") int maxRetries, @Param("now") Instant now, Pageable pageable);
 
     /**
-     * 查找失败但可重试的事件.
+     * 为事件写入领取租约.
      */
-    @Query("SELECT e FROM OutboxEvent e WHERE e.status = io.github.suj1e.quiz.entity.OutboxEvent$Status.FAILED AND e.retryCount < :maxRetries ORDER BY e.createdAt ASC")
-    List<OutboxEvent> findFailedEventsForRetry(int maxRetries, Pageable pageable);
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.lockedBy = :owner, e.lockedUntil = :lockedUntil WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<UUID> ids, @Param("owner") String owner,
+              @Param("lockedUntil") Instant lockedUntil);
+
+    /**
+     * 为未被租约占用的待发送事件写入领取租约，已被领取或已发送的事件不受影响.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.lockedBy = :owner, e.lockedUntil = :lockedUntil WHERE e.id IN :ids "
+        + "AND e.status = io.github.suj1e.quiz.entity.OutboxEvent$Status.PENDING "
+        + "AND (e.lockedUntil IS NULL OR e.lockedUntil < :now)")
+    int claimPending(@Param("ids") Collection<UUID> ids, @Param("owner") String owner,
+                     @Param("now") Instant now, @Param("lockedUntil") Instant lockedUntil);
+
+    /**
+     * 查询指定持有者已领取的事件.
+     */
+    List<OutboxEvent> findByIdInAndLockedBy(Collection<UUID> ids, String lockedBy);
+
+    /**
+     * 批量更新事件状态为已发送并释放租约 (仅限租约持有者).
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = io.github.suj1e.quiz.entity.OutboxEvent$Status.SENT, e.sentAt = CURRENT_TIMESTAMP, "
+        + "e.lockedBy = NULL, e.lockedUntil = NULL WHERE e.id IN :ids AND e.lockedBy = :owner")
+    int markAsSent(@Param("ids") Collection<UUID> ids, @Param("owner") String owner);
+
+    /**
+     * 批量更新事件状态为失败、增加重试次数并释放租约 (仅限租约持有者).
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = io.github.suj1e.quiz.entity.OutboxEvent$Status.FAILED, e.retryCount = e.retryCount + 1, "
+        + "e.errorMessage = :errorMessage, e.lockedBy = NULL, e.lockedUntil = NULL WHERE e.id IN :ids AND e.lockedBy = :owner")
+    int markAsFailed(@Param("ids") Collection<UUID> ids, @Param("owner") String owner,
+                     @Param("errorMessage") String errorMessage);
 
     /**
-     * 更新事件状态为已发送.
+     * 归档一批发送时间早于截止时间的事件 (与 {@link #deleteSentBefore} 同序同量，需在同一事务内先后调用).
      */
     @Modifying
-    @Query("UPDATE OutboxEvent e SET e.status = io.github.suj1e.quiz.entity.OutboxEvent$Status.SENT, e.sentAt = CURRENT_TIMESTAMP WHERE e.id = :id")
-    void markAsSent(UUID id);
+    @Query(value = "INSERT IGNORE INTO outbox_events_archive "
+        + "(id, aggregate_type, aggregate_id, event_type, payload, retry_count, sent_at, created_at) "
+        + "SELECT id, aggregate_type, aggregate_id, event_type, payload, retry_count, sent_at, created_at "
+        + "FROM outbox_events WHERE status = 'SENT' AND sent_at < :cutoff ORDER BY sent_at, id LIMIT :limit",
+        nativeQuery = true)
+    int archiveSentBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 
     /**
-     * 更新事件状态为失败并增加重试次数.
+     * 删除一批发送时间早于截止时间的事件，沿 (status, sent_at) 索引按序删除.
      */
     @Modifying
-    @Query("UPDATE OutboxEvent e SET e.status = io.github.suj1e.quiz.entity.OutboxEvent$Status.FAILED, e.retryCount = e.retryCount + 1, e.errorMessage = :errorMessage WHERE e.id = :id")
-    void markAsFailed(UUID id, String errorMessage);
+    @Query(value = "DELETE FROM outbox_events WHERE status = 'SENT' AND sent_at < :cutoff "
+        + "ORDER BY sent_at, id LIMIT :limit", nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
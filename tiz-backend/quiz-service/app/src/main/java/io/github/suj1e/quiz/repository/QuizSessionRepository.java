@@ -1,9 +1,15 @@
 package io.github.suj1e.quiz.repository;
 
 import io.github.suj1e.quiz.entity.QuizSession;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,4 +34,99 @@ public interface QuizSessionRepository extends JpaRepository<QuizSession, UUID>
      * 查找用户的进行中会话.
      */
     List<QuizSession> findByUserIdAndStatus(UUID userId, QuizSession.Status status);
+
+    /**
+     * 提交进行中的会话并由本实例持有评分租约 (需在保存答案的事务内调用).
+     *
+     * @return 更新行数，0 表示会话已被提交
+     */
+    @Modifying
+    @Query("UPDATE QuizSession s SET s.status = io.github.suj1e.quiz.entity.QuizSession$Status.grading_pending, "
+        + "s.gradingOwner = :owner, s.gradingHeartbeatAt = :now, s.gradingAttempts = 0, s.updatedAt = :now "
+        + "WHERE s.id = :id AND s.status = io.github.suj1e.quiz.entity.QuizSession$Status.in_progress")
+    int claimForGrading(UUID id, String owner, Instant now);
+
+    /**
+     * 将进行中的会话置为已完成 (同步提交，需在保存结果的事务内调用).
+     *
+     * @return 更新行数，0 表示会话已被提交
+     */
+    @Modifying
+    @Query("UPDATE QuizSession s SET s.status = io.github.suj1e.quiz.entity.QuizSession$Status.completed, "
+        + "s.completedAt = :now, s.updatedAt = :now "
+        + "WHERE s.id = :id AND s.status = io.github.suj1e.quiz.entity.QuizSession$Status.in_progress")
+    int completeInProgress(UUID id, Instant now);
+
+    /**
+     * 查找租约已过期或已释放的评分中会话.
+     */
+    @Query("SELECT s FROM QuizSession s WHERE s.status = io.github.suj1e.quiz.entity.QuizSession$Status.grading_pending "
+        + "AND (s.gradingHeartbeatAt IS NULL OR s.gradingHeartbeatAt < :staleBefore) ORDER BY s.updatedAt ASC")
+    List<QuizSession> findStaleGrading(Instant staleBefore, Pageable pageable);
+
+    /**
+     * 认领租约已过期或已释放的评分中会话 (防止多实例重复认领).
+     *
+     * @return 更新行数，1 表示认领成功
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE QuizSession s SET s.gradingOwner = :owner, s.gradingHeartbeatAt = :now "
+        + "WHERE s.id = :id AND s.status = io.github.suj1e.quiz.entity.QuizSession$Status.grading_pending "
+        + "AND (s.gradingHeartbeatAt IS NULL OR s.gradingHeartbeatAt < :staleBefore)")
+    int claimStale(UUID id, String owner, Instant staleBefore, Instant now);
+
+    /**
+     * 刷新本实例持有的评分租约.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE QuizSession s SET s.gradingHeartbeatAt = :now WHERE s.id IN :ids AND s.gradingOwner = :owner "
+        + "AND s.status = io.github.suj1e.quiz.entity.QuizSession$Status.grading_pending")
+    int heartbeat(Collection<UUID> ids, String owner, Instant now);
+
+    /**
+     * 开始一次评分: 持有租约时增加评分次数并刷新心跳.
+     *
+     * @return 更新行数，0 表示租约已被其他实例认领
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE QuizSession s SET s.gradingAttempts = s.gradingAttempts + 1, s.gradingHeartbeatAt = :now "
+        + "WHERE s.id = :id AND s.gradingOwner = :owner "
+        + "AND s.status = io.github.suj1e.quiz.entity.QuizSession$Status.grading_pending")
+    int startGradingAttempt(UUID id, String owner, Instant now);
+
+    /**
+     * 释放评分租约，恢复任务下一轮即可重新认领.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE QuizSession s SET s.gradingOwner = NULL, s.gradingHeartbeatAt = NULL "
+        + "WHERE s.id = :id AND s.gradingOwner = :owner "
+        + "AND s.status = io.github.suj1e.quiz.entity.QuizSession$Status.grading_pending")
+    int releaseGrading(UUID id, String owner);
+
+    /**
+     * 评分完成: 仅租约持有者可以将会话置为已完成 (需在保存结果的事务内调用).
+     *
+     * @return 更新行数，0 表示租约已失效
+     */
+    @Modifying
+    @Query("UPDATE QuizSession s SET s.status = io.github.suj1e.quiz.entity.QuizSession$Status.completed, "
+        + "s.completedAt = :now, s.updatedAt = :now, s.gradingOwner = NULL, s.gradingHeartbeatAt = NULL "
+        + "WHERE s.id = :id AND s.gradingOwner = :owner "
+        + "AND s.status = io.github.suj1e.quiz.entity.QuizSession$Status.grading_pending")
+    int finishGrading(UUID id, String owner, Instant now);
+
+    /**
+     * 评分次数用尽: 将租约已过期的评分中会话置为评分失败.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE QuizSession s SET s.status = io.github.suj1e.quiz.entity.QuizSession$Status.grading_failed, "
+        + "s.updatedAt = :now, s.gradingOwner = NULL, s.gradingHeartbeatAt = NULL "
+        + "WHERE s.id = :id AND s.status = io.github.suj1e.quiz.entity.QuizSession$Status.grading_pending "
+        + "AND (s.gradingHeartbeatAt IS NULL OR s.gradingHeartbeatAt < :staleBefore)")
+    int failStaleGrading(UUID id, Instant staleBefore, Instant now);
 }
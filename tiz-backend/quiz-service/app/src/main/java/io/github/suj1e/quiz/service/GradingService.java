@@ -2,66 +2,133 @@ package io.github.suj1e.quiz.service;
 
 import tools.jackson.core.JacksonException;
 import tools.jackson.databind.ObjectMapper;
-import io.github.suj1e.content.api.client.ContentClient;
+import io.github.suj1e.content.api.cache.QuestionSetCache;
 import io.github.suj1e.content.api.dto.QuestionResponse;
+import io.github.suj1e.content.api.dto.QuestionSetSnapshot;
+import io.github.suj1e.common.exception.NotFoundException;
 import io.github.suj1e.llm.api.client.LlmClient;
-import io.github.suj1e.llm.api.dto.GradeResponse;
+import io.github.suj1e.llm.api.dto.AiConfig;
+import io.github.suj1e.llm.api.dto.BatchGradeRequest;
+import io.github.suj1e.llm.api.dto.BatchGradeResponse;
 import io.github.suj1e.llm.api.dto.GradeRequest;
-import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.llm.api.dto.GradeResponse;
+import io.github.suj1e.user.api.cache.AiConfigCache;
+import io.github.suj1e.user.api.dto.AiConfigResponse;
 import io.github.suj1e.quiz.dto.SubmitQuizRequest;
-import io.github.suj1e.quiz.entity.QuizAnswer;
 import io.github.suj1e.quiz.entity.QuizResultDetail;
-import io.github.suj1e.quiz.repository.QuizAnswerRepository;
+import io.github.suj1e.llm.api.grading.GradingCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * 评分服务.
+ * 选择题在调用线程内直接判分，简答题先查评分缓存，未命中的按 {@code grading.batch-size} 分批，
+ * 每批一次 LLM 调用，批次在虚拟线程上并发执行，并发数由 {@code grading.concurrency} 全局限制.
+ * 批量调用因超时以外的原因失败时，该批改为逐题调用单题评分接口.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GradingService {
 
-    private final ContentClient contentClient;
+    private static final String CHOICE_TYPE = "choice";
+
+    private final QuestionSetCache questionSetCache;
     private final LlmClient llmClient;
-    private final QuizAnswerRepository quizAnswerRepository;
+    private final AiConfigCache aiConfigCache;
+    private final GradingCache gradingCache;
     private final ObjectMapper objectMapper;
 
+    private final ExecutorService gradingExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${grading.concurrency:8}")
+    private int concurrency;
+
+    @Value("${grading.batch-size:20}")
+    private int batchSize;
+
+    @Value("${grading.timeout:60s}")
+    private Duration timeout;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(Math.max(1, concurrency));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        gradingExecutor.shutdownNow();
+    }
+
     /**
-     * 评分并生成结果详情.
+     * 评分并生成结果详情 (不涉及数据库写入，调用方不应在事务内调用).
      *
-     * @param resultId     结果 ID
-     * @param sessionId    会话 ID
+     * @param userId         用户 ID
      * @param knowledgeSetId 题库 ID
-     * @param answers      提交的答案
-     * @return 结果详情列表
+     * @param answers        提交的答案
+     * @return 结果详情列表 (按提交顺序)
      */
-    public List<QuizResultDetail> gradeAnswers(UUID resultId, UUID sessionId, UUID knowledgeSetId,
+    public List<QuizResultDetail> gradeAnswers(UUID userId, UUID knowledgeSetId,
                                                 List<SubmitQuizRequest.AnswerItem> answers) {
-        // 获取题目列表
-        ApiResponse<List<QuestionResponse>> response =
-            contentClient.getQuestions(knowledgeSetId, null);
-        List<QuestionResponse> questions = response.data();
+        return gradeAnswers(userId, knowledgeSetId, answers, () -> { });
+    }
+
+    /**
+     * 评分并生成结果详情，每完成一道题回调一次.
+     *
+     * @param userId         用户 ID
+     * @param knowledgeSetId 题库 ID
+     * @param answers        提交的答案
+     * @param onGraded       单题评分完成回调 (可能在评分线程上执行)
+     * @return 结果详情列表 (按提交顺序)
+     * @throws NotFoundException 题库不存在或暂时无法获取
+     */
+    public List<QuizResultDetail> gradeAnswers(UUID userId, UUID knowledgeSetId,
+                                                List<SubmitQuizRequest.AnswerItem> answers,
+                                                Runnable onGraded) {
+        // 获取题目列表 (题库快照缓存)，题库不存在或不可达时不能按零题评分
+        List<QuestionResponse> questions = questionSetCache.get(knowledgeSetId)
+            .map(QuestionSetSnapshot::questions)
+            .orElseThrow(() -> new NotFoundException("KnowledgeSet", knowledgeSetId));
 
         // 构建题目映射
         Map<UUID, QuestionResponse> questionMap = questions.stream()
             .collect(Collectors.toMap(QuestionResponse::id, Function.identity()));
 
-        // 保存答案
-        saveAnswers(sessionId, answers);
+        List<QuizResultDetail> details = new ArrayList<>(answers.size());
+        List<BatchGradeRequest.Item> essayItems = new ArrayList<>();
+        List<QuizResultDetail> essayDetails = new ArrayList<>();
+        List<String> essayKeys = new ArrayList<>();
+        AiConfig aiConfig = hasEssay(answers, questionMap) ? fetchAiConfig(userId) : null;
 
-        // 评分
-        List<QuizResultDetail> details = new ArrayList<>();
         for (SubmitQuizRequest.AnswerItem answerItem : answers) {
             QuestionResponse question = questionMap.get(answerItem.questionId());
             if (question == null) {
@@ -69,75 +136,317 @@ public class GradingService {
                 continue;
             }
 
-            QuizResultDetail detail = gradeQuestion(resultId, question, answerItem.answer());
+            QuizResultDetail detail = newDetail(question, answerItem.answer());
             details.add(detail);
+
+            if (CHOICE_TYPE.equals(question.type())) {
+                // 选择题：直接判断
+                gradeChoice(detail, question, answerItem.answer());
+                onGraded.run();
+                continue;
+            }
+
+            // 简答题：命中缓存直接使用，否则收集后按批提交
+            if (aiConfig == null) {
+                markFailed(detail, "AI configuration unavailable");
+                onGraded.run();
+                continue;
+            }
+            String cacheKey = gradingCache.key(question.id(), question.answer(),
+                question.rubric(), answerItem.answer(), aiConfig);
+            Optional<GradeResponse> cached = gradingCache.get(cacheKey);
+            if (cached.isPresent()) {
+                applyGrade(detail, cached.get());
+                onGraded.run();
+                continue;
+            }
+            essayItems.add(new BatchGradeRequest.Item(
+                question.id(),
+                question.content(),
+                question.answer(),
+                question.rubric(),
+                answerItem.answer()
+            ));
+            essayDetails.add(detail);
+            essayKeys.add(cacheKey);
+        }
+
+        List<PendingBatch> pendingBatches = new ArrayList<>();
+        int size = Math.max(1, batchSize);
+        for (int from = 0; from < essayItems.size(); from += size) {
+            int to = Math.min(from + size, essayItems.size());
+            BatchGradeRequest request = new BatchGradeRequest(essayItems.subList(from, to), aiConfig);
+            List<QuizResultDetail> batchDetails = essayDetails.subList(from, to);
+            List<String> batchKeys = essayKeys.subList(from, to);
+            CompletableFuture<Map<UUID, BatchGradeResponse.Item>> future = new CompletableFuture<>();
+            // 保留执行器返回的 Future: 超时时中断评分线程，释放并发许可并取消 HTTP 请求
+            Future<?> task = gradingExecutor.submit(() -> {
+                try {
+                    future.complete(gradeBatch(request));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            future.whenComplete((results, e) -> batchDetails.forEach(d -> onGraded.run()));
+            pendingBatches.add(new PendingBatch(batchDetails, batchKeys, future, task));
+        }
+
+        awaitAll(pendingBatches);
+
+        for (PendingBatch pending : pendingBatches) {
+            applyBatchGrade(pending);
         }
 
         return details;
     }
 
     /**
-     * 评分单个题目.
+     * 是否包含需要 LLM 评分的题目.
+     */
+    private boolean hasEssay(List<SubmitQuizRequest.AnswerItem> answers,
+                             Map<UUID, QuestionResponse> questionMap) {
+        return answers.stream()
+            .map(item -> questionMap.get(item.questionId()))
+            .anyMatch(q -> q != null && !CHOICE_TYPE.equals(q.type()));
+    }
+
+    /**
+     * 构建结果详情.
      */
-    private QuizResultDetail gradeQuestion(UUID resultId, QuestionResponse question,
-                                           String userAnswer) {
+    private QuizResultDetail newDetail(QuestionResponse question, String userAnswer) {
         QuizResultDetail detail = new QuizResultDetail();
-        detail.setResultId(resultId);
         detail.setQuestionId(question.id());
         detail.setUserAnswer(userAnswer);
         detail.setQuestionSnapshot(toJson(question));
+        return detail;
+    }
 
-        boolean isChoice = "choice".equals(question.type());
-
-        if (isChoice) {
-            // 选择题：直接判断
-            boolean correct = question.answer().equalsIgnoreCase(userAnswer.trim());
-            detail.setIsCorrect(correct);
-            detail.setScore(correct ? BigDecimal.ONE : BigDecimal.ZERO);
-        } else {
-            // 简答题：调用 LLM 评分
-            try {
-                GradeRequest gradeRequest = new GradeRequest(
-                    question.id(),
-                    question.content(),
-                    question.answer(),
-                    question.rubric(),
-                    userAnswer
-                );
-
-                ApiResponse<GradeResponse> gradeResponse = llmClient.gradeAnswer(gradeRequest);
-                GradeResponse grade = gradeResponse.data();
-
-                detail.setIsCorrect(grade.correct());
-                detail.setScore(BigDecimal.valueOf(grade.score()));
-                detail.setAiFeedback(grade.feedback());
-            } catch (Exception e) {
-                log.error("Failed to grade essay question: {}", question.id(), e);
-                detail.setIsCorrect(false);
-                detail.setScore(BigDecimal.ZERO);
-                detail.setAiFeedback("AI grading failed: " + e.getMessage());
+    /**
+     * 评分选择题.
+     */
+    private void gradeChoice(QuizResultDetail detail, QuestionResponse question, String userAnswer) {
+        boolean correct = question.answer().equalsIgnoreCase(userAnswer.trim());
+        detail.setIsCorrect(correct);
+        detail.setScore(correct ? BigDecimal.ONE : BigDecimal.ZERO);
+    }
+
+    /**
+     * 评分一个批次 (在评分线程上执行).
+     * 批量调用超时或被中断时直接失败，其他失败回退为逐题评分.
+     *
+     * @return 按题目 ID 索引的评分结果
+     */
+    private Map<UUID, BatchGradeResponse.Item> gradeBatch(BatchGradeRequest request) {
+        try {
+            return callLlm(request);
+        } catch (RuntimeException e) {
+            if (isTimeout(e) || Thread.currentThread().isInterrupted()) {
+                throw e;
             }
+            log.warn("Batch grading of {} questions failed, falling back to single grading: {}",
+                request.items().size(), e.getMessage());
+            return gradeIndividually(request);
         }
-
-        return detail;
     }
 
     /**
-     * 保存答案.
+     * 逐题调用单题评分接口，各题并发执行并同样受全局并发许可限制.
+     * 单题失败记入该题的评分结果，不影响同批其他题目.
      */
-    private void saveAnswers(UUID sessionId, List<SubmitQuizRequest.AnswerItem> answers) {
-        List<QuizAnswer> quizAnswers = answers.stream()
-            .map(item -> {
-                QuizAnswer answer = new QuizAnswer();
-                answer.setSessionId(sessionId);
-                answer.setQuestionId(item.questionId());
-                answer.setUserAnswer(item.answer());
-                answer.setAnsweredAt(java.time.Instant.now());
-                return answer;
-            })
+    private Map<UUID, BatchGradeResponse.Item> gradeIndividually(BatchGradeRequest request) {
+        List<Callable<BatchGradeResponse.Item>> tasks = request.items().stream()
+            .<Callable<BatchGradeResponse.Item>>map(item -> () -> gradeSingle(item, request.aiConfig()))
             .toList();
+        try {
+            Map<UUID, BatchGradeResponse.Item> results = new HashMap<>();
+            for (Future<BatchGradeResponse.Item> result : gradingExecutor.invokeAll(tasks)) {
+                BatchGradeResponse.Item item = result.get();
+                results.putIfAbsent(item.questionId(), item);
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * 调用 LLM 单题评分，结果转换为批量评分条目.
+     */
+    private BatchGradeResponse.Item gradeSingle(BatchGradeRequest.Item item, AiConfig aiConfig) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            GradeResponse grade = llmClient.gradeAnswer(new GradeRequest(
+                item.questionId(),
+                item.questionContent(),
+                item.correctAnswer(),
+                item.rubric(),
+                item.userAnswer(),
+                aiConfig
+            )).data();
+            if (grade == null) {
+                return new BatchGradeResponse.Item(item.questionId(), null, null, null, null, "no score returned");
+            }
+            return new BatchGradeResponse.Item(item.questionId(),
+                grade.score(), grade.maxScore(), grade.correct(), grade.feedback(), null);
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw e;
+            }
+            return new BatchGradeResponse.Item(item.questionId(), null, null, null, null, e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 异常链中是否包含超时或中断.
+     */
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException
+                || t instanceof SocketTimeoutException
+                || t instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 调用 LLM 批量评分 (在评分线程上执行).
+     *
+     * @return 按题目 ID 索引的评分结果
+     */
+    private Map<UUID, BatchGradeResponse.Item> callLlm(BatchGradeRequest request) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            BatchGradeResponse response = llmClient.gradeAnswers(request).data();
+            if (response == null || response.results() == null) {
+                throw new IllegalStateException("LLM grading returned no data");
+            }
+            return response.results().stream()
+                .filter(item -> item.questionId() != null)
+                .collect(Collectors.toMap(BatchGradeResponse.Item::questionId,
+                    Function.identity(), (a, b) -> a));
+        } finally {
+            permits.release();
+        }
+    }
 
-        quizAnswerRepository.saveAll(quizAnswers);
+    /**
+     * 等待所有批次评分完成，超时后不再等待.
+     */
+    private void awaitAll(List<PendingBatch> pendingBatches) {
+        if (pendingBatches.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] futures = pendingBatches.stream()
+            .map(PendingBatch::future)
+            .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Essay grading timed out after {}", timeout);
+        } catch (ExecutionException e) {
+            // 批次失败在 applyBatchGrade 中处理
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 写入一个批次的评分结果.
+     * 整批失败或超时时该批题目全部记为 0 分，单题失败只影响该题.
+     */
+    private void applyBatchGrade(PendingBatch pending) {
+        CompletableFuture<Map<UUID, BatchGradeResponse.Item>> future = pending.future();
+
+        if (!future.isDone()) {
+            pending.task().cancel(true);
+            future.cancel(false);
+            pending.details().forEach(detail -> markFailed(detail, "timed out"));
+            return;
+        }
+
+        Map<UUID, BatchGradeResponse.Item> results;
+        try {
+            results = future.join();
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to grade essay batch of {} questions", pending.details().size(), cause);
+            pending.details().forEach(detail -> markFailed(detail, cause.getMessage()));
+            return;
+        }
+
+        for (int i = 0; i < pending.details().size(); i++) {
+            QuizResultDetail detail = pending.details().get(i);
+            BatchGradeResponse.Item item = results.get(detail.getQuestionId());
+            if (item == null) {
+                markFailed(detail, "no result returned");
+            } else if (item.error() != null || item.score() == null) {
+                log.warn("Failed to grade essay question {}: {}", detail.getQuestionId(), item.error());
+                markFailed(detail, item.error() != null ? item.error() : "no score returned");
+            } else {
+                GradeResponse grade = new GradeResponse(
+                    item.score(), item.maxScore(), item.correct(), item.feedback());
+                applyGrade(detail, grade);
+                gradingCache.put(pending.cacheKeys().get(i), grade);
+            }
+        }
+    }
+
+    /**
+     * 写入简答题评分结果.
+     */
+    private void applyGrade(QuizResultDetail detail, GradeResponse grade) {
+        detail.setIsCorrect(Boolean.TRUE.equals(grade.correct()));
+        detail.setScore(BigDecimal.valueOf(grade.score()));
+        detail.setAiFeedback(grade.feedback());
+    }
+
+    private void markFailed(QuizResultDetail detail, String reason) {
+        detail.setIsCorrect(false);
+        detail.setScore(BigDecimal.ZERO);
+        detail.setAiFeedback("AI grading failed: " + reason);
+    }
+
+    /**
+     * 获取用户 AI 配置.
+     * 获取失败时返回 null，简答题将按评分失败处理.
+     */
+    private AiConfig fetchAiConfig(UUID userId) {
+        try {
+            AiConfigResponse config = aiConfigCache.get(userId).orElse(null);
+            if (config == null) {
+                log.warn("AI config not found for user {}", userId);
+                return null;
+            }
+            return new AiConfig(
+                config.preferredModel() != null ? config.preferredModel() : "gpt-4o-mini",
+                config.temperature() != null ? config.temperature() : 0.7,
+                config.maxTokens() != null ? config.maxTokens() : 2000,
+                config.systemPrompt() != null ? config.systemPrompt() : "You are a helpful assistant that grades answers.",
+                config.responseLanguage() != null ? config.responseLanguage() : "en",
+                config.customApiUrl() != null ? config.customApiUrl() : "https://api.openai.com/v1",
+                config.customApiKey() != null ? config.customApiKey() : ""
+            );
+        } catch (Exception e) {
+            log.error("Failed to fetch AI config for user {}: {}", userId, e.getMessage());
+            return null;
+        }
     }
 
     /**
@@ -151,4 +460,12 @@ public class GradingService {
             return "{}";
         }
     }
+
+    /**
+     * 待完成的简答题评分批次.
+     */
+    private record PendingBatch(List<QuizResultDetail> details,
+                                List<String> cacheKeys,
+                                CompletableFuture<Map<UUID, BatchGradeResponse.Item>> future,
+                                Future<?> task) {}
 }
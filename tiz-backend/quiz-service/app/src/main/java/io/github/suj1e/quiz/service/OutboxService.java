@@ -4,11 +4,14 @@ import tools.jackson.core.JacksonException;
 import tools.jackson.databind.ObjectMapper;
 import io.github.suj1e.quiz.dto.QuizCompletedEvent;
 import io.github.suj1e.quiz.entity.OutboxEvent;
+import io.github.suj1e.quiz.outbox.OutboxDispatcher;
 import io.github.suj1e.quiz.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.UUID;
 
@@ -22,9 +25,11 @@ public class OutboxService {
 
     private final OutboxEventRepository outboxEventRepository;
     private final ObjectMapper objectMapper;
+    private final OutboxDispatcher outboxDispatcher;
 
     /**
      * 创建测验完成事件.
+     * 事务提交后交给 {@link OutboxDispatcher} 立即发布.
      *
      * @param event 测验完成事件
      * @return 创建的事件 ID
@@ -41,9 +46,26 @@ public class OutboxService {
         log.info("Created outbox event: id={}, type={}, aggregateId={}",
             outboxEvent.getId(), outboxEvent.getEventType(), outboxEvent.getAggregateId());
 
+        dispatchAfterCommit(outboxEvent.getId());
         return outboxEvent.getId();
     }
 
+    /**
+     * 事务提交后即时分发事件，回滚时不分发.
+     */
+    private void dispatchAfterCommit(UUID eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxDispatcher.dispatch(eventId);
+                }
+            });
+        } else {
+            outboxDispatcher.dispatch(eventId);
+        }
+    }
+
     /**
      * 对象转 JSON.
      */
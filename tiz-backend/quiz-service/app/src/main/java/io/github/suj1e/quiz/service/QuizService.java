@@ -2,20 +2,26 @@ package io.github.suj1e.quiz.service;
 
 import tools.jackson.core.JacksonException;
 import tools.jackson.databind.ObjectMapper;
+import io.github.suj1e.content.api.cache.QuestionSetCache;
 import io.github.suj1e.content.api.client.ContentClient;
 import io.github.suj1e.content.api.dto.KnowledgeSetResponse;
 import io.github.suj1e.content.api.dto.QuestionResponse;
+import io.github.suj1e.content.api.dto.QuestionSetSnapshot;
 import io.github.suj1e.common.exception.NotFoundException;
 import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.quiz.dto.GradingStatusResponse;
 import io.github.suj1e.quiz.dto.QuizCompletedEvent;
 import io.github.suj1e.quiz.dto.QuizResultResponse;
 import io.github.suj1e.quiz.dto.StartQuizResponse;
 import io.github.suj1e.quiz.dto.SubmitQuizRequest;
+import io.github.suj1e.quiz.entity.QuizAnswer;
 import io.github.suj1e.quiz.entity.QuizResult;
 import io.github.suj1e.quiz.entity.QuizResultDetail;
 import io.github.suj1e.quiz.entity.QuizSession;
 import io.github.suj1e.common.exception.BusinessException;
 import io.github.suj1e.quiz.error.QuizErrorCode;
+import io.github.suj1e.quiz.grading.GradingJobExecutor;
+import io.github.suj1e.quiz.grading.GradingProgressTracker;
 import io.github.suj1e.quiz.repository.QuizAnswerRepository;
 import io.github.suj1e.quiz.repository.QuizResultDetailRepository;
 import io.github.suj1e.quiz.repository.QuizResultRepository;
@@ -24,6 +30,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -45,9 +52,13 @@ public class QuizService {
     private final QuizResultDetailRepository quizResultDetailRepository;
     private final QuizAnswerRepository quizAnswerRepository;
     private final ContentClient contentClient;
+    private final QuestionSetCache questionSetCache;
     private final GradingService gradingService;
     private final OutboxService outboxService;
     private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final GradingJobExecutor gradingJobExecutor;
+    private final GradingProgressTracker progressTracker;
 
     /**
      * 开始测验.
@@ -59,15 +70,11 @@ public class QuizService {
      */
     @Transactional
     public StartQuizResponse startQuiz(UUID userId, UUID knowledgeSetId, Integer timeLimit) {
-        // 获取题库信息
-        ApiResponse<KnowledgeSetResponse> ksResponse =
-            contentClient.getKnowledgeSet(knowledgeSetId);
-        KnowledgeSetResponse knowledgeSet = ksResponse.data();
-
-        // 获取题目列表
-        ApiResponse<List<QuestionResponse>> questionsResponse =
-            contentClient.getQuestions(knowledgeSetId, null);
-        List<QuestionResponse> questions = questionsResponse.data();
+        // 获取题库快照 (题库信息及题目列表)
+        QuestionSetSnapshot snapshot = questionSetCache.get(knowledgeSetId)
+            .orElseThrow(() -> new NotFoundException("KnowledgeSet", knowledgeSetId));
+        KnowledgeSetResponse knowledgeSet = snapshot.knowledgeSet();
+        List<QuestionResponse> questions = snapshot.questions();
 
         // 创建测验会话
         QuizSession session = new QuizSession();
@@ -102,14 +109,153 @@ public class QuizService {
 
     /**
      * 批量提交测验.
+     * LLM 评分在事务外完成，仅在持久化结果时开启事务；
+     * 事务内先以条件更新将进行中的会话置为已完成，并发提交只有一个成功.
      *
      * @param sessionId 会话 ID
      * @param userId    用户 ID
      * @param request   提交请求
      * @return 结果 ID
      */
-    @Transactional
     public UUID submitQuiz(UUID sessionId, UUID userId, SubmitQuizRequest request) {
+        QuizSession session = getSubmittableSession(sessionId, userId);
+
+        // 评分
+        List<QuizResultDetail> details = gradingService.gradeAnswers(
+            userId, session.getKnowledgeSetId(), request.answers()
+        );
+
+        return transactionTemplate.execute(status -> {
+            if (quizSessionRepository.completeInProgress(sessionId, Instant.now()) == 0) {
+                throw new BusinessException(QuizErrorCode.SESSION_GRADING);
+            }
+            saveAnswers(sessionId, request.answers());
+            return saveResult(session, userId, details);
+        });
+    }
+
+    /**
+     * 异步提交测验.
+     * 保存答案并将会话置为评分中 (本实例持有评分租约) 后立即返回，评分由后台工作线程完成.
+     * 会话以条件更新认领，并发提交只有一个成功.
+     *
+     * @param sessionId 会话 ID
+     * @param userId    用户 ID
+     * @param request   提交请求
+     * @return 会话 ID
+     */
+    public UUID submitQuizAsync(UUID sessionId, UUID userId, SubmitQuizRequest request) {
+        getSubmittableSession(sessionId, userId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (quizSessionRepository.claimForGrading(sessionId, gradingJobExecutor.getOwner(), Instant.now()) == 0) {
+                throw new BusinessException(QuizErrorCode.SESSION_GRADING);
+            }
+            saveAnswers(sessionId, request.answers());
+        });
+
+        enqueueGrading(sessionId);
+
+        log.info("Quiz submitted for async grading: sessionId={}", sessionId);
+        return sessionId;
+    }
+
+    /**
+     * 将本实例持有租约的会话加入评分队列.
+     * 队列已满时释放租约，由恢复任务稍后重新调度.
+     *
+     * @param sessionId 会话 ID
+     */
+    public void enqueueGrading(UUID sessionId) {
+        if (!gradingJobExecutor.submit(sessionId, () -> completeGrading(sessionId))) {
+            log.warn("Grading queue is full, deferring to recovery: sessionId={}", sessionId);
+            quizSessionRepository.releaseGrading(sessionId, gradingJobExecutor.getOwner());
+        }
+    }
+
+    /**
+     * 完成异步评分 (在评分工作线程上执行).
+     * 仅租约持有者可以写入结果；评分失败时释放租约，由恢复任务重试.
+     */
+    private void completeGrading(UUID sessionId) {
+        String owner = gradingJobExecutor.getOwner();
+        QuizSession session = quizSessionRepository.findById(sessionId).orElse(null);
+        if (session == null || session.getStatus() != QuizSession.Status.grading_pending) {
+            return;
+        }
+        if (quizSessionRepository.startGradingAttempt(sessionId, owner, Instant.now()) == 0) {
+            log.info("Grading lease taken over by another instance, skipping: sessionId={}", sessionId);
+            return;
+        }
+
+        try {
+            gradeAndSave(session, owner);
+        } catch (RuntimeException e) {
+            quizSessionRepository.releaseGrading(sessionId, owner);
+            throw e;
+        }
+    }
+
+    private void gradeAndSave(QuizSession session, String owner) {
+        UUID sessionId = session.getId();
+
+        List<SubmitQuizRequest.AnswerItem> answers = quizAnswerRepository.findBySessionId(sessionId).stream()
+            .map(a -> new SubmitQuizRequest.AnswerItem(a.getQuestionId(), a.getUserAnswer()))
+            .toList();
+
+        progressTracker.start(sessionId, answers.size());
+
+        List<QuizResultDetail> details = gradingService.gradeAnswers(
+            session.getUserId(), session.getKnowledgeSetId(), answers,
+            () -> progressTracker.increment(sessionId)
+        );
+
+        UUID resultId = transactionTemplate.execute(status -> {
+            if (quizSessionRepository.finishGrading(sessionId, owner, Instant.now()) == 0) {
+                status.setRollbackOnly();
+                return null;
+            }
+            return saveResult(session, session.getUserId(), details);
+        });
+        if (resultId == null) {
+            log.warn("Grading lease lost before saving result, discarding: sessionId={}", sessionId);
+            return;
+        }
+
+        progressTracker.complete(sessionId, resultId);
+    }
+
+    /**
+     * 获取异步评分状态.
+     *
+     * @param sessionId 会话 ID
+     * @param userId    用户 ID
+     * @return 评分状态
+     */
+    @Transactional(readOnly = true)
+    public GradingStatusResponse getGradingStatus(UUID sessionId, UUID userId) {
+        QuizSession session = quizSessionRepository.findByIdAndUserId(sessionId, userId)
+            .orElseThrow(() -> new NotFoundException("QuizSession", sessionId));
+
+        int total = (int) quizAnswerRepository.countBySessionId(sessionId);
+
+        if (session.getStatus() == QuizSession.Status.completed) {
+            UUID resultId = quizResultRepository.findBySessionId(sessionId)
+                .map(QuizResult::getId)
+                .orElse(null);
+            return new GradingStatusResponse(sessionId, session.getStatus().name(), total, total, resultId);
+        }
+
+        int graded = progressTracker.get(sessionId)
+            .map(GradingProgressTracker.Progress::graded)
+            .orElse(0);
+        return new GradingStatusResponse(sessionId, session.getStatus().name(), graded, total, null);
+    }
+
+    /**
+     * 查找并校验可提交的会话.
+     */
+    private QuizSession getSubmittableSession(UUID sessionId, UUID userId) {
         // 查找会话
         QuizSession session = quizSessionRepository.findByIdAndUserId(sessionId, userId)
             .orElseThrow(() -> new NotFoundException("QuizSession", sessionId));
@@ -119,19 +265,36 @@ public class QuizService {
             throw new BusinessException(QuizErrorCode.SESSION_ALREADY_COMPLETED);
         }
 
+        if (session.getStatus() == QuizSession.Status.grading_pending) {
+            throw new BusinessException(QuizErrorCode.SESSION_GRADING);
+        }
+
         if (session.getStatus() == QuizSession.Status.expired) {
             throw new BusinessException(QuizErrorCode.SESSION_EXPIRED);
         }
 
+        if (session.getStatus() == QuizSession.Status.grading_failed) {
+            throw new BusinessException(QuizErrorCode.GRADING_FAILED);
+        }
+
         // 检查是否已有结果
         if (quizResultRepository.existsBySessionId(sessionId)) {
             throw new BusinessException(QuizErrorCode.SESSION_ALREADY_COMPLETED);
         }
 
-        // 评分
-        List<QuizResultDetail> details = gradingService.gradeAnswers(
-            null, sessionId, session.getKnowledgeSetId(), request.answers()
-        );
+        return session;
+    }
+
+    /**
+     * 保存结果并创建 Outbox 事件 (在事务内调用，会话状态由调用方更新).
+     */
+    private UUID saveResult(QuizSession session, UUID userId, List<QuizResultDetail> details) {
+        UUID sessionId = session.getId();
+
+        // 评分期间可能已被并发提交
+        if (quizResultRepository.existsBySessionId(sessionId)) {
+            throw new BusinessException(QuizErrorCode.SESSION_ALREADY_COMPLETED);
+        }
 
         // 计算总分
         BigDecimal totalScore = details.stream()
@@ -164,11 +327,6 @@ public class QuizService {
         details.forEach(d -> d.setResultId(resultId));
         quizResultDetailRepository.saveAll(details);
 
-        // 更新会话状态
-        session.setStatus(QuizSession.Status.completed);
-        session.setCompletedAt(Instant.now());
-        quizSessionRepository.save(session);
-
         // 创建 Outbox 事件
         QuizCompletedEvent event = new QuizCompletedEvent(
             userId,
@@ -188,6 +346,25 @@ public class QuizService {
         return resultId;
     }
 
+    /**
+     * 保存答案.
+     */
+    private void saveAnswers(UUID sessionId, List<SubmitQuizRequest.AnswerItem> answers) {
+        Instant answeredAt = Instant.now();
+        List<QuizAnswer> quizAnswers = answers.stream()
+            .map(item -> {
+                QuizAnswer answer = new QuizAnswer();
+                answer.setSessionId(sessionId);
+                answer.setQuestionId(item.questionId());
+                answer.setUserAnswer(item.answer());
+                answer.setAnsweredAt(answeredAt);
+                return answer;
+            })
+            .toList();
+
+        quizAnswerRepository.saveAll(quizAnswers);
+    }
+
     /**
      * 获取测验结果.
      *
@@ -0,0 +1,102 @@
+package io.github.suj1e.quiz.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.kafka.autoconfigure.KafkaProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Kafka 生产者参数单元测试.
+ */
+class KafkaConfigTest {
+
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    @DisplayName("高吞吐预设 - 幂等发送并攒批压缩")
+    void producerProperties_Throughput_IdempotentAndBatched() {
+        // Act
+        Map<String, Object> props = KafkaConfig.producerProperties(
+            Map.of(), KafkaConfig.ProducerProfile.THROUGHPUT, SEND_TIMEOUT);
+
+        // Assert
+        assertThat(props)
+            .containsEntry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true)
+            .containsEntry(ProducerConfig.ACKS_CONFIG, "all")
+            .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 20)
+            .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd");
+        assertThat((int) props.get(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG))
+            .isGreaterThanOrEqualTo((int) props.get(ProducerConfig.LINGER_MS_CONFIG)
+                + (int) props.get(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG));
+    }
+
+    @Test
+    @DisplayName("低延迟预设 - 不等待攒批")
+    void producerProperties_Latency_NoLinger() {
+        // Act
+        Map<String, Object> props = KafkaConfig.producerProperties(
+            Map.of(), KafkaConfig.ProducerProfile.LATENCY, SEND_TIMEOUT);
+
+        // Assert
+        assertThat(props)
+            .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 0)
+            .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4")
+            .containsEntry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    }
+
+    @Test
+    @DisplayName("spring.kafka 配置 - 保留连接和序列化参数，显式配置优先于预设")
+    void producerProperties_KafkaProperties_WinOverProfile() {
+        // Arrange
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setBootstrapServers(List.of("kafka:9092"));
+        kafkaProperties.getProducer().setCompressionType("lz4");
+        kafkaProperties.getProducer().getProperties().put(ProducerConfig.LINGER_MS_CONFIG, "50");
+        kafkaProperties.getProducer().getProperties().put(ProducerConfig.CLIENT_ID_CONFIG, "quiz");
+
+        // Act
+        Map<String, Object> props = KafkaConfig.producerProperties(
+            kafkaProperties.buildProducerProperties(), KafkaConfig.ProducerProfile.THROUGHPUT, SEND_TIMEOUT);
+
+        // Assert
+        assertThat(props)
+            .containsEntry(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, List.of("kafka:9092"))
+            .containsEntry(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class)
+            .containsEntry(ProducerConfig.CLIENT_ID_CONFIG, "quiz")
+            .containsEntry(ProducerConfig.LINGER_MS_CONFIG, "50")
+            .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4")
+            .containsEntry(ProducerConfig.BATCH_SIZE_CONFIG, 128 * 1024)
+            .containsEntry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    }
+
+    @Test
+    @DisplayName("发送等待时间较短 - 投递超时随之缩短")
+    void producerProperties_ShortSendTimeout_DerivesTimeouts() {
+        // Act
+        Map<String, Object> props = KafkaConfig.producerProperties(
+            Map.of(), KafkaConfig.ProducerProfile.THROUGHPUT, Duration.ofSeconds(6));
+
+        // Assert
+        assertThat(props)
+            .containsEntry(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 5_000)
+            .containsEntry(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 4_980);
+    }
+
+    @Test
+    @DisplayName("覆盖的投递超时不短于发送等待时间 - 启动失败")
+    void producerProperties_DeliveryTimeoutOverride_Rejected() {
+        // Act & Assert
+        assertThatThrownBy(() -> KafkaConfig.producerProperties(
+            Map.of(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, "30000"),
+            KafkaConfig.ProducerProfile.THROUGHPUT, SEND_TIMEOUT))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("outbox.send-timeout");
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.suj1e.quiz.grading;
+
+import io.github.suj1e.quiz.entity.QuizSession;
+import io.github.suj1e.quiz.repository.QuizSessionRepository;
+import io.github.suj1e.quiz.service.QuizService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 评分任务恢复测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class GradingRecoverySchedulerTest {
+
+    private static final String OWNER = "owner-1";
+
+    @Mock
+    private QuizSessionRepository quizSessionRepository;
+
+    @Mock
+    private GradingJobExecutor gradingJobExecutor;
+
+    @Mock
+    private QuizService quizService;
+
+    @InjectMocks
+    private GradingRecoveryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "staleAfter", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(scheduler, "batchSize", 50);
+        ReflectionTestUtils.setField(scheduler, "maxAttempts", 3);
+        lenient().when(gradingJobExecutor.getOwner()).thenReturn(OWNER);
+    }
+
+    @Test
+    @DisplayName("租约过期的会话应被认领并重新入队")
+    void shouldClaimAndEnqueueStaleSession() {
+        // Given
+        QuizSession session = session(1);
+        when(quizSessionRepository.findStaleGrading(any(), any())).thenReturn(List.of(session));
+        when(quizSessionRepository.claimStale(eq(session.getId()), eq(OWNER), any(), any())).thenReturn(1);
+
+        // When
+        scheduler.recoverStaleJobs();
+
+        // Then
+        verify(quizService).enqueueGrading(session.getId());
+    }
+
+    @Test
+    @DisplayName("评分次数用尽的会话应置为评分失败且不再入队")
+    void shouldFailSessionAfterMaxAttempts() {
+        // Given
+        QuizSession session = session(3);
+        when(quizSessionRepository.findStaleGrading(any(), any())).thenReturn(List.of(session));
+        when(quizSessionRepository.failStaleGrading(eq(session.getId()), any(), any())).thenReturn(1);
+
+        // When
+        scheduler.recoverStaleJobs();
+
+        // Then
+        verify(quizSessionRepository, never()).claimStale(any(), any(), any(), any());
+        verifyNoInteractions(quizService);
+    }
+
+    @Test
+    @DisplayName("心跳应刷新本实例排队和评分中的会话")
+    void shouldHeartbeatInFlightSessions() {
+        // Given
+        Set<UUID> inFlight = Set.of(UUID.randomUUID(), UUID.randomUUID());
+        when(gradingJobExecutor.inFlightIds()).thenReturn(inFlight);
+
+        // When
+        scheduler.heartbeat();
+
+        // Then
+        verify(quizSessionRepository).heartbeat(eq(inFlight), eq(OWNER), any());
+    }
+
+    private static QuizSession session(int attempts) {
+        QuizSession session = new QuizSession();
+        session.setId(UUID.randomUUID());
+        session.setStatus(QuizSession.Status.grading_pending);
+        session.setGradingAttempts(attempts);
+        return session;
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.suj1e.quiz.outbox;
+
+import io.github.suj1e.quiz.entity.OutboxEvent;
+import io.github.suj1e.quiz.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outbox 即时分发器单元测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    private static final String OWNER = "instance-0";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OutboxDispatcher(outboxEventRepository, outboxPublisher, transactionTemplate);
+        ReflectionTestUtils.setField(dispatcher, "maxRetries", 3);
+        ReflectionTestUtils.setField(dispatcher, "lease", Duration.ofSeconds(60));
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("即时分发 - 领取待发送事件后发布")
+    void dispatchNow_PendingEvent_ClaimsAndPublishes() {
+        // Arrange
+        OutboxEvent event = event();
+        List<UUID> ids = List.of(event.getId());
+        when(outboxEventRepository.claimPending(eq(ids), anyString(), any(Instant.class), any(Instant.class)))
+            .thenReturn(1);
+        when(outboxEventRepository.findByIdInAndLockedBy(eq(ids), anyString())).thenReturn(List.of(event));
+        when(outboxPublisher.publishAll(List.of(event)))
+            .thenReturn(new OutboxPublisher.PublishResult(ids, Map.of()));
+        when(outboxEventRepository.markAsSent(eq(ids), anyString())).thenReturn(1);
+
+        // Act
+        int published = dispatcher.dispatchNow(ids);
+
+        // Assert
+        assertThat(published).isEqualTo(1);
+        verify(outboxEventRepository).markAsSent(eq(ids), anyString());
+    }
+
+    @Test
+    @DisplayName("即时分发 - 事件已被扫描任务领取时跳过")
+    void dispatchNow_AlreadyClaimed_Skips() {
+        // Arrange
+        List<UUID> ids = List.of(UUID.randomUUID());
+        when(outboxEventRepository.claimPending(any(), anyString(), any(), any())).thenReturn(0);
+
+        // Act
+        int published = dispatcher.dispatchNow(ids);
+
+        // Assert
+        assertThat(published).isZero();
+        verify(outboxEventRepository, never()).findByIdInAndLockedBy(any(), any());
+        verifyNoInteractions(outboxPublisher);
+    }
+
+    @Test
+    @DisplayName("发布 - 结果按租约持有者批量写回")
+    void publish_MixedResult_MarksByOwner() {
+        // Arrange
+        OutboxEvent sent = event();
+        OutboxEvent failed = event();
+        when(outboxPublisher.publishAll(List.of(sent, failed)))
+            .thenReturn(new OutboxPublisher.PublishResult(List.of(sent.getId()), Map.of(failed.getId(), "broker down")));
+        when(outboxEventRepository.markAsSent(any(), eq(OWNER))).thenReturn(1);
+
+        // Act
+        dispatcher.publish(List.of(sent, failed), OWNER);
+
+        // Assert
+        verify(outboxEventRepository).markAsSent(List.of(sent.getId()), OWNER);
+        verify(outboxEventRepository).markAsFailed(List.of(failed.getId()), OWNER, "broker down");
+    }
+
+    private static OutboxEvent event() {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(UUID.randomUUID());
+        event.setAggregateType("quiz_result");
+        event.setAggregateId(UUID.randomUUID());
+        event.setEventType("quiz.completed");
+        event.setPayload("{}");
+        return event;
+    }
+}
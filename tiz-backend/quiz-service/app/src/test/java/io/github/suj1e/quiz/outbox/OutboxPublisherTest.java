@@ -0,0 +1,103 @@
+package io.github.suj1e.quiz.outbox;
+
+import io.github.suj1e.quiz.entity.OutboxEvent;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outbox 事件发布器单元测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxPublisherTest {
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private OutboxPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new OutboxPublisher(kafkaTemplate);
+        ReflectionTestUtils.setField(publisher, "sendTimeout", Duration.ofMillis(200));
+    }
+
+    @Test
+    @DisplayName("批量发布 - 原始 payload 作为消息值，元数据放入消息头")
+    @SuppressWarnings("unchecked")
+    void publishAll_SendsPayloadWithHeaders() {
+        // Arrange
+        OutboxEvent event = event();
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // Act
+        OutboxPublisher.PublishResult result = publisher.publishAll(List.of(event));
+
+        // Assert
+        ArgumentCaptor<ProducerRecord<String, String>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(captor.capture());
+        ProducerRecord<String, String> record = captor.getValue();
+        assertThat(record.key()).isEqualTo(event.getAggregateId().toString());
+        assertThat(record.value()).isEqualTo(event.getPayload());
+        assertThat(header(record, OutboxPublisher.HEADER_EVENT_TYPE)).isEqualTo("quiz.completed");
+        assertThat(header(record, OutboxPublisher.HEADER_EVENT_ID)).isEqualTo(event.getId().toString());
+        assertThat(result.sent()).containsExactly(event.getId());
+        assertThat(result.failed()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("批量发布 - 全部发送后统一等待，失败和超时分别记录")
+    @SuppressWarnings("unchecked")
+    void publishAll_MixedOutcomes_ReportsPerEvent() {
+        // Arrange
+        OutboxEvent acked = event();
+        OutboxEvent rejected = event();
+        OutboxEvent pending = event();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(
+            CompletableFuture.completedFuture(mock(SendResult.class)),
+            CompletableFuture.failedFuture(new IllegalStateException("broker down")),
+            new CompletableFuture<>());
+
+        // Act
+        OutboxPublisher.PublishResult result = publisher.publishAll(List.of(acked, rejected, pending));
+
+        // Assert
+        verify(kafkaTemplate, times(3)).send(any(ProducerRecord.class));
+        assertThat(result.sent()).containsExactly(acked.getId());
+        assertThat(result.failed()).containsEntry(rejected.getId(), "broker down");
+        assertThat(result.failed().get(pending.getId())).contains("Timed out");
+    }
+
+    private static String header(ProducerRecord<String, String> record, String key) {
+        return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+
+    private static OutboxEvent event() {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(UUID.randomUUID());
+        event.setAggregateType("quiz_result");
+        event.setAggregateId(UUID.randomUUID());
+        event.setEventType("quiz.completed");
+        event.setPayload("{\"quizId\":\"" + event.getAggregateId() + "\"}");
+        return event;
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.suj1e.quiz.outbox;
+
+import io.github.suj1e.quiz.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outbox 清理任务单元测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxRetentionJobTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxRetentionJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new OutboxRetentionJob(outboxEventRepository, transactionTemplate);
+        ReflectionTestUtils.setField(job, "enabled", true);
+        ReflectionTestUtils.setField(job, "sentRetention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("清理 - 满批继续删除直到不满一批")
+    void purgeBefore_FullBatches_DeletesInChunks() {
+        // Arrange
+        Instant cutoff = Instant.now();
+        when(outboxEventRepository.deleteSentBefore(cutoff, 2)).thenReturn(2, 2, 1);
+
+        // Act
+        int purged = job.purgeBefore(cutoff);
+
+        // Assert
+        assertThat(purged).isEqualTo(5);
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(outboxEventRepository, never()).archiveSentBefore(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("开启归档 - 删除前先归档同一批")
+    void purgeBefore_ArchiveEnabled_ArchivesBeforeDelete() {
+        // Arrange
+        ReflectionTestUtils.setField(job, "archive", true);
+        Instant cutoff = Instant.now();
+        when(outboxEventRepository.archiveSentBefore(cutoff, 2)).thenReturn(1);
+        when(outboxEventRepository.deleteSentBefore(cutoff, 2)).thenReturn(1);
+
+        // Act
+        int purged = job.purgeBefore(cutoff);
+
+        // Assert
+        assertThat(purged).isEqualTo(1);
+        var inOrder = inOrder(outboxEventRepository);
+        inOrder.verify(outboxEventRepository).archiveSentBefore(cutoff, 2);
+        inOrder.verify(outboxEventRepository).deleteSentBefore(cutoff, 2);
+    }
+
+    @Test
+    @DisplayName("未开启 - 不清理")
+    void purgeSentEvents_Disabled_DoesNothing() {
+        // Arrange
+        ReflectionTestUtils.setField(job, "enabled", false);
+
+        // Act
+        job.purgeSentEvents();
+
+        // Assert
+        verifyNoInteractions(outboxEventRepository, transactionTemplate);
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.suj1e.quiz.outbox;
+
+import io.github.suj1e.quiz.entity.OutboxEvent;
+import io.github.suj1e.quiz.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outbox 发布任务单元测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxSchedulerTest {
+
+    private static final String OWNER = "instance-0";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxDispatcher outboxDispatcher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new OutboxScheduler(outboxEventRepository, outboxDispatcher, transactionTemplate);
+        ReflectionTestUtils.setField(scheduler, "batchSize", 2);
+        ReflectionTestUtils.setField(scheduler, "maxRetries", 3);
+        ReflectionTestUtils.setField(scheduler, "workers", 2);
+        ReflectionTestUtils.setField(scheduler, "lease", Duration.ofSeconds(60));
+        scheduler.init();
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("领取事件 - 锁定后写入租约")
+    void claim_LockedEvents_WritesLease() {
+        // Arrange
+        OutboxEvent event = event();
+        when(outboxEventRepository.findClaimable(eq(3), any(Instant.class), any(Pageable.class)))
+            .thenReturn(List.of(event));
+
+        // Act
+        List<OutboxEvent> claimed = scheduler.claim(OWNER);
+
+        // Assert
+        assertThat(claimed).containsExactly(event);
+        verify(outboxEventRepository).claim(eq(List.of(event.getId())), eq(OWNER), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("无可领取事件 - 不写租约")
+    void claim_NothingClaimable_SkipsLease() {
+        // Arrange
+        when(outboxEventRepository.findClaimable(anyInt(), any(), any())).thenReturn(List.of());
+
+        // Act
+        List<OutboxEvent> claimed = scheduler.claim(OWNER);
+
+        // Assert
+        assertThat(claimed).isEmpty();
+        verify(outboxEventRepository, never()).claim(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("持续领取 - 满批继续领取，每批以租约持有者发布")
+    void drain_FullBatch_ContinuesAndPublishesByOwner() {
+        // Arrange
+        OutboxEvent first = event();
+        OutboxEvent second = event();
+        OutboxEvent third = event();
+        when(outboxEventRepository.findClaimable(anyInt(), any(), any()))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of(third));
+
+        // Act
+        int processed = scheduler.drain(OWNER);
+
+        // Assert
+        assertThat(processed).isEqualTo(3);
+        verify(outboxEventRepository, times(2)).findClaimable(anyInt(), any(), any());
+        verify(outboxDispatcher).publish(List.of(first, second), OWNER);
+        verify(outboxDispatcher).publish(List.of(third), OWNER);
+    }
+
+    @Test
+    @DisplayName("扫描 - 每个发布线程各自领取一批")
+    void scanAndPublish_EachWorkerClaims() {
+        // Arrange
+        when(outboxEventRepository.findClaimable(anyInt(), any(), any())).thenReturn(List.of());
+
+        // Act
+        scheduler.scanAndPublish();
+
+        // Assert
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    private static OutboxEvent event() {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(UUID.randomUUID());
+        event.setAggregateType("quiz_result");
+        event.setAggregateId(UUID.randomUUID());
+        event.setEventType("quiz.completed");
+        event.setPayload("{}");
+        return event;
+    }
+}
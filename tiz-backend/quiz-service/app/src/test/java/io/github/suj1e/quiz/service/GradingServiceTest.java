@@ -0,0 +1,364 @@
+package io.github.suj1e.quiz.service;
+
+import tools.jackson.databind.ObjectMapper;
+import io.github.suj1e.content.api.cache.QuestionSetCache;
+import io.github.suj1e.content.api.dto.QuestionResponse;
+import io.github.suj1e.content.api.dto.QuestionSetSnapshot;
+import io.github.suj1e.llm.api.client.LlmClient;
+import io.github.suj1e.llm.api.dto.BatchGradeRequest;
+import io.github.suj1e.llm.api.dto.BatchGradeResponse;
+import io.github.suj1e.llm.api.dto.GradeRequest;
+import io.github.suj1e.llm.api.dto.GradeResponse;
+import io.github.suj1e.user.api.cache.AiConfigCache;
+import io.github.suj1e.user.api.dto.AiConfigResponse;
+import io.github.suj1e.common.exception.NotFoundException;
+import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.quiz.dto.SubmitQuizRequest;
+import io.github.suj1e.quiz.entity.QuizResultDetail;
+import io.github.suj1e.llm.api.grading.GradingCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 评分服务测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class GradingServiceTest {
+
+    @Mock
+    private QuestionSetCache questionSetCache;
+
+    @Mock
+    private LlmClient llmClient;
+
+    @Mock
+    private AiConfigCache aiConfigCache;
+
+    @Mock
+    private GradingCache gradingCache;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @InjectMocks
+    private GradingService gradingService;
+
+    private UUID userId;
+    private UUID knowledgeSetId;
+    private QuestionResponse choice;
+    private QuestionResponse essay1;
+    private QuestionResponse essay2;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gradingService, "concurrency", 4);
+        ReflectionTestUtils.setField(gradingService, "batchSize", 20);
+        ReflectionTestUtils.setField(gradingService, "timeout", Duration.ofSeconds(5));
+        gradingService.init();
+
+        userId = UUID.randomUUID();
+        knowledgeSetId = UUID.randomUUID();
+        choice = new QuestionResponse(UUID.randomUUID(), "choice", "What is 1+1?",
+            List.of("1", "2"), "2", null, null);
+        essay1 = new QuestionResponse(UUID.randomUUID(), "essay", "Explain JVM",
+            null, "Virtual machine", null, "rubric");
+        essay2 = new QuestionResponse(UUID.randomUUID(), "essay", "Explain GC",
+            null, "Garbage collection", null, "rubric");
+
+        when(questionSetCache.get(knowledgeSetId)).thenReturn(Optional.of(
+            new QuestionSetSnapshot(knowledgeSetId, 1L, null, List.of(choice, essay1, essay2))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        gradingService.shutdown();
+    }
+
+    @Test
+    @DisplayName("应该一次批量调用评分全部简答题并保持提交顺序")
+    void shouldGradeEssaysInSingleBatchInOrder() {
+        // Given
+        when(aiConfigCache.get(userId)).thenReturn(Optional.of(aiConfig()));
+        when(llmClient.gradeAnswers(any(BatchGradeRequest.class))).thenAnswer(invocation -> {
+            BatchGradeRequest request = invocation.getArgument(0);
+            List<BatchGradeResponse.Item> results = request.items().stream()
+                .map(item -> {
+                    boolean first = item.questionId().equals(essay1.id());
+                    return new BatchGradeResponse.Item(item.questionId(), first ? 1 : 0, 1, first, "ok", null);
+                })
+                .toList();
+            return ApiResponse.of(new BatchGradeResponse(results));
+        });
+
+        List<SubmitQuizRequest.AnswerItem> answers = List.of(
+            new SubmitQuizRequest.AnswerItem(essay2.id(), "b"),
+            new SubmitQuizRequest.AnswerItem(choice.id(), "2"),
+            new SubmitQuizRequest.AnswerItem(essay1.id(), "a")
+        );
+
+        // When
+        List<QuizResultDetail> details = gradingService.gradeAnswers(userId, knowledgeSetId, answers);
+
+        // Then
+        assertEquals(3, details.size());
+        assertEquals(essay2.id(), details.get(0).getQuestionId());
+        assertEquals(choice.id(), details.get(1).getQuestionId());
+        assertEquals(essay1.id(), details.get(2).getQuestionId());
+        assertFalse(details.get(0).getIsCorrect());
+        assertTrue(details.get(1).getIsCorrect());
+        assertTrue(details.get(2).getIsCorrect());
+        verify(llmClient, times(1)).gradeAnswers(any(BatchGradeRequest.class));
+        verify(llmClient, never()).gradeAnswer(any());
+        verify(aiConfigCache, times(1)).get(userId);
+    }
+
+    @Test
+    @DisplayName("应该按批大小拆分简答题")
+    void shouldSplitEssaysByBatchSize() {
+        // Given
+        ReflectionTestUtils.setField(gradingService, "batchSize", 1);
+        when(aiConfigCache.get(userId)).thenReturn(Optional.of(aiConfig()));
+        when(llmClient.gradeAnswers(any(BatchGradeRequest.class))).thenAnswer(invocation -> {
+            BatchGradeRequest request = invocation.getArgument(0);
+            UUID questionId = request.items().get(0).questionId();
+            return ApiResponse.of(new BatchGradeResponse(List.of(
+                new BatchGradeResponse.Item(questionId, 1, 1, true, "ok", null))));
+        });
+
+        List<SubmitQuizRequest.AnswerItem> answers = List.of(
+            new SubmitQuizRequest.AnswerItem(essay1.id(), "a"),
+            new SubmitQuizRequest.AnswerItem(essay2.id(), "b")
+        );
+
+        // When
+        List<QuizResultDetail> details = gradingService.gradeAnswers(userId, knowledgeSetId, answers);
+
+        // Then
+        assertTrue(details.get(0).getIsCorrect());
+        assertTrue(details.get(1).getIsCorrect());
+        verify(llmClient, times(2)).gradeAnswers(any(BatchGradeRequest.class));
+    }
+
+    @Test
+    @DisplayName("单题评分失败时应记 0 分而不影响同批其他题目")
+    void shouldFallbackWhenSingleItemFails() {
+        // Given
+        when(aiConfigCache.get(userId)).thenReturn(Optional.of(aiConfig()));
+        when(llmClient.gradeAnswers(any(BatchGradeRequest.class))).thenReturn(ApiResponse.of(
+            new BatchGradeResponse(List.of(
+                new BatchGradeResponse.Item(essay1.id(), null, null, null, null, "LLM unavailable"),
+                new BatchGradeResponse.Item(essay2.id(), 1, 1, true, "ok", null)
+            ))));
+
+        List<SubmitQuizRequest.AnswerItem> answers = List.of(
+            new SubmitQuizRequest.AnswerItem(essay1.id(), "a"),
+            new SubmitQuizRequest.AnswerItem(essay2.id(), "b")
+        );
+
+        // When
+        List<QuizResultDetail> details = gradingService.gradeAnswers(userId, knowledgeSetId, answers);
+
+        // Then
+        assertEquals(BigDecimal.ZERO, details.get(0).getScore());
+        assertFalse(details.get(0).getIsCorrect());
+        assertEquals("AI grading failed: LLM unavailable", details.get(0).getAiFeedback());
+        assertTrue(details.get(1).getIsCorrect());
+    }
+
+    @Test
+    @DisplayName("整批调用和逐题评分都失败时该批题目应全部记 0 分")
+    void shouldFallbackWhenBatchFails() {
+        // Given
+        when(aiConfigCache.get(userId)).thenReturn(Optional.of(aiConfig()));
+        when(llmClient.gradeAnswers(any(BatchGradeRequest.class)))
+            .thenThrow(new IllegalStateException("LLM unavailable"));
+        when(llmClient.gradeAnswer(any(GradeRequest.class)))
+            .thenThrow(new IllegalStateException("LLM unavailable"));
+
+        List<SubmitQuizRequest.AnswerItem> answers = List.of(
+            new SubmitQuizRequest.AnswerItem(essay1.id(), "a"),
+            new SubmitQuizRequest.AnswerItem(choice.id(), "2"),
+            new SubmitQuizRequest.AnswerItem(essay2.id(), "b")
+        );
+
+        // When
+        List<QuizResultDetail> details = gradingService.gradeAnswers(userId, knowledgeSetId, answers);
+
+        // Then
+        assertEquals(BigDecimal.ZERO, details.get(0).getScore());
+        assertTrue(details.get(0).getAiFeedback().startsWith("AI grading failed"));
+        assertTrue(details.get(1).getIsCorrect());
+        assertEquals(BigDecimal.ZERO, details.get(2).getScore());
+        assertTrue(details.get(2).getAiFeedback().startsWith("AI grading failed"));
+    }
+
+    @Test
+    @DisplayName("整批调用非超时失败时应回退为逐题评分")
+    void shouldGradeIndividuallyWhenBatchFails() {
+        // Given
+        when(aiConfigCache.get(userId)).thenReturn(Optional.of(aiConfig()));
+        when(llmClient.gradeAnswers(any(BatchGradeRequest.class)))
+            .thenThrow(new IllegalStateException("batch endpoint unavailable"));
+        when(llmClient.gradeAnswer(any(GradeRequest.class))).thenAnswer(invocation -> {
+            GradeRequest request = invocation.getArgument(0);
+            return request.questionId().equals(essay1.id())
+                ? ApiResponse.of(new GradeResponse(8, 10, true, "good"))
+                : ApiResponse.<GradeResponse>empty();
+        });
+
+        List<SubmitQuizRequest.AnswerItem> answers = List.of(
+            new SubmitQuizRequest.AnswerItem(essay1.id(), "a"),
+            new SubmitQuizRequest.AnswerItem(essay2.id(), "b")
+        );
+
+        // When
+        List<QuizResultDetail> details = gradingService.gradeAnswers(userId, knowledgeSetId, answers);
+
+        // Then
+        assertEquals(BigDecimal.valueOf(8), details.get(0).getScore());
+        assertEquals("good", details.get(0).getAiFeedback());
+        assertEquals(BigDecimal.ZERO, details.get(1).getScore());
+        assertEquals("AI grading failed: no score returned", details.get(1).getAiFeedback());
+        verify(llmClient, times(2)).gradeAnswer(any(GradeRequest.class));
+        verify(gradingCache, times(1)).put(any(), eq(new GradeResponse(8, 10, true, "good")));
+    }
+
+    @Test
+    @DisplayName("整批调用超时失败时不应回退为逐题评分")
+    void shouldNotGradeIndividuallyWhenBatchTimesOut() {
+        // Given
+        when(aiConfigCache.get(userId)).thenReturn(Optional.of(aiConfig()));
+        when(llmClient.gradeAnswers(any(BatchGradeRequest.class)))
+            .thenThrow(new IllegalStateException("read timed out", new SocketTimeoutException("Read timed out")));
+
+        List<SubmitQuizRequest.AnswerItem> answers = List.of(
+            new SubmitQuizRequest.AnswerItem(essay1.id(), "a")
+        );
+
+        // When
+        List<QuizResultDetail> details = gradingService.gradeAnswers(userId, knowledgeSetId, answers);
+
+        // Then
+        assertEquals(BigDecimal.ZERO, details.get(0).getScore());
+        assertEquals("AI grading failed: read timed out", details.get(0).getAiFeedback());
+        verify(llmClient, never()).gradeAnswer(any(GradeRequest.class));
+    }
+
+    @Test
+    @DisplayName("评分超时时应中断评分线程并释放并发许可")
+    void shouldInterruptTimedOutBatchAndReleasePermit() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(gradingService, "timeout", Duration.ofMillis(200));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(aiConfigCache.get(userId)).thenReturn(Optional.of(aiConfig()));
+        when(llmClient.gradeAnswers(any(BatchGradeRequest.class))).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        });
+
+        List<SubmitQuizRequest.AnswerItem> answers = List.of(
+            new SubmitQuizRequest.AnswerItem(essay1.id(), "a")
+        );
+
+        // When
+        List<QuizResultDetail> details = gradingService.gradeAnswers(userId, knowledgeSetId, answers);
+
+        // Then
+        assertTrue(details.get(0).getAiFeedback().endsWith("timed out"));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        Semaphore permits = (Semaphore) ReflectionTestUtils.getField(gradingService, "permits");
+        assertTrue(permits.tryAcquire(4, 5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("命中缓存的简答题不应再调用 LLM")
+    void shouldSkipLlmForCachedEssays() {
+        // Given
+        when(aiConfigCache.get(userId)).thenReturn(Optional.of(aiConfig()));
+        when(gradingCache.key(eq(essay1.id()), any(), any(), any(), any())).thenReturn("cached");
+        when(gradingCache.key(eq(essay2.id()), any(), any(), any(), any())).thenReturn("missing");
+        when(gradingCache.get("cached")).thenReturn(Optional.of(new GradeResponse(1, 1, true, "cached")));
+        when(llmClient.gradeAnswers(any(BatchGradeRequest.class))).thenReturn(ApiResponse.of(
+            new BatchGradeResponse(List.of(
+                new BatchGradeResponse.Item(essay2.id(), 0, 1, false, "fresh", null)
+            ))));
+
+        List<SubmitQuizRequest.AnswerItem> answers = List.of(
+            new SubmitQuizRequest.AnswerItem(essay1.id(), "a"),
+            new SubmitQuizRequest.AnswerItem(essay2.id(), "b")
+        );
+
+        // When
+        List<QuizResultDetail> details = gradingService.gradeAnswers(userId, knowledgeSetId, answers);
+
+        // Then
+        assertEquals("cached", details.get(0).getAiFeedback());
+        assertEquals("fresh", details.get(1).getAiFeedback());
+        verify(llmClient).gradeAnswers(argThat(request ->
+            request.items().size() == 1 && request.items().get(0).questionId().equals(essay2.id())));
+        verify(gradingCache).put("missing", new GradeResponse(0, 1, false, "fresh"));
+    }
+
+    @Test
+    @DisplayName("仅有选择题时不应调用 LLM 和获取 AI 配置")
+    void shouldNotCallLlmForChoiceOnly() {
+        // Given
+        List<SubmitQuizRequest.AnswerItem> answers = List.of(
+            new SubmitQuizRequest.AnswerItem(choice.id(), "1")
+        );
+
+        // When
+        List<QuizResultDetail> details = gradingService.gradeAnswers(userId, knowledgeSetId, answers);
+
+        // Then
+        assertEquals(1, details.size());
+        assertFalse(details.get(0).getIsCorrect());
+        verifyNoInteractions(llmClient, aiConfigCache);
+    }
+
+    @Test
+    @DisplayName("题库不存在时应抛出 NotFoundException 而不是按零题评分")
+    void shouldThrowWhenKnowledgeSetMissing() {
+        // Given
+        when(questionSetCache.get(knowledgeSetId)).thenReturn(Optional.empty());
+        List<SubmitQuizRequest.AnswerItem> answers = List.of(
+            new SubmitQuizRequest.AnswerItem(choice.id(), "2")
+        );
+
+        // When & Then
+        assertThrows(NotFoundException.class,
+            () -> gradingService.gradeAnswers(userId, knowledgeSetId, answers));
+        verifyNoInteractions(llmClient, aiConfigCache);
+    }
+
+    private AiConfigResponse aiConfig() {
+        return new AiConfigResponse("gpt-4o-mini", 0.7, 2000, "prompt", "en",
+            "https://api.openai.com/v1", "key");
+    }
+}
@@ -1,12 +1,15 @@
 package io.github.suj1e.quiz.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectMapper;
+import io.github.suj1e.content.api.cache.QuestionSetCache;
 import io.github.suj1e.content.api.client.ContentClient;
 import io.github.suj1e.content.api.dto.KnowledgeSetResponse;
 import io.github.suj1e.content.api.dto.QuestionResponse;
+import io.github.suj1e.content.api.dto.QuestionSetSnapshot;
 import io.github.suj1e.common.exception.BusinessException;
 import io.github.suj1e.common.exception.NotFoundException;
 import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.quiz.dto.GradingStatusResponse;
 import io.github.suj1e.quiz.dto.QuizResultResponse;
 import io.github.suj1e.quiz.dto.StartQuizResponse;
 import io.github.suj1e.quiz.dto.SubmitQuizRequest;
@@ -14,6 +17,9 @@ import io.github.suj1e.quiz.entity.QuizResult;
 import io.github.suj1e.quiz.entity.QuizResultDetail;
 import io.github.suj1e.quiz.entity.QuizSession;
 import io.github.suj1e.quiz.error.QuizErrorCode;
+import io.github.suj1e.quiz.grading.GradingJobExecutor;
+import io.github.suj1e.quiz.grading.GradingProgressTracker;
+import io.github.suj1e.quiz.repository.QuizAnswerRepository;
 import io.github.suj1e.quiz.repository.QuizResultDetailRepository;
 import io.github.suj1e.quiz.repository.QuizResultRepository;
 import io.github.suj1e.quiz.repository.QuizSessionRepository;
@@ -22,15 +28,20 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -51,9 +62,15 @@ class QuizServiceTest {
     @Mock
     private QuizResultDetailRepository quizResultDetailRepository;
 
+    @Mock
+    private QuizAnswerRepository quizAnswerRepository;
+
     @Mock
     private ContentClient contentClient;
 
+    @Mock
+    private QuestionSetCache questionSetCache;
+
     @Mock
     private GradingService gradingService;
 
@@ -63,6 +80,15 @@ class QuizServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private GradingJobExecutor gradingJobExecutor;
+
+    @Mock
+    private GradingProgressTracker progressTracker;
+
     @InjectMocks
     private QuizService quizService;
 
@@ -115,10 +141,8 @@ class QuizServiceTest {
         @DisplayName("应该成功开始测验")
         void shouldStartQuizSuccessfully() {
             // Given
-            when(contentClient.getKnowledgeSet(knowledgeSetId))
-                .thenReturn(ApiResponse.of(knowledgeSet));
-            when(contentClient.getQuestions(eq(knowledgeSetId), isNull()))
-                .thenReturn(ApiResponse.of(questions));
+            when(questionSetCache.get(knowledgeSetId))
+                .thenReturn(Optional.of(new QuestionSetSnapshot(knowledgeSetId, 1L, knowledgeSet, questions)));
             when(quizSessionRepository.save(any(QuizSession.class)))
                 .thenAnswer(invocation -> {
                     QuizSession session = invocation.getArgument(0);
@@ -146,10 +170,8 @@ class QuizServiceTest {
         @DisplayName("应该支持无限时测验")
         void shouldStartQuizWithoutTimeLimit() {
             // Given
-            when(contentClient.getKnowledgeSet(knowledgeSetId))
-                .thenReturn(ApiResponse.of(knowledgeSet));
-            when(contentClient.getQuestions(eq(knowledgeSetId), isNull()))
-                .thenReturn(ApiResponse.of(questions));
+            when(questionSetCache.get(knowledgeSetId))
+                .thenReturn(Optional.of(new QuestionSetSnapshot(knowledgeSetId, 1L, knowledgeSet, questions)));
             when(quizSessionRepository.save(any(QuizSession.class)))
                 .thenAnswer(invocation -> {
                     QuizSession session = invocation.getArgument(0);
@@ -168,10 +190,8 @@ class QuizServiceTest {
         @DisplayName("应该返回正确的题目信息（不含答案）")
         void shouldReturnQuestionsWithoutAnswers() {
             // Given
-            when(contentClient.getKnowledgeSet(knowledgeSetId))
-                .thenReturn(ApiResponse.of(knowledgeSet));
-            when(contentClient.getQuestions(eq(knowledgeSetId), isNull()))
-                .thenReturn(ApiResponse.of(questions));
+            when(questionSetCache.get(knowledgeSetId))
+                .thenReturn(Optional.of(new QuestionSetSnapshot(knowledgeSetId, 1L, knowledgeSet, questions)));
             when(quizSessionRepository.save(any(QuizSession.class)))
                 .thenAnswer(invocation -> {
                     QuizSession session = invocation.getArgument(0);
@@ -238,8 +258,11 @@ class QuizServiceTest {
             detail2.setIsCorrect(true);
             detail2.setScore(BigDecimal.ONE);
 
-            when(gradingService.gradeAnswers(isNull(), eq(sessionId), eq(knowledgeSetId), any()))
+            when(gradingService.gradeAnswers(eq(userId), eq(knowledgeSetId), any()))
                 .thenReturn(List.of(detail1, detail2));
+            when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<UUID>>getArgument(0)
+                    .doInTransaction(null));
 
             when(quizResultRepository.save(any(QuizResult.class)))
                 .thenAnswer(invocation -> {
@@ -250,6 +273,7 @@ class QuizServiceTest {
 
             when(quizResultDetailRepository.saveAll(any()))
                 .thenReturn(List.of(detail1, detail2));
+            when(quizSessionRepository.completeInProgress(eq(sessionId), any())).thenReturn(1);
 
             // When
             UUID resultId = quizService.submitQuiz(sessionId, userId, request);
@@ -258,10 +282,34 @@ class QuizServiceTest {
             assertNotNull(resultId);
             verify(quizResultRepository).save(any(QuizResult.class));
             verify(quizResultDetailRepository).saveAll(any());
-            verify(quizSessionRepository).save(any(QuizSession.class));
+            verify(quizAnswerRepository).saveAll(any());
+            verify(quizSessionRepository, never()).save(any(QuizSession.class));
             verify(outboxService).createQuizCompletedEvent(any());
         }
 
+        @Test
+        @DisplayName("并发提交已将会话置为已完成时应拒绝且不保存答案")
+        void shouldRejectWhenConcurrentlySubmitted() {
+            // Given
+            SubmitQuizRequest request = new SubmitQuizRequest(List.of(
+                new SubmitQuizRequest.AnswerItem(questions.get(0).id(), "2")
+            ));
+            when(quizSessionRepository.findByIdAndUserId(sessionId, userId))
+                .thenReturn(Optional.of(session));
+            when(gradingService.gradeAnswers(eq(userId), eq(knowledgeSetId), any())).thenReturn(List.of());
+            when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<UUID>>getArgument(0)
+                    .doInTransaction(null));
+            when(quizSessionRepository.completeInProgress(eq(sessionId), any())).thenReturn(0);
+
+            // When & Then
+            BusinessException exception = assertThrows(BusinessException.class,
+                () -> quizService.submitQuiz(sessionId, userId, request));
+            assertEquals(QuizErrorCode.SESSION_GRADING, exception.getErrorCode());
+            verify(quizAnswerRepository, never()).saveAll(any());
+            verify(quizResultRepository, never()).save(any());
+        }
+
         @Test
         @DisplayName("会话不存在时应抛出异常")
         void shouldThrowWhenSessionNotFound() {
@@ -306,6 +354,169 @@ class QuizServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("异步提交测试")
+    class SubmitQuizAsyncTests {
+
+        private UUID sessionId;
+        private QuizSession session;
+
+        @BeforeEach
+        void setUpSession() {
+            sessionId = UUID.randomUUID();
+            session = new QuizSession();
+            session.setId(sessionId);
+            session.setUserId(userId);
+            session.setKnowledgeSetId(knowledgeSetId);
+            session.setTotalQuestions(2);
+            session.setStartedAt(Instant.now().minusSeconds(300));
+            session.setStatus(QuizSession.Status.in_progress);
+        }
+
+        @Test
+        @DisplayName("应该保存答案并进入评分中状态")
+        void shouldSaveAnswersAndEnqueueGrading() {
+            // Given
+            SubmitQuizRequest request = new SubmitQuizRequest(List.of(
+                new SubmitQuizRequest.AnswerItem(questions.get(0).id(), "2")
+            ));
+            when(quizSessionRepository.findByIdAndUserId(sessionId, userId))
+                .thenReturn(Optional.of(session));
+            when(quizResultRepository.existsBySessionId(sessionId))
+                .thenReturn(false);
+            doAnswer(invocation -> {
+                invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                return null;
+            }).when(transactionTemplate).executeWithoutResult(any());
+            when(gradingJobExecutor.getOwner()).thenReturn("owner-1");
+            when(quizSessionRepository.claimForGrading(eq(sessionId), eq("owner-1"), any())).thenReturn(1);
+            when(gradingJobExecutor.submit(eq(sessionId), any())).thenReturn(true);
+
+            // When
+            UUID returned = quizService.submitQuizAsync(sessionId, userId, request);
+
+            // Then
+            assertEquals(sessionId, returned);
+            verify(quizSessionRepository).claimForGrading(eq(sessionId), eq("owner-1"), any());
+            verify(quizSessionRepository, never()).save(any(QuizSession.class));
+            verify(quizAnswerRepository).saveAll(any());
+            verify(gradingJobExecutor).submit(eq(sessionId), any());
+            verifyNoInteractions(gradingService, outboxService);
+        }
+
+        @Test
+        @DisplayName("并发提交已认领会话时应拒绝且不入队")
+        void shouldRejectWhenConcurrentlyClaimed() {
+            // Given
+            SubmitQuizRequest request = new SubmitQuizRequest(List.of(
+                new SubmitQuizRequest.AnswerItem(questions.get(0).id(), "2")
+            ));
+            when(quizSessionRepository.findByIdAndUserId(sessionId, userId))
+                .thenReturn(Optional.of(session));
+            doAnswer(invocation -> {
+                invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                return null;
+            }).when(transactionTemplate).executeWithoutResult(any());
+            when(gradingJobExecutor.getOwner()).thenReturn("owner-1");
+            when(quizSessionRepository.claimForGrading(eq(sessionId), eq("owner-1"), any())).thenReturn(0);
+
+            // When & Then
+            BusinessException exception = assertThrows(BusinessException.class,
+                () -> quizService.submitQuizAsync(sessionId, userId, request));
+            assertEquals(QuizErrorCode.SESSION_GRADING, exception.getErrorCode());
+            verify(quizAnswerRepository, never()).saveAll(any());
+            verify(gradingJobExecutor, never()).submit(any(), any());
+        }
+
+        @Test
+        @DisplayName("评分租约已被其他实例接管时应丢弃结果")
+        void shouldDiscardResultWhenLeaseLost() {
+            // Given
+            session.setStatus(QuizSession.Status.grading_pending);
+            Runnable job = captureGradingJob();
+            when(quizSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+            when(quizSessionRepository.startGradingAttempt(eq(sessionId), eq("owner-1"), any())).thenReturn(1);
+            when(quizAnswerRepository.findBySessionId(sessionId)).thenReturn(List.of());
+            when(gradingService.gradeAnswers(eq(userId), eq(knowledgeSetId), any(), any())).thenReturn(List.of());
+            TransactionStatus txStatus = mock(TransactionStatus.class);
+            when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(txStatus));
+            when(quizSessionRepository.finishGrading(eq(sessionId), eq("owner-1"), any())).thenReturn(0);
+
+            // When
+            job.run();
+
+            // Then
+            verify(txStatus).setRollbackOnly();
+            verify(quizResultRepository, never()).save(any());
+            verify(progressTracker, never()).complete(any(), any());
+        }
+
+        @Test
+        @DisplayName("评分失败时应释放租约以便恢复任务重试")
+        void shouldReleaseLeaseWhenGradingFails() {
+            // Given
+            session.setStatus(QuizSession.Status.grading_pending);
+            Runnable job = captureGradingJob();
+            when(quizSessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+            when(quizSessionRepository.startGradingAttempt(eq(sessionId), eq("owner-1"), any())).thenReturn(1);
+            when(quizAnswerRepository.findBySessionId(sessionId)).thenReturn(List.of());
+            when(gradingService.gradeAnswers(eq(userId), eq(knowledgeSetId), any(), any()))
+                .thenThrow(new BusinessException(QuizErrorCode.GRADING_FAILED));
+
+            // When & Then
+            assertThrows(BusinessException.class, job::run);
+            verify(quizSessionRepository).releaseGrading(sessionId, "owner-1");
+        }
+
+        /**
+         * 入队会话并取出提交给执行器的评分任务.
+         */
+        private Runnable captureGradingJob() {
+            when(gradingJobExecutor.getOwner()).thenReturn("owner-1");
+            ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+            when(gradingJobExecutor.submit(eq(sessionId), captor.capture())).thenReturn(true);
+            quizService.enqueueGrading(sessionId);
+            return captor.getValue();
+        }
+
+        @Test
+        @DisplayName("评分中的会话不能再次提交")
+        void shouldRejectWhenGrading() {
+            // Given
+            session.setStatus(QuizSession.Status.grading_pending);
+            SubmitQuizRequest request = new SubmitQuizRequest(List.of());
+            when(quizSessionRepository.findByIdAndUserId(sessionId, userId))
+                .thenReturn(Optional.of(session));
+
+            // When & Then
+            BusinessException exception = assertThrows(BusinessException.class,
+                () -> quizService.submitQuizAsync(sessionId, userId, request));
+            assertEquals(QuizErrorCode.SESSION_GRADING, exception.getErrorCode());
+        }
+
+        @Test
+        @DisplayName("评分完成后应返回结果 ID")
+        void shouldReturnResultIdWhenCompleted() {
+            // Given
+            session.setStatus(QuizSession.Status.completed);
+            QuizResult result = new QuizResult();
+            result.setId(UUID.randomUUID());
+            when(quizSessionRepository.findByIdAndUserId(sessionId, userId))
+                .thenReturn(Optional.of(session));
+            when(quizAnswerRepository.countBySessionId(sessionId)).thenReturn(2L);
+            when(quizResultRepository.findBySessionId(sessionId)).thenReturn(Optional.of(result));
+
+            // When
+            GradingStatusResponse status = quizService.getGradingStatus(sessionId, userId);
+
+            // Then
+            assertEquals("completed", status.status());
+            assertEquals(2, status.gradedCount());
+            assertEquals(result.getId(), status.resultId());
+        }
+    }
+
     @Nested
     @DisplayName("结果查询测试")
     class GetResultTests {
@@ -9,6 +9,10 @@ java {
 
 dependencies {
     api(libs.common)
+    api(libs.caffeine)
+    // AiConfigCacheConfiguration (WebClient、Redis pub/sub)，使用方自带 WebFlux 和 Redis
+    compileOnly(libs.spring.boot.starter.webflux)
+    compileOnly(libs.spring.boot.starter.data.redis)
 }
 
 publishing {
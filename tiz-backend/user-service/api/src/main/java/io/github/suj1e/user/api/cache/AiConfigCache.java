@@ -0,0 +1,90 @@
+package io.github.suj1e.user.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.suj1e.user.api.dto.AiConfigResponse;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 用户 AI 配置客户端缓存.
+ * 已配置的结果按 {@code ttl} 缓存，未配置 (加载器返回空) 按 {@code negativeTtl} 缓存，
+ * 加载失败不缓存. user-service 更新配置后通过 {@link #INVALIDATION_CHANNEL} 广播用户 ID，
+ * 订阅方调用 {@link #handleInvalidation(String)} 使本地缓存失效.
+ */
+public class AiConfigCache {
+
+    /**
+     * AI 配置变更广播频道 (Redis pub/sub)，消息体为用户 ID，{@code *} 表示全部失效.
+     */
+    public static final String INVALIDATION_CHANNEL = "user:ai-config:invalidated";
+
+    /**
+     * 全部失效消息.
+     */
+    public static final String INVALIDATE_ALL = "*";
+
+    private final Function<UUID, Optional<AiConfigResponse>> loader;
+    private final Cache<UUID, Optional<AiConfigResponse>> cache;
+
+    /**
+     * @param loader      配置加载器，用户未配置时返回空，临时错误时抛出异常
+     * @param ttl         已配置结果的缓存时间
+     * @param negativeTtl 未配置结果的缓存时间
+     * @param maxSize     最大缓存用户数
+     */
+    public AiConfigCache(Function<UUID, Optional<AiConfigResponse>> loader,
+                         Duration ttl, Duration negativeTtl, long maxSize) {
+        this.loader = loader;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(Expiry.<UUID, Optional<AiConfigResponse>>creating(
+                (userId, config) -> config.isPresent() ? ttl : negativeTtl))
+            .build();
+    }
+
+    /**
+     * 获取用户 AI 配置.
+     *
+     * @param userId 用户 ID
+     * @return AI 配置，用户未配置时为空
+     */
+    public Optional<AiConfigResponse> get(UUID userId) {
+        return cache.get(userId, loader);
+    }
+
+    /**
+     * 使单个用户的缓存失效.
+     */
+    public void invalidate(UUID userId) {
+        cache.invalidate(userId);
+    }
+
+    /**
+     * 使全部缓存失效.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 处理失效广播消息.
+     *
+     * @param payload 用户 ID 或 {@link #INVALIDATE_ALL}
+     */
+    public void handleInvalidation(String payload) {
+        if (payload == null || INVALIDATE_ALL.equals(payload.trim())) {
+            invalidateAll();
+            return;
+        }
+        try {
+            invalidate(UUID.fromString(payload.trim()));
+        } catch (IllegalArgumentException e) {
+            invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.suj1e.user.api.cache;
+
+import io.github.suj1e.user.api.client.UserClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 用户 AI 配置缓存配置.
+ * 提供基于 {@link UserClient} 的 {@link AiConfigCache} 并订阅失效广播.
+ * 不参与组件扫描，使用方在提供 {@link UserClient} 的配置类上通过 {@code @Import} 启用.
+ */
+public class AiConfigCacheConfiguration {
+
+    @Value("${user.ai-config-cache.ttl:60s}")
+    private Duration ttl;
+
+    @Value("${user.ai-config-cache.negative-ttl:10s}")
+    private Duration negativeTtl;
+
+    @Value("${user.ai-config-cache.max-size:10000}")
+    private long maxSize;
+
+    /**
+     * AI 配置缓存 (user-service 返回 404 视为未配置).
+     */
+    @Bean
+    public AiConfigCache aiConfigCache(UserClient userClient) {
+        return new AiConfigCache(userId -> {
+            try {
+                return Optional.ofNullable(userClient.getAiConfig(userId).data());
+            } catch (WebClientResponseException.NotFound e) {
+                return Optional.empty();
+            }
+        }, ttl, negativeTtl, maxSize);
+    }
+
+    /**
+     * 订阅 AI 配置失效广播.
+     */
+    @Bean
+    public RedisMessageListenerContainer aiConfigInvalidationListenerContainer(
+        RedisConnectionFactory connectionFactory, AiConfigCache aiConfigCache
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            (message, pattern) -> aiConfigCache.handleInvalidation(
+                new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(AiConfigCache.INVALIDATION_CHANNEL)
+        );
+        return container;
+    }
+}
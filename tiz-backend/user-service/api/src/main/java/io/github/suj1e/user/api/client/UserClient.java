@@ -1,14 +1,18 @@
 package io.github.suj1e.user.api.client;
 
+import io.github.suj1e.user.api.dto.AiConfigBatchGetRequest;
+import io.github.suj1e.user.api.dto.AiConfigBatchGetResponse;
 import io.github.suj1e.user.api.dto.AiConfigResponse;
 import io.github.suj1e.user.api.dto.AiConfigStatusResponse;
 import io.github.suj1e.user.api.dto.TokenValidationResponse;
 import io.github.suj1e.user.api.dto.UserResponse;
 import io.github.suj1e.common.response.ApiResponse;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
 
 import java.util.UUID;
 
@@ -27,6 +31,9 @@ public interface UserClient {
     @GetExchange("/internal/user/v1/ai-config")
     ApiResponse<AiConfigResponse> getAiConfig(@RequestParam("user_id") UUID userId);
 
+    @PostExchange("/internal/user/v1/ai-config:batchGet")
+    ApiResponse<AiConfigBatchGetResponse> batchGetAiConfigs(@RequestBody AiConfigBatchGetRequest request);
+
     @GetExchange("/internal/user/v1/ai-config/status")
     ApiResponse<AiConfigStatusResponse> hasAiConfig(@RequestParam("user_id") UUID userId);
 }
@@ -0,0 +1,11 @@
+package io.github.suj1e.user.api.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 批量获取AI配置请求.
+ */
+public record AiConfigBatchGetRequest(
+    List<UUID> userIds
+) {}
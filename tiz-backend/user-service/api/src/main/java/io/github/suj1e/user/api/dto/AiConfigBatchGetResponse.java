@@ -0,0 +1,12 @@
+package io.github.suj1e.user.api.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 批量获取AI配置响应.
+ * 未配置AI的用户不出现在结果中.
+ */
+public record AiConfigBatchGetResponse(
+    Map<UUID, AiConfigResponse> configs
+) {}
@@ -1,12 +1,16 @@
 package io.github.suj1e.user.controller;
 
 import io.github.suj1e.common.response.ApiResponse;
+import io.github.suj1e.user.dto.AiConfigBatchGetRequest;
+import io.github.suj1e.user.dto.AiConfigBatchGetResponse;
 import io.github.suj1e.user.dto.AiConfigResponse;
 import io.github.suj1e.user.service.SettingsService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashSet;
 import java.util.UUID;
 
 /**
@@ -29,11 +33,21 @@ public class InternalAiConfigController {
     public ResponseEntity<ApiResponse<AiConfigResponse>> getAiConfig(
         @RequestParam("user_id") UUID userId
     ) {
-        if (!settingsService.hasAiConfig(userId)) {
-            return ResponseEntity.notFound().build();
-        }
-        AiConfigResponse response = settingsService.getAiConfig(userId);
-        return ResponseEntity.ok(ApiResponse.of(response));
+        return settingsService.findConfiguredAiConfig(userId)
+            .map(response -> ResponseEntity.ok(ApiResponse.of(response)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 批量获取用户的 AI 配置.
+     * 供批量任务预取多个用户的配置，未配置的用户不出现在结果中.
+     */
+    @PostMapping("/ai-config:batchGet")
+    public ResponseEntity<ApiResponse<AiConfigBatchGetResponse>> batchGetAiConfigs(
+        @Valid @RequestBody AiConfigBatchGetRequest request
+    ) {
+        var configs = settingsService.findConfiguredAiConfigs(new LinkedHashSet<>(request.userIds()));
+        return ResponseEntity.ok(ApiResponse.of(new AiConfigBatchGetResponse(configs)));
     }
 
     /**
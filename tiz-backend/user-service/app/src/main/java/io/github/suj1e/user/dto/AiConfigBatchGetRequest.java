@@ -0,0 +1,17 @@
+package io.github.suj1e.user.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 批量获取 AI 配置请求 DTO.
+ */
+public record AiConfigBatchGetRequest(
+    @NotEmpty(message = "用户ID列表不能为空")
+    @Size(max = 500, message = "单次最多查询 500 个用户")
+    List<@NotNull UUID> userIds
+) {}
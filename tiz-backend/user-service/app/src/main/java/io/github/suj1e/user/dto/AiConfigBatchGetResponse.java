@@ -0,0 +1,12 @@
+package io.github.suj1e.user.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 批量获取 AI 配置响应 DTO.
+ * 未配置 AI 的用户不出现在 {@code configs} 中.
+ */
+public record AiConfigBatchGetResponse(
+    Map<UUID, AiConfigResponse> configs
+) {}
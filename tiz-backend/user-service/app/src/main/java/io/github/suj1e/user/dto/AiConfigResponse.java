@@ -1,6 +1,7 @@
 package io.github.suj1e.user.dto;
 
 import io.github.suj1e.user.entity.UserSettings;
+import io.github.suj1e.user.repository.AiConfigView;
 
 import java.time.Instant;
 
@@ -29,4 +30,17 @@ public record AiConfigResponse(
             settings.getUpdatedAt()
         );
     }
+
+    public static AiConfigResponse from(AiConfigView view) {
+        return new AiConfigResponse(
+            view.getPreferredModel(),
+            view.getTemperature(),
+            view.getMaxTokens(),
+            view.getSystemPrompt(),
+            view.getResponseLanguage(),
+            view.getCustomApiUrl(),
+            view.getCustomApiKey(),
+            view.getUpdatedAt()
+        );
+    }
 }
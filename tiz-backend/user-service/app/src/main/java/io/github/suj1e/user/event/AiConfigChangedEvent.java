@@ -0,0 +1,10 @@
+package io.github.suj1e.user.event;
+
+import java.util.UUID;
+
+/**
+ * 用户 AI 配置变更事件.
+ *
+ * @param userId 用户 ID
+ */
+public record AiConfigChangedEvent(UUID userId) {}
@@ -0,0 +1,32 @@
+package io.github.suj1e.user.event;
+
+import io.github.suj1e.user.api.cache.AiConfigCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * AI 配置失效广播.
+ * 事务提交后通过 Redis pub/sub 通知各服务的 {@link AiConfigCache} 失效.
+ * 广播失败时各服务缓存按 TTL 自然过期.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiConfigInvalidationPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAiConfigChanged(AiConfigChangedEvent event) {
+        try {
+            redisTemplate.convertAndSend(AiConfigCache.INVALIDATION_CHANNEL, event.userId().toString());
+        } catch (Exception e) {
+            log.warn("Failed to publish AI config invalidation for user {}: {}",
+                event.userId(), e.getMessage());
+        }
+    }
+}
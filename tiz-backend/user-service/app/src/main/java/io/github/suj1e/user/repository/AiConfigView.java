@@ -0,0 +1,44 @@
+package io.github.suj1e.user.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 用户 AI 配置只读投影.
+ * 仅查询 AI 配置相关列，不加载实体.
+ */
+public interface AiConfigView {
+
+    UUID getUserId();
+
+    String getPreferredModel();
+
+    Double getTemperature();
+
+    Integer getMaxTokens();
+
+    String getSystemPrompt();
+
+    String getResponseLanguage();
+
+    String getCustomApiUrl();
+
+    String getCustomApiKey();
+
+    Instant getUpdatedAt();
+
+    /**
+     * 是否已完成 AI 配置 (所有必填字段非空).
+     */
+    default boolean isConfigured() {
+        return notBlank(getPreferredModel())
+            && notBlank(getSystemPrompt())
+            && notBlank(getResponseLanguage())
+            && notBlank(getCustomApiUrl())
+            && notBlank(getCustomApiKey());
+    }
+
+    private static boolean notBlank(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -4,6 +4,8 @@ import io.github.suj1e.user.entity.UserSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,6 +20,16 @@ public interface UserSettingsRepository extends JpaRepository<UserSettings, UUID
      */
     Optional<UserSettings> findByUserId(UUID userId);
 
+    /**
+     * 查询用户 AI 配置投影.
+     */
+    Optional<AiConfigView> findAiConfigByUserId(UUID userId);
+
+    /**
+     * 批量查询用户 AI 配置投影.
+     */
+    List<AiConfigView> findAiConfigByUserIdIn(Collection<UUID> userIds);
+
     /**
      * 检查用户设置是否存在.
      */
@@ -4,13 +4,20 @@ import io.github.suj1e.user.dto.AiConfigRequest;
 import io.github.suj1e.user.dto.AiConfigResponse;
 import io.github.suj1e.user.dto.SettingsRequest;
 import io.github.suj1e.user.entity.UserSettings;
+import io.github.suj1e.user.event.AiConfigChangedEvent;
+import io.github.suj1e.user.repository.AiConfigView;
 import io.github.suj1e.user.repository.UserSettingsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * 用户设置服务.
@@ -21,6 +28,7 @@ import java.util.UUID;
 public class SettingsService {
 
     private final UserSettingsRepository userSettingsRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取或创建用户设置.
@@ -51,15 +59,18 @@ public class SettingsService {
 
     /**
      * 获取用户 AI 配置.
+     * 用户设置不存在时返回默认值，不在只读事务中创建设置.
      */
     @Transactional(readOnly = true)
     public AiConfigResponse getAiConfig(UUID userId) {
-        UserSettings settings = getOrCreateSettings(userId);
+        UserSettings settings = userSettingsRepository.findByUserId(userId)
+            .orElseGet(() -> UserSettings.builder().userId(userId).build());
         return AiConfigResponse.from(settings);
     }
 
     /**
      * 更新用户 AI 配置.
+     * 提交后广播失效消息，各服务的 AI 配置缓存随之失效.
      */
     @Transactional
     public AiConfigResponse updateAiConfig(UUID userId, AiConfigRequest request) {
@@ -72,6 +83,7 @@ public class SettingsService {
         settings.setCustomApiUrl(request.customApiUrl());
         settings.setCustomApiKey(request.customApiKey());
         UserSettings saved = userSettingsRepository.save(settings);
+        eventPublisher.publishEvent(new AiConfigChangedEvent(userId));
         return AiConfigResponse.from(saved);
     }
 
@@ -81,14 +93,34 @@ public class SettingsService {
      */
     @Transactional(readOnly = true)
     public boolean hasAiConfig(UUID userId) {
-        return userSettingsRepository.findByUserId(userId)
-            .map(settings ->
-                settings.getPreferredModel() != null && !settings.getPreferredModel().isBlank() &&
-                settings.getSystemPrompt() != null && !settings.getSystemPrompt().isBlank() &&
-                settings.getResponseLanguage() != null && !settings.getResponseLanguage().isBlank() &&
-                settings.getCustomApiUrl() != null && !settings.getCustomApiUrl().isBlank() &&
-                settings.getCustomApiKey() != null && !settings.getCustomApiKey().isBlank()
-            )
+        return userSettingsRepository.findAiConfigByUserId(userId)
+            .map(AiConfigView::isConfigured)
             .orElse(false);
     }
+
+    /**
+     * 获取已完成的用户 AI 配置 (供内部服务调用).
+     * 单次投影查询，不创建默认设置.
+     *
+     * @return AI 配置，未配置时为空
+     */
+    @Transactional(readOnly = true)
+    public Optional<AiConfigResponse> findConfiguredAiConfig(UUID userId) {
+        return userSettingsRepository.findAiConfigByUserId(userId)
+            .filter(AiConfigView::isConfigured)
+            .map(AiConfigResponse::from);
+    }
+
+    /**
+     * 批量获取已完成的用户 AI 配置 (供内部服务调用).
+     * 单次 IN 查询，未配置的用户不出现在结果中.
+     *
+     * @return 用户 ID 到 AI 配置的映射
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, AiConfigResponse> findConfiguredAiConfigs(Collection<UUID> userIds) {
+        return userSettingsRepository.findAiConfigByUserIdIn(userIds).stream()
+            .filter(AiConfigView::isConfigured)
+            .collect(Collectors.toMap(AiConfigView::getUserId, AiConfigResponse::from));
+    }
 }
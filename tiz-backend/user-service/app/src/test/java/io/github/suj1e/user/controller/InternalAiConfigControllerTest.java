@@ -0,0 +1,130 @@
+package io.github.suj1e.user.controller;
+
+import io.github.suj1e.user.dto.AiConfigResponse;
+import io.github.suj1e.user.security.JwtTokenProvider;
+import io.github.suj1e.user.service.SettingsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * InternalAiConfigController 测试.
+ */
+@WebMvcTest(InternalAiConfigController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class InternalAiConfigControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SettingsService settingsService;
+
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Test
+    @DisplayName("获取 AI 配置 - 已配置返回配置")
+    void getAiConfig_Configured_ReturnsConfig() throws Exception {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        when(settingsService.findConfiguredAiConfig(userId)).thenReturn(Optional.of(config()));
+
+        // Act & Assert
+        mockMvc.perform(get("/internal/user/v1/ai-config").param("user_id", userId.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.preferredModel").value("gpt-4o-mini"))
+            .andExpect(jsonPath("$.data.customApiUrl").value("https://api.example.com/v1"));
+    }
+
+    @Test
+    @DisplayName("获取 AI 配置 - 未配置返回 404")
+    void getAiConfig_NotConfigured_ReturnsNotFound() throws Exception {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        when(settingsService.findConfiguredAiConfig(userId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/internal/user/v1/ai-config").param("user_id", userId.toString()))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("批量获取 AI 配置 - 去重后查询，只返回已配置的用户")
+    void batchGetAiConfigs_ReturnsConfiguredUsers() throws Exception {
+        // Arrange
+        UUID configured = UUID.randomUUID();
+        UUID unconfigured = UUID.randomUUID();
+        when(settingsService.findConfiguredAiConfigs(any())).thenReturn(Map.of(configured, config()));
+
+        // Act & Assert
+        mockMvc.perform(post("/internal/user/v1/ai-config:batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(configured, unconfigured, configured)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.configs.%s.preferredModel", configured).value("gpt-4o-mini"))
+            .andExpect(jsonPath("$.data.configs.%s", unconfigured).doesNotExist());
+        verify(settingsService).findConfiguredAiConfigs(
+            argThat((Collection<UUID> ids) -> ids.size() == 2 && ids.containsAll(Set.of(configured, unconfigured))));
+    }
+
+    @Test
+    @DisplayName("批量获取 AI 配置 - 空列表返回 400")
+    void batchGetAiConfigs_Empty_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/internal/user/v1/ai-config:batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userIds\":[]}"))
+            .andExpect(status().isBadRequest());
+        verify(settingsService, never()).findConfiguredAiConfigs(any());
+    }
+
+    @Test
+    @DisplayName("批量获取 AI 配置 - 超过 500 个用户返回 400")
+    void batchGetAiConfigs_TooMany_ReturnsBadRequest() throws Exception {
+        // Arrange
+        UUID[] userIds = IntStream.range(0, 501).mapToObj(i -> UUID.randomUUID()).toArray(UUID[]::new);
+
+        // Act & Assert
+        mockMvc.perform(post("/internal/user/v1/ai-config:batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(userIds)))
+            .andExpect(status().isBadRequest());
+        verify(settingsService, never()).findConfiguredAiConfigs(any());
+    }
+
+    private static String body(UUID... userIds) {
+        return Arrays.stream(userIds)
+            .map(id -> "\"" + id + "\"")
+            .collect(Collectors.joining(",", "{\"userIds\":[", "]}"));
+    }
+
+    private static AiConfigResponse config() {
+        return new AiConfigResponse("gpt-4o-mini", 0.7, 2048, "You are a tutor", "zh",
+            "https://api.example.com/v1", "sk-test", Instant.now());
+    }
+}
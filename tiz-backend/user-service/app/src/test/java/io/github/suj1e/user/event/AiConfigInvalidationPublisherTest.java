@@ -0,0 +1,87 @@
+package io.github.suj1e.user.event;
+
+import io.github.suj1e.user.api.cache.AiConfigCache;
+import io.github.suj1e.user.api.dto.AiConfigResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * AI 配置失效广播单元测试.
+ */
+@ExtendWith(MockitoExtension.class)
+class AiConfigInvalidationPublisherTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @InjectMocks
+    private AiConfigInvalidationPublisher publisher;
+
+    @Test
+    @DisplayName("配置变更 - 向失效频道广播用户 ID")
+    void onAiConfigChanged_PublishesUserIdToChannel() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+
+        // Act
+        publisher.onAiConfigChanged(new AiConfigChangedEvent(userId));
+
+        // Assert
+        verify(redisTemplate).convertAndSend(AiConfigCache.INVALIDATION_CHANNEL, userId.toString());
+    }
+
+    @Test
+    @DisplayName("广播失败 - 不抛出异常，缓存按 TTL 过期")
+    void onAiConfigChanged_RedisDown_DoesNotThrow() {
+        // Arrange
+        when(redisTemplate.convertAndSend(eq(AiConfigCache.INVALIDATION_CHANNEL), anyString()))
+            .thenThrow(new RedisConnectionFailureException("redis down"));
+
+        // Act & Assert
+        assertThatCode(() -> publisher.onAiConfigChanged(new AiConfigChangedEvent(UUID.randomUUID())))
+            .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("广播的消息体 - 订阅方缓存只使对应用户失效")
+    void onAiConfigChanged_PayloadInvalidatesSubscriberCache() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        AiConfigCache cache = new AiConfigCache(id -> {
+            loads.incrementAndGet();
+            return Optional.of(new AiConfigResponse("gpt-4o-mini", 0.7, 2000, null, "zh", null, null));
+        }, Duration.ofMinutes(1), Duration.ofSeconds(10), 100);
+        cache.get(userId);
+        cache.get(otherUserId);
+
+        // Act
+        publisher.onAiConfigChanged(new AiConfigChangedEvent(userId));
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(AiConfigCache.INVALIDATION_CHANNEL), payload.capture());
+        cache.handleInvalidation(payload.getValue());
+        cache.get(userId);
+        cache.get(otherUserId);
+
+        // Assert
+        assertThat(loads).hasValue(3);
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.suj1e.user.repository;
+
+import io.github.suj1e.user.entity.UserSettings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * UserSettingsRepository AI 配置投影测试.
+ */
+@DataJpaTest
+class UserSettingsRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserSettingsRepository userSettingsRepository;
+
+    @Test
+    @DisplayName("查询投影 - 返回 AI 配置列且已完成配置")
+    void findAiConfigByUserId_Configured_ReturnsProjection() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        entityManager.persistAndFlush(configured(userId));
+        entityManager.clear();
+
+        // Act
+        Optional<AiConfigView> view = userSettingsRepository.findAiConfigByUserId(userId);
+
+        // Assert
+        assertThat(view).hasValueSatisfying(config -> {
+            assertThat(config.getUserId()).isEqualTo(userId);
+            assertThat(config.getPreferredModel()).isEqualTo("gpt-4o-mini");
+            assertThat(config.getTemperature()).isEqualTo(0.5);
+            assertThat(config.getMaxTokens()).isEqualTo(4096);
+            assertThat(config.getCustomApiKey()).isEqualTo("sk-test");
+            assertThat(config.getUpdatedAt()).isNotNull();
+            assertThat(config.isConfigured()).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("查询投影 - 必填字段为空时视为未配置")
+    void findAiConfigByUserId_Incomplete_NotConfigured() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        UserSettings settings = configured(userId);
+        settings.setCustomApiKey(" ");
+        entityManager.persistAndFlush(settings);
+
+        // Act
+        Optional<AiConfigView> view = userSettingsRepository.findAiConfigByUserId(userId);
+
+        // Assert
+        assertThat(view).hasValueSatisfying(config -> assertThat(config.isConfigured()).isFalse());
+    }
+
+    @Test
+    @DisplayName("查询投影 - 用户没有设置时为空")
+    void findAiConfigByUserId_Missing_ReturnsEmpty() {
+        // Act & Assert
+        assertThat(userSettingsRepository.findAiConfigByUserId(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("批量查询投影 - 单次 IN 查询只返回存在设置的用户")
+    void findAiConfigByUserIdIn_ReturnsExistingUsers() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        entityManager.persist(configured(first));
+        entityManager.persist(configured(second));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<AiConfigView> views = userSettingsRepository.findAiConfigByUserIdIn(
+            List.of(first, second, UUID.randomUUID()));
+
+        // Assert
+        assertThat(views).extracting(AiConfigView::getUserId).containsExactlyInAnyOrder(first, second);
+    }
+
+    private static UserSettings configured(UUID userId) {
+        Instant now = Instant.now();
+        return UserSettings.builder()
+            .userId(userId)
+            .preferredModel("gpt-4o-mini")
+            .temperature(0.5)
+            .maxTokens(4096)
+            .systemPrompt("You are a tutor")
+            .responseLanguage("zh")
+            .customApiUrl("https://api.example.com/v1")
+            .customApiKey("sk-test")
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+    }
+}